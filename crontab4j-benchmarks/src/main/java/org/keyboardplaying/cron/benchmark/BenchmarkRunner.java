@@ -0,0 +1,60 @@
+package org.keyboardplaying.cron.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar.
+ * <p/>
+ * This accepts the same arguments as JMH's own launcher but, unless told otherwise, writes the results as JSON to
+ * {@value #DEFAULT_RESULT} so that runs on different commits can be compared.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class BenchmarkRunner {
+
+    /**
+     * The file the results are written to when no result file is specified.
+     */
+    public static final String DEFAULT_RESULT = "jmh-result.json";
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the JMH command line arguments
+     * @throws Exception if the arguments are invalid or the benchmarks cannot be run
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp() || cli.shouldList() || cli.shouldListWithParams() || cli.shouldListProfilers()
+                || cli.shouldListResultFormats()) {
+            // nothing to run, let JMH handle it
+            Main.main(args);
+            return;
+        }
+        run(cli);
+    }
+
+    private static void run(CommandLineOptions cli) throws CommandLineOptionException, RunnerException {
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT);
+        }
+        new Runner(options.build()).run();
+    }
+}
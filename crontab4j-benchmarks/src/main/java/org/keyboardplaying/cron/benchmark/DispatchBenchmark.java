@@ -0,0 +1,127 @@
+package org.keyboardplaying.cron.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.cron.scheduler.CronScheduler;
+import org.keyboardplaying.cron.scheduler.engine.TriggerEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the {@link CronScheduler} when firing thousands of jobs.
+ * <p/>
+ * The scheduler is given a manual {@link TriggerEngine}, which keeps the triggers instead of waiting for their due
+ * time, and an executor running the jobs on the calling thread. Each invocation calls all the pending triggers once:
+ * this covers the whole dispatch path (prediction of the next occurrence of each schedule, insertion in the trigger
+ * queue and hand-over of each job to the executor) without depending on the clock. The scheduler is created again for
+ * each iteration, so that the occurrences do not drift too far into the future.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DispatchBenchmark {
+
+    // every invocation moves each schedule to its next occurrence: rare expressions would run out of occurrences
+    private static final String[] EXPRESSIONS = { "* * * * *", "*/5 * * * *", "@hourly", "@daily",
+            "0,15,30,45 9-17 * * mon-fri", "0 0 1 * *", "30 4 1,15 * 5", "0 0 * * 0" };
+
+    @Param({ "1000", "10000" })
+    private int jobCount;
+
+    private ManualTriggerEngine engine;
+    private CronScheduler scheduler;
+    private long fired;
+
+    private final Runnable job = () -> fired++;
+
+    /**
+     * Schedules the jobs on a scheduler driven by a manual engine.
+     */
+    @Setup(Level.Iteration)
+    public void setUp() {
+        engine = new ManualTriggerEngine();
+        scheduler = new CronScheduler(engine);
+        scheduler.setExecutor(Runnable::run);
+        for (int i = 0; i < jobCount; i++) {
+            scheduler.scheduleJob(job, EXPRESSIONS[i % EXPRESSIONS.length]);
+        }
+    }
+
+    /**
+     * Terminates the scheduler.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        scheduler.terminate();
+    }
+
+    /**
+     * Calls all the pending triggers, which fire the jobs and schedule their next occurrences.
+     *
+     * @return the number of jobs fired so far
+     */
+    @Benchmark
+    public long dispatch() {
+        engine.fireAll();
+        return fired;
+    }
+
+    /**
+     * A {@link TriggerEngine} keeping its triggers until they are explicitly called.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class ManualTriggerEngine implements TriggerEngine {
+
+        private List<Runnable> pending = new ArrayList<>();
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#schedule(java.lang.Runnable, long)
+         */
+        @Override
+        public void schedule(Runnable trigger, long epochMillis) {
+            pending.add(trigger);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#terminate()
+         */
+        @Override
+        public void terminate() {
+            pending.clear();
+        }
+
+        /**
+         * Calls the triggers scheduled so far; the ones they schedule are kept for the next call.
+         */
+        void fireAll() {
+            List<Runnable> due = pending;
+            pending = new ArrayList<>(due.size());
+            for (Runnable trigger : due) {
+                trigger.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.keyboardplaying.cron.benchmark;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+import org.keyboardplaying.cron.predictor.CronPredictor;
+import org.keyboardplaying.cron.predictor.OccurrenceCounter;
+import org.keyboardplaying.cron.predictor.ZonedCronPredictor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the enumeration and the counting of many successive occurrences of a CRON expression, as needed for
+ * capacity planning.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OccurrencesBenchmark {
+
+    private static final int COUNT = 10_000;
+    private static final long WINDOW = TimeUnit.DAYS.toMillis(30);
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    // 0 */15 9-17 * * MON-FRI *
+    private final CronExpression cron = CronExpression.Builder.create().set(DayConstraint.WEEK)
+            .set(Field.SECOND, new SingleValueRule(0)).set(Field.MINUTE, new RepeatRule(0, 59, 15))
+            .set(Field.HOUR, new RangeRule(9, 17)).set(Field.DAY_OF_MONTH, new AnyValueRule())
+            .set(Field.MONTH, new AnyValueRule()).set(Field.DAY_OF_WEEK, new RangeRule(Calendar.MONDAY,
+                    Calendar.FRIDAY)).set(Field.YEAR, new AnyValueRule()).build();
+
+    private ZonedDateTime from;
+    private CronPredictor calendarPredictor;
+    private ZonedCronPredictor zonedPredictor;
+    private OccurrenceCounter counter;
+
+    /**
+     * Initializes the predictors.
+     */
+    @Setup
+    public void setUp() {
+        from = ZonedDateTime.of(2015, 3, 2, 13, 37, 42, 0, ZONE);
+        calendarPredictor = new CronPredictor();
+        zonedPredictor = new ZonedCronPredictor();
+        counter = new OccurrenceCounter(ZONE);
+    }
+
+    /**
+     * Chains calls to the {@link Calendar}-based predictor.
+     *
+     * @return the last occurrence
+     */
+    @Benchmark
+    public Calendar calendarLoop() {
+        Calendar next = GregorianCalendar.from(from);
+        for (int i = 0; i < COUNT; i++) {
+            next = calendarPredictor.getNextOccurrence(cron, next);
+        }
+        return next;
+    }
+
+    /**
+     * Consumes the lazy stream of the {@link ZonedCronPredictor}.
+     *
+     * @return the last occurrence
+     */
+    @Benchmark
+    public Instant occurrenceStream() {
+        return zonedPredictor.occurrences(cron, from.toInstant(), null, ZONE).skip(COUNT - 1).findFirst().get();
+    }
+
+    /**
+     * Consumes the lazy stream of the {@link ZonedCronPredictor}, without creating any object per occurrence.
+     *
+     * @return the last occurrence, as milliseconds since the epoch
+     */
+    @Benchmark
+    public long epochMillisStream() {
+        return zonedPredictor.occurrencesEpochMillis(cron, from.toInstant().toEpochMilli(), Long.MAX_VALUE, ZONE)
+                .skip(COUNT - 1).findFirst().getAsLong();
+    }
+
+    /**
+     * Counts the occurrences within 30 days by enumerating them.
+     *
+     * @return the number of occurrences
+     */
+    @Benchmark
+    public long enumerateWindow() {
+        long fromEpochMillis = from.toInstant().toEpochMilli();
+        return zonedPredictor.occurrencesEpochMillis(cron, fromEpochMillis, fromEpochMillis + WINDOW, ZONE).count();
+    }
+
+    /**
+     * Counts the occurrences within 30 days with an {@link OccurrenceCounter}.
+     *
+     * @return the number of occurrences
+     */
+    @Benchmark
+    public long countWindow() {
+        long fromEpochMillis = from.toInstant().toEpochMilli();
+        return counter.count(cron, fromEpochMillis, fromEpochMillis + WINDOW);
+    }
+}
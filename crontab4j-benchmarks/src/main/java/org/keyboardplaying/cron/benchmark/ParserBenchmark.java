@@ -0,0 +1,86 @@
+package org.keyboardplaying.cron.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.parser.CronSyntacticParser;
+import org.keyboardplaying.cron.parser.SinglePassUnixCronParser;
+import org.keyboardplaying.cron.parser.UnixCronParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of Unix CRON expressions.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({
+            // simple
+            "0 0 * * *",
+            // comma-heavy
+            "0,5,10,15,20,25,30,35,40,45,50,55 0,6,12,18 1,8,15,22,29 * *",
+            // aliased
+            "*/15 9-17 * jan-jun,sep-dec mon-sat",
+            // special
+            "@hourly" })
+    private String expression;
+
+    private CronSyntacticParser regexParser;
+    private CronSyntacticParser singlePassParser;
+
+    /**
+     * Initializes the parsers.
+     */
+    @Setup
+    public void setUp() {
+        regexParser = new UnixCronParser();
+        singlePassParser = new SinglePassUnixCronParser();
+    }
+
+    /**
+     * Parses the expression with the regex-based {@link UnixCronParser}.
+     *
+     * @return the parsed expression
+     */
+    @Benchmark
+    public CronExpression regexParser() {
+        return regexParser.parse(expression);
+    }
+
+    /**
+     * Parses the expression with the {@link SinglePassUnixCronParser}.
+     *
+     * @return the parsed expression
+     */
+    @Benchmark
+    public CronExpression singlePassParser() {
+        return singlePassParser.parse(expression);
+    }
+
+    /**
+     * Validates the expression with the {@link SinglePassUnixCronParser}.
+     *
+     * @return the result of the validation
+     */
+    @Benchmark
+    public boolean singlePassValidation() {
+        return singlePassParser.isValid(expression);
+    }
+}
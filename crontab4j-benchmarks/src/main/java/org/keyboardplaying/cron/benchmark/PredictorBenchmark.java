@@ -0,0 +1,159 @@
+package org.keyboardplaying.cron.benchmark;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+import org.keyboardplaying.cron.predictor.CronPredictor;
+import org.keyboardplaying.cron.predictor.OccurrenceCursor;
+import org.keyboardplaying.cron.predictor.ZonedCronPredictor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the computation of the next (and previous) occurrence of a CRON expression, for each {@link DayConstraint}
+ * mode.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PredictorBenchmark {
+
+    /**
+     * The expressions to predict.
+     */
+    public enum Scenario {
+        /**
+         * {@code 0 0/5 * * * ? *}
+         */
+        NONE(DayConstraint.NONE, new RepeatRule(0, 59, 5), ANY, ANY, ANY, ANY),
+        /**
+         * {@code 0 0 0 1/10 * ? *}
+         */
+        MONTH(DayConstraint.MONTH, ZERO, ZERO, new RepeatRule(1, 31, 10), ANY, ANY),
+        /**
+         * {@code 0 0 0 ? * MON-FRI *}
+         */
+        WEEK(DayConstraint.WEEK, ZERO, ZERO, ANY, ANY, WEEK_DAYS),
+        /**
+         * {@code 0 0 0 1/10 * MON-FRI *}, both constraints must match
+         */
+        BOTH_AND(DayConstraint.BOTH_AND, ZERO, ZERO, new RepeatRule(1, 31, 10), ANY, WEEK_DAYS),
+        /**
+         * {@code 0 0 0 1/10 * MON-FRI *}, either constraint may match
+         */
+        BOTH_OR(DayConstraint.BOTH_OR, ZERO, ZERO, new RepeatRule(1, 31, 10), ANY, WEEK_DAYS),
+        /**
+         * {@code 0 0 29 2 *}, which only matches every four years
+         */
+        LEAP_DAY(DayConstraint.MONTH, ZERO, ZERO, new SingleValueRule(29), new SingleValueRule(Calendar.FEBRUARY), ANY);
+
+        private final CronExpression cron;
+
+        Scenario(DayConstraint constraint, CronRule minute, CronRule hour, CronRule dayOfMonth, CronRule month,
+                CronRule dayOfWeek) {
+            this.cron = CronExpression.Builder.create().set(constraint).set(Field.SECOND, ZERO)
+                    .set(Field.MINUTE, minute).set(Field.HOUR, hour).set(Field.DAY_OF_MONTH, dayOfMonth)
+                    .set(Field.MONTH, month).set(Field.DAY_OF_WEEK, dayOfWeek).set(Field.YEAR, ANY).build();
+        }
+    }
+
+    private static final CronRule ANY = new AnyValueRule();
+    private static final CronRule ZERO = new SingleValueRule(0);
+    private static final CronRule WEEK_DAYS = new RangeRule(Calendar.MONDAY, Calendar.FRIDAY);
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Paris");
+
+    @Param
+    private Scenario scenario;
+
+    private CronExpression cron;
+    private ZonedDateTime from;
+    private Calendar fromCalendar;
+    private long fromEpochMillis;
+
+    private CronPredictor calendarPredictor;
+    private ZonedCronPredictor zonedPredictor;
+    private OccurrenceCursor cursor;
+
+    /**
+     * Initializes the expression and the predictors.
+     */
+    @Setup
+    public void setUp() {
+        cron = scenario.cron;
+        from = ZonedDateTime.of(2015, 3, 2, 13, 37, 42, 0, ZONE);
+        fromCalendar = GregorianCalendar.from(from);
+        fromEpochMillis = from.toInstant().toEpochMilli();
+
+        calendarPredictor = new CronPredictor();
+        zonedPredictor = new ZonedCronPredictor();
+        cursor = new OccurrenceCursor(ZONE);
+    }
+
+    /**
+     * Predicts the next occurrence with the {@link Calendar}-based predictor.
+     *
+     * @return the next occurrence
+     */
+    @Benchmark
+    public Calendar calendarPredictor() {
+        return calendarPredictor.getNextOccurrence(cron, fromCalendar);
+    }
+
+    /**
+     * Predicts the next occurrence with the {@link ZonedCronPredictor}.
+     *
+     * @return the next occurrence
+     */
+    @Benchmark
+    public ZonedDateTime zonedPredictor() {
+        return zonedPredictor.predictNext(cron, from);
+    }
+
+    /**
+     * Predicts the next occurrence with a reused {@link OccurrenceCursor}.
+     *
+     * @return the next occurrence, as milliseconds since the epoch
+     */
+    @Benchmark
+    public long cursor() {
+        cursor.moveTo(fromEpochMillis).next(cron);
+        return cursor.getEpochMillis();
+    }
+
+    /**
+     * Predicts the previous occurrence with a reused {@link OccurrenceCursor}.
+     *
+     * @return the previous occurrence, as milliseconds since the epoch
+     */
+    @Benchmark
+    public long cursorPrevious() {
+        cursor.moveTo(fromEpochMillis).previous(cron);
+        return cursor.getEpochMillis();
+    }
+}
@@ -0,0 +1,94 @@
+package org.keyboardplaying.cron.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.keyboardplaying.cron.scheduler.CronScheduler;
+import org.keyboardplaying.cron.scheduler.engine.TimingWheelTriggerEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the {@link CronScheduler} when registering thousands of jobs.
+ * <p/>
+ * Registering a job parses its expression and, for the first job of each distinct expression only, predicts its next
+ * occurrence and inserts it in the trigger queue; the other jobs join the existing schedule. Both trigger engines are
+ * compared. The cost of firing the jobs is measured by {@link DispatchBenchmark}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SchedulerBenchmark {
+
+    private static final String[] EXPRESSIONS = { "* * * * *", "*/5 * * * *", "@hourly", "@daily",
+            "0,15,30,45 9-17 * * mon-fri", "0 0 1 * *", "30 4 1,15 * 5", "0 0 29 2 *" };
+
+    @Param({ "1000", "10000" })
+    private int jobCount;
+
+    @Param({ "EXECUTOR", "TIMING_WHEEL" })
+    private String engine;
+
+    private CronScheduler scheduler;
+    private String[] crons;
+
+    private final Runnable job = () -> {
+        // nothing to do, the jobs are never expected to run
+    };
+
+    /**
+     * Prepares the expressions of the jobs.
+     */
+    @Setup
+    public void setUp() {
+        crons = new String[jobCount];
+        for (int i = 0; i < jobCount; i++) {
+            crons[i] = EXPRESSIONS[i % EXPRESSIONS.length];
+        }
+    }
+
+    /**
+     * Creates a new scheduler for each invocation.
+     */
+    @Setup(Level.Invocation)
+    public void createScheduler() {
+        scheduler = "TIMING_WHEEL".equals(engine) ? new CronScheduler(new TimingWheelTriggerEngine())
+                : new CronScheduler();
+    }
+
+    /**
+     * Releases the scheduler of the last invocation.
+     */
+    @TearDown(Level.Invocation)
+    public void terminateScheduler() {
+        scheduler.terminate();
+    }
+
+    /**
+     * Registers all the jobs on a fresh scheduler.
+     *
+     * @return the scheduler
+     */
+    @Benchmark
+    public CronScheduler scheduleJobs() {
+        for (String cron : crons) {
+            scheduler.scheduleJob(job, cron);
+        }
+        return scheduler;
+    }
+}
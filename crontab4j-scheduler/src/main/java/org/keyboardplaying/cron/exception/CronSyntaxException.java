@@ -0,0 +1,71 @@
+package org.keyboardplaying.cron.exception;
+
+/**
+ * An exception to be thrown when the CRON cannot be parsed because of a syntax error.
+ * <p/>
+ * In addition to the expression, this exception reports the position of the offending character and a description of
+ * the error, so that an invalid expression can be corrected without guessing.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class CronSyntaxException extends UnsupportedCronException {
+
+    /**
+     * Generated serial version UID.
+     */
+    private static final long serialVersionUID = 4420127035318207561L;
+
+    private final int index;
+    private final String description;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param cron        the invalid CRON expression
+     * @param index       the index of the offending character in the expression, which equals the length of the
+     *                    expression if its end was reached unexpectedly
+     * @param description a description of the error
+     */
+    public CronSyntaxException(String cron, int index, String description) {
+        super(cron, false);
+        this.index = index;
+        this.description = description;
+    }
+
+    /**
+     * Returns the index of the offending character in the expression.
+     * <p/>
+     * If the end of the expression was reached unexpectedly, this index equals the length of the expression.
+     *
+     * @return the index of the error, starting at {@code 0}
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the description of the error.
+     *
+     * @return the description of the error
+     */
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns a multi-line message containing the description of the error, its index, the CRON expression and a
+     * visual indication of the error position within the expression.
+     *
+     * @return the full detail message
+     */
+    @Override
+    public String getMessage() {
+        StringBuilder sb = new StringBuilder(description);
+        sb.append(" near index ").append(index).append(System.lineSeparator()).append(getCron())
+                .append(System.lineSeparator());
+        for (int i = 0; i < index; i++) {
+            sb.append(' ');
+        }
+        return sb.append('^').toString();
+    }
+}
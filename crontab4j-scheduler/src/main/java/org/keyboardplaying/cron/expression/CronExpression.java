@@ -1,11 +1,18 @@
 package org.keyboardplaying.cron.expression;
 
+import java.util.Arrays;
+import java.util.Calendar;
+
+import org.keyboardplaying.cron.expression.rule.BitmaskRule;
 import org.keyboardplaying.cron.expression.rule.CronRule;
 
 /**
  * The object representation of a CRON expression.
  * <p/>
  * The {@link CronExpression} is an immutable object which must be built using the appropriate {@link Builder}.
+ * <p/>
+ * When built, the rule of each field whose values fit in a {@link BitmaskRule} is compiled to that form, so that
+ * the predictors can test values with a single bit test (see {@link #getCompiled(Field)}).
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
@@ -20,25 +27,51 @@ public class CronExpression {
         /**
          * The second in a minute.
          */
-        SECOND, /**
+        SECOND(0, 59), /**
          * The minute in an hour.
          */
-        MINUTE, /**
+        MINUTE(0, 59), /**
          * The hour of day.
          */
-        HOUR, /**
+        HOUR(0, 23), /**
          * The date of day in month.
          */
-        DAY_OF_MONTH, /**
+        DAY_OF_MONTH(1, 31), /**
          * The month of year.
          */
-        MONTH, /**
+        MONTH(Calendar.JANUARY, Calendar.DECEMBER), /**
          * The day of week.
          */
-        DAY_OF_WEEK, /**
+        DAY_OF_WEEK(Calendar.SUNDAY, Calendar.SATURDAY), /**
          * The year.
          */
-        YEAR
+        YEAR(1970, 9999);
+
+        private final int min;
+        private final int max;
+
+        Field(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        /**
+         * Returns the lowest value this field can take, using the {@link Calendar} convention.
+         *
+         * @return the minimal value
+         */
+        public int getMin() {
+            return min;
+        }
+
+        /**
+         * Returns the highest value this field can take, using the {@link Calendar} convention.
+         *
+         * @return the maximal value
+         */
+        public int getMax() {
+            return max;
+        }
     }
 
     /**
@@ -68,14 +101,26 @@ public class CronExpression {
         BOTH_OR
     }
 
-    private CronRule[] rules;
-    private DayConstraint dayConstraint;
+    private final CronRule[] rules;
+    private final CronRule[] compiled;
+    private final DayConstraint dayConstraint;
 
     private CronExpression(CronRule[] rules, DayConstraint constraint) {
         this.rules = rules;
+        this.compiled = compile(rules);
         this.dayConstraint = constraint;
     }
 
+    private static CronRule[] compile(CronRule[] rules) {
+        CronRule[] compiled = new CronRule[rules.length];
+        for (Field field : Field.values()) {
+            CronRule rule = rules[field.ordinal()];
+            compiled[field.ordinal()] = field.getMax() <= BitmaskRule.MAX_VALUE
+                    ? BitmaskRule.compile(rule, field.getMin(), field.getMax()) : rule;
+        }
+        return compiled;
+    }
+
     /**
      * Returns the rule for the specified field.
      *
@@ -86,6 +131,19 @@ public class CronExpression {
         return rules[field.ordinal()];
     }
 
+    /**
+     * Returns the compiled rule for the specified field.
+     * <p/>
+     * The compiled rule allows exactly the same values as {@link #get(Field)} within the range of the field, but is
+     * faster to evaluate. Fields whose range is too wide to be compiled (e.g. the year) return the original rule.
+     *
+     * @param field the field
+     * @return the compiled rule
+     */
+    public CronRule getCompiled(Field field) {
+        return compiled[field.ordinal()];
+    }
+
     /**
      * Returns the day constraint mode.
      *
@@ -95,6 +153,31 @@ public class CronExpression {
         return dayConstraint;
     }
 
+    /**
+     * Tests whether this expression is equal to another object.
+     * <p/>
+     * Two expressions are equal if they have the same day constraint and the same compiled rules, i.e. if they allow
+     * the same values, however they were spelled.
+     *
+     * @param obj the object to compare
+     * @return {@code true} if both expressions are equal
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof CronExpression)) {
+            return false;
+        }
+        CronExpression other = (CronExpression) obj;
+        return dayConstraint == other.dayConstraint && Arrays.equals(compiled, other.compiled);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dayConstraint.hashCode() + Arrays.hashCode(compiled);
+    }
+
     /**
      * Utility to build a {@link CronExpression}.
      * <p/>
@@ -160,7 +243,7 @@ public class CronExpression {
             if (dayConstraint == null) {
                 throw new IllegalStateException("The day constraint mode has not been set.");
             }
-            return new CronExpression(rules, dayConstraint);
+            return new CronExpression(rules.clone(), dayConstraint);
         }
     }
 }
@@ -36,4 +36,34 @@ public class AnyValueRule implements CronRule {
     public boolean allows(int value) {
         return true;
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.nextAllowed(int)
+     */
+    @Override
+    public int nextAllowed(int from) {
+        return from;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.previousAllowed(int)
+     */
+    @Override
+    public int previousAllowed(int from) {
+        return from < 0 ? -1 : from;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof AnyValueRule;
+    }
+
+    @Override
+    public int hashCode() {
+        return AnyValueRule.class.hashCode();
+    }
 }
@@ -0,0 +1,137 @@
+package org.keyboardplaying.cron.expression.rule;
+
+/**
+ * A compiled representation of any rule whose allowed values all lie between {@code 0} and {@code 63}.
+ * <p/>
+ * Each allowed value is stored as a bit of a single {@code long}, so that testing a value is a single bit test
+ * whatever the complexity of the rule this one was compiled from. Instances are immutable and can be safely shared
+ * between threads.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class BitmaskRule implements CronRule {
+
+    /**
+     * The highest value a {@link BitmaskRule} can represent.
+     */
+    public static final int MAX_VALUE = Long.SIZE - 1;
+
+    private final long mask;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param mask the mask of allowed values, the bit {@code n} being set if value {@code n} is allowed
+     */
+    public BitmaskRule(long mask) {
+        this.mask = mask;
+    }
+
+    /**
+     * Compiles the supplied rule for the specified range of values.
+     * <p/>
+     * Values of the rule which are outside the supplied range will not be allowed by the compiled rule.
+     *
+     * @param rule the rule to compile
+     * @param min  the lowest value to test
+     * @param max  the highest value to test
+     * @return the compiled rule
+     * @throws IllegalArgumentException if the range cannot be represented by a {@link BitmaskRule}
+     */
+    public static BitmaskRule compile(CronRule rule, int min, int max) {
+        if (min < 0 || max > MAX_VALUE) {
+            throw new IllegalArgumentException("Range " + min + "-" + max + " cannot be compiled to a bitmask");
+        }
+        if (rule instanceof BitmaskRule) {
+            return new BitmaskRule(((BitmaskRule) rule).mask & rangeMask(min, max));
+        }
+        long mask = 0L;
+        for (int i = min; i <= max; i++) {
+            if (rule.allows(i)) {
+                mask |= 1L << i;
+            }
+        }
+        return new BitmaskRule(mask);
+    }
+
+    private static long rangeMask(int min, int max) {
+        return (-1L >>> (MAX_VALUE - max)) & (-1L << min);
+    }
+
+    /**
+     * Returns the mask of allowed values, the bit {@code n} being set if value {@code n} is allowed.
+     *
+     * @return the mask of allowed values
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.allows(int)
+     */
+    @Override
+    public boolean allows(int value) {
+        return (value & ~MAX_VALUE) == 0 && (mask & 1L << value) != 0;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.nextAllowed(int)
+     */
+    @Override
+    public int nextAllowed(int from) {
+        if (from > MAX_VALUE) {
+            return -1;
+        }
+        long candidates = from <= 0 ? mask : mask & -1L << from;
+        return candidates == 0 ? -1 : Long.numberOfTrailingZeros(candidates);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.previousAllowed(int)
+     */
+    @Override
+    public int previousAllowed(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        long candidates = from >= MAX_VALUE ? mask : mask & (2L << from) - 1;
+        return candidates == 0 ? -1 : MAX_VALUE - Long.numberOfLeadingZeros(candidates);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.hasMax()
+     */
+    @Override
+    public boolean hasMax() {
+        return true;
+    }
+
+    /**
+     * Returns the highest allowed value, or {@code -1} if this rule allows no value at all.
+     *
+     * @return the maximal allowed value
+     */
+    @Override
+    public int getMax() {
+        return MAX_VALUE - Long.numberOfLeadingZeros(mask);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BitmaskRule && ((BitmaskRule) obj).mask == mask;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(mask);
+    }
+}
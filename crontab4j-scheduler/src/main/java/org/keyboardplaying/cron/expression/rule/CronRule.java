@@ -20,6 +20,47 @@ public interface CronRule {
      */
     boolean allows(int value);
 
+    /**
+     * Returns the lowest authorized value which is greater than or equal to the supplied one.
+     * <p/>
+     * This allows to jump directly to the next legal value rather than testing each value in turn. The default
+     * implementation tests each value in turn up to {@link #getMax()}; implementations knowing their values should
+     * override it.
+     *
+     * @param from the value to start searching from (inclusive)
+     * @return the lowest authorized value greater than or equal to {@code from}, or {@code -1} if there is none
+     */
+    default int nextAllowed(int from) {
+        int max = getMax();
+        for (int value = from; value <= max; value++) {
+            if (allows(value)) {
+                return value;
+            }
+            if (value == Integer.MAX_VALUE) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the highest authorized value which is lower than or equal to the supplied one.
+     * <p/>
+     * This is the counterpart of {@link #nextAllowed(int)}, used to search backwards in time. The default
+     * implementation tests each value in turn down to {@code 0}.
+     *
+     * @param from the value to start searching from (inclusive)
+     * @return the highest authorized value lower than or equal to {@code from}, or {@code -1} if there is none
+     */
+    default int previousAllowed(int from) {
+        for (int value = Math.min(from, getMax()); value >= 0; value--) {
+            if (allows(value)) {
+                return value;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Tests whether this rule has a maximal allowed value.
      *
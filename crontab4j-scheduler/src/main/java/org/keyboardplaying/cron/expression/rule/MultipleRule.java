@@ -80,4 +80,46 @@ public class MultipleRule implements CronRule {
         return false;
     }
 
+    /**
+     * Returns the lowest of the values the constituting rules would return.
+     *
+     * @param from {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int nextAllowed(int from) {
+        int next = -1;
+        for (CronRule rule : rules) {
+            int candidate = rule.nextAllowed(from);
+            if (candidate >= 0 && (next < 0 || candidate < next)) {
+                next = candidate;
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Returns the highest of the values the constituting rules would return.
+     *
+     * @param from {@inheritDoc}
+     * @return {@inheritDoc}
+     */
+    @Override
+    public int previousAllowed(int from) {
+        int previous = -1;
+        for (CronRule rule : rules) {
+            previous = Math.max(previous, rule.previousAllowed(from));
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof MultipleRule && ((MultipleRule) obj).rules.equals(rules);
+    }
+
+    @Override
+    public int hashCode() {
+        return rules.hashCode();
+    }
 }
@@ -64,4 +64,44 @@ public class RangeRule implements CronRule {
     public boolean allows(int value) {
         return min <= value && value <= max;
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.nextAllowed(int)
+     */
+    @Override
+    public int nextAllowed(int from) {
+        if (from > max) {
+            return -1;
+        }
+        return from < min ? min : from;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.previousAllowed(int)
+     */
+    @Override
+    public int previousAllowed(int from) {
+        if (from < min) {
+            return -1;
+        }
+        return from > max ? max : from;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        RangeRule other = (RangeRule) obj;
+        return other.min == min && other.max == max;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * min + max;
+    }
 }
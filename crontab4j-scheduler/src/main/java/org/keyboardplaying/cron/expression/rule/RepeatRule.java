@@ -48,4 +48,46 @@ public class RepeatRule extends RangeRule {
     public boolean allows(int value) {
         return super.allows(value) && value % step == modulo;
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.nextAllowed(int)
+     */
+    @Override
+    public int nextAllowed(int from) {
+        int value = super.nextAllowed(from);
+        if (value < 0) {
+            return -1;
+        }
+        // round up to the next multiple of the step (shifted by the lower limit)
+        value += (modulo - value % step + step) % step;
+        return value <= getMax() ? value : -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.previousAllowed(int)
+     */
+    @Override
+    public int previousAllowed(int from) {
+        int value = super.previousAllowed(from);
+        if (value < 0) {
+            return -1;
+        }
+        // round down to the previous multiple of the step (shifted by the lower limit)
+        value -= (value % step - modulo + step) % step;
+        return value >= getMin() ? value : -1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && ((RepeatRule) obj).step == step;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + step;
+    }
 }
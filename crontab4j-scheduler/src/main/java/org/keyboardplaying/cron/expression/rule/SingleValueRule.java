@@ -36,4 +36,24 @@ public class SingleValueRule extends RangeRule {
     public boolean allows(int value) {
         return value == getMin();
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.nextAllowed(int)
+     */
+    @Override
+    public int nextAllowed(int from) {
+        return from <= getMin() ? getMin() : -1;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.expression.rule.CronRule.previousAllowed(int)
+     */
+    @Override
+    public int previousAllowed(int from) {
+        return from >= getMin() ? getMin() : -1;
+    }
 }
@@ -0,0 +1,183 @@
+package org.keyboardplaying.cron.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * A decorator caching the expressions parsed by another {@link CronSyntacticParser}.
+ * <p/>
+ * Parsed expressions are kept in a bounded cache, the least recently used ones being evicted first. Besides, parsed
+ * expressions are interned: equivalent spellings of the same schedule (e.g. {@code 0} and {@code 7} for Sunday, names
+ * and numbers, {@code @daily} and {@code @midnight}) all resolve to a single {@link CronExpression} instance, whose
+ * compiled structures are therefore shared.
+ * <p/>
+ * Expressions parsed for a job key are cached by expression and key, unless they cannot contain an {@code H} token,
+ * in which case the key is ignored and the expression shares its entry with the same expression without a key.
+ * <p/>
+ * Only successful parsings are cached. Instances of this class are thread-safe provided the decorated parser is.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class CachingCronParser implements CronSyntacticParser {
+
+    /**
+     * The default maximal number of cached expressions.
+     */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    // cannot be part of an expression
+    private static final char KEY_SEP = '\0';
+
+    private final CronSyntacticParser delegate;
+    private final Map<String, CronExpression> byText;
+    private final Map<CronExpression, CronExpression> interned;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Creates a new instance with the default cache size.
+     *
+     * @param delegate the parser to cache the results of
+     * @throws NullPointerException if {@code delegate} is {@code null}
+     */
+    public CachingCronParser(CronSyntacticParser delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param delegate the parser to cache the results of
+     * @param maxSize  the maximal number of expressions to keep in the cache
+     * @throws NullPointerException     if {@code delegate} is {@code null}
+     * @throws IllegalArgumentException if {@code maxSize} is not strictly positive
+     */
+    public CachingCronParser(CronSyntacticParser delegate, int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("The cache size must be strictly positive, got " + maxSize);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.byText = new LruMap<>(maxSize);
+        this.interned = new LruMap<>(maxSize);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.parser.CronSyntacticParser#isValid(java.lang.String)
+     */
+    @Override
+    public boolean isValid(String cron) {
+        synchronized (this) {
+            if (cron != null && byText.containsKey(cron)) {
+                return true;
+            }
+        }
+        return delegate.isValid(cron);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.parser.CronSyntacticParser#parse(java.lang.String)
+     */
+    @Override
+    public CronExpression parse(String cron) {
+        return parse(cron, null);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.parser.CronSyntacticParser#parse(java.lang.String, java.lang.String)
+     */
+    @Override
+    public CronExpression parse(String cron, String key) {
+        Objects.requireNonNull(cron);
+        // the key only matters to the expressions holding an H token
+        boolean keyed = key != null && cron.indexOf(HashToken.TOKEN) >= 0;
+        String cacheKey = keyed ? cron + KEY_SEP + key : cron;
+        synchronized (this) {
+            CronExpression cached = byText.get(cacheKey);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+        }
+
+        // parse outside the lock, other threads may use the cache meanwhile
+        CronExpression parsed = keyed ? delegate.parse(cron, key) : delegate.parse(cron);
+        synchronized (this) {
+            CronExpression canonical = interned.get(parsed);
+            if (canonical == null) {
+                canonical = parsed;
+                interned.put(canonical, canonical);
+            }
+            byText.put(cacheKey, canonical);
+            return canonical;
+        }
+    }
+
+    /**
+     * Returns the number of calls to {@link #parse(String)} which were answered from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of calls to {@link #parse(String)} which required to call the decorated parser.
+     *
+     * @return the number of cache misses
+     */
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of expressions currently cached.
+     *
+     * @return the size of the cache
+     */
+    public synchronized int size() {
+        return byText.size();
+    }
+
+    /**
+     * Removes all expressions from the cache. Hit and miss counters are not reset.
+     */
+    public synchronized void clear() {
+        byText.clear();
+        interned.clear();
+    }
+
+    /**
+     * A {@link LinkedHashMap} evicting the least recently accessed entry when it grows beyond its maximal size.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -41,6 +41,24 @@ public interface CronSyntacticParser {
      */
     CronExpression parse(String cron);
 
+    /**
+     * Parses a CRON expression for a given job.
+     * <p/>
+     * Syntaxes supporting the Jenkins-like {@code H} token derive its values from the hash of the supplied key, so that
+     * jobs sharing the same expression are spread over time but each job is always given the same values. The other
+     * syntaxes ignore the key, which is what this default implementation does.
+     *
+     * @param cron the CRON expression to parse
+     * @param key  the key of the job the expression is for (e.g. its name), may be {@code null}
+     * @return a parsed {@link CronExpression}
+     * @throws NullPointerException     if the expression is {@code null}
+     * @throws UnsupportedCronException if the expression is invalid
+     * @see #parse(String)
+     */
+    default CronExpression parse(String cron, String key) {
+        return parse(cron);
+    }
+
     /**
      * Representation of the rule and parsing specifications of a group.
      * <p/>
@@ -58,6 +76,15 @@ public interface CronSyntacticParser {
          */
         String getRangePattern();
 
+        /**
+         * Returns the compiled version of {@link #getRangePattern()}.
+         * <p/>
+         * Implementations should compile the pattern only once and return the same instance on each call.
+         *
+         * @return the compiled pattern for the range of authorized integer values
+         */
+        Pattern getPattern();
+
         /**
          * Returns the minimal allowed value for this group.
          *
@@ -72,6 +99,18 @@ public interface CronSyntacticParser {
          */
         int getMax();
 
+        /**
+         * Returns the maximal value an {@code H} token without explicit range may be resolved to for this group.
+         * <p/>
+         * This is the maximal allowed value, except for the fields whose values are not valid all the time (e.g. the
+         * 31st of a month).
+         *
+         * @return the maximal value of a hashed value
+         */
+        default int getHashMax() {
+            return getMax();
+        }
+
         /**
          * Returns the {@link RangeAdapter} to use when parsing the rule for this group.
          *
@@ -134,21 +173,38 @@ public interface CronSyntacticParser {
          * @param caseSensitive {@code true} if aliases are to be case-senstive, {@code false} otherwise
          */
         public static String initGroupPattern(String rangePattern, CronAlias[] aliases, boolean caseSensitive) {
+            return initGroupPattern(rangePattern, aliases, caseSensitive, false);
+        }
+
+        /**
+         * Creates a regular expression to match a single, atomic rule, optionally allowing the {@code H} token.
+         * <p/>
+         * The generated regex is the one of {@link #initGroupPattern(String, CronAlias[], boolean)}, with the
+         * additional alternative {@code H(\(rangePattern-rangePattern\))?} if {@code hashable} is {@code true}. This
+         * alternative introduces no capturing group.
+         *
+         * @param rangePattern  a pattern to match the allowed integer values
+         * @param aliases       a list of allowed substitution names for readibility of the CRON expression
+         * @param caseSensitive {@code true} if aliases are to be case-senstive, {@code false} otherwise
+         * @param hashable      {@code true} if the {@code H} token is allowed, {@code false} otherwise
+         */
+        public static String initGroupPattern(String rangePattern, CronAlias[] aliases, boolean caseSensitive,
+                boolean hashable) {
             String allowedNames;
             if (aliases == null || aliases.length == 0) {
                 allowedNames = "";
             } else {
                 StringBuilder sb = new StringBuilder();
+                sb.append(caseSensitive ? "|(?:" : "|(?i:");
                 for (CronAlias alias : aliases) {
-                    sb.append('|').append(alias.getAlias());
-                }
-                if (!caseSensitive) {
-                    sb.insert(1, "(?i)").append("?-i");
+                    sb.append(alias.getAlias()).append('|');
                 }
+                sb.setCharAt(sb.length() - 1, ')');
                 allowedNames = sb.toString();
             }
-            return "(?:\\*|(" + rangePattern + allowedNames + ")(?:-(" + rangePattern + allowedNames + "))?)(?:/("
-                    + rangePattern + "))?";
+            String hash = hashable ? "|H(?:\\((?:" + rangePattern + ")-(?:" + rangePattern + ")\\))?" : "";
+            return "(?:\\*" + hash + "|(" + rangePattern + allowedNames + ")(?:-(" + rangePattern + allowedNames
+                    + "))?)(?:/(" + rangePattern + "))?";
         }
 
         /**
@@ -188,16 +244,47 @@ public interface CronSyntacticParser {
          * @return the parsed rule
          */
         public static CronRule parseGroup(String grp, String sep, CronGroup group) {
+            return parseGroup(grp, sep, group, null);
+        }
+
+        /**
+         * Parses a group to a {@link CronRule}. Integers, {@code *} and the supplied aliases (case-insensitive) are
+         * allowed.
+         *
+         * @param grp     the group extracted from the CronExpression
+         * @param sep     the separator to be used when allowing multiple rules for a group
+         * @param group   the rule and parsing specifications for the group
+         * @param aliases the substitution names allowed for the group, may be {@code null}
+         * @return the parsed rule
+         */
+        public static CronRule parseGroup(String grp, String sep, CronGroup group, CronAlias[] aliases) {
+            return parseGroup(grp, sep, group, aliases, 0L);
+        }
+
+        /**
+         * Parses a group to a {@link CronRule}. Integers, {@code *}, {@code H} tokens and the supplied aliases
+         * (case-insensitive) are allowed.
+         *
+         * @param grp     the group extracted from the CronExpression
+         * @param sep     the separator to be used when allowing multiple rules for a group
+         * @param group   the rule and parsing specifications for the group
+         * @param aliases the substitution names allowed for the group, may be {@code null}
+         * @param hash    the hash to resolve the {@code H} tokens of the group with
+         * @return the parsed rule
+         */
+        public static CronRule parseGroup(String grp, String sep, CronGroup group, CronAlias[] aliases, long hash) {
             CronRule result;
             if (sep != null && grp.contains(sep)) {
                 List<CronRule> rules = new ArrayList<>();
                 for (String atomic : grp.split(sep)) {
-                    rules.add(parseGroup(atomic, null, group));
+                    rules.add(parseGroup(atomic, null, group, aliases, hash));
                 }
                 result = new MultipleRule(rules);
+            } else if (grp.charAt(0) == HashToken.TOKEN) {
+                result = parseHashToken(grp, group, hash);
             } else {
-                Matcher matcher = Pattern.compile(group.getRangePattern()).matcher(grp);
-                matcher.find();
+                Matcher matcher = group.getPattern().matcher(grp);
+                matcher.matches();
 
                 String min = matcher.group(1);
                 String max = matcher.group(2);
@@ -206,21 +293,64 @@ public interface CronSyntacticParser {
                     if (min == null) {
                         result = new AnyValueRule();
                     } else if (max == null) {
-                        result = group.getAdapter().adapt(new SingleValueRule(Integer.parseInt(min)));
+                        result = group.getAdapter().adapt(new SingleValueRule(parseValue(min, aliases)));
                     } else {
-                        result = group.getAdapter().adapt(new RangeRule(Integer.parseInt(min), Integer.parseInt(max)));
+                        result = group.getAdapter()
+                                .adapt(new RangeRule(parseValue(min, aliases), parseValue(max, aliases)));
                     }
                 } else if (min == null) {
                     result = group.getAdapter()
                             .adapt(new RepeatRule(group.getMin(), group.getMax(), Integer.parseInt(step)));
                 } else if (max == null) {
-                    result = group.getAdapter().adapt(new SingleValueRule(Integer.parseInt(min)));
+                    result = group.getAdapter().adapt(new SingleValueRule(parseValue(min, aliases)));
                 } else {
-                    result = group.getAdapter().adapt(
-                            new RepeatRule(Integer.parseInt(min), Integer.parseInt(max), Integer.parseInt(step)));
+                    result = group.getAdapter().adapt(new RepeatRule(parseValue(min, aliases),
+                            parseValue(max, aliases), Integer.parseInt(step)));
                 }
             }
             return result;
         }
+
+        /**
+         * Parses an {@code H} token, whose syntax the group pattern has already validated.
+         *
+         * @param grp   the token
+         * @param group the rule and parsing specifications for the group
+         * @param hash  the hash to resolve the token with
+         * @return the resolved rule
+         * @throws IllegalArgumentException if the range of the token is reversed or its step is {@code 0}
+         */
+        private static CronRule parseHashToken(String grp, CronGroup group, long hash) {
+            int min = group.getMin();
+            int max = group.getHashMax();
+            int pos = 1;
+            if (pos < grp.length() && grp.charAt(pos) == '(') {
+                int dash = grp.indexOf('-', pos);
+                int close = grp.indexOf(')', dash);
+                min = Integer.parseInt(grp.substring(pos + 1, dash));
+                max = Integer.parseInt(grp.substring(dash + 1, close));
+                pos = close + 1;
+            }
+            int step = pos < grp.length() ? Integer.parseInt(grp.substring(pos + 1)) : HashToken.NO_STEP;
+            return HashToken.resolve(hash, min, max, step, group.getAdapter());
+        }
+
+        /**
+         * Parses a single value, which may be an integer or one of the supplied aliases (case-insensitive).
+         *
+         * @param value   the value to parse
+         * @param aliases the allowed substitution names, may be {@code null}
+         * @return the integer value
+         */
+        private static int parseValue(String value, CronAlias[] aliases) {
+            if (aliases != null && !Character.isDigit(value.charAt(0))) {
+                for (CronAlias alias : aliases) {
+                    if (alias.getAlias().equalsIgnoreCase(value)) {
+                        return alias.getValue();
+                    }
+                }
+            }
+            return Integer.parseInt(value);
+        }
     }
 }
@@ -0,0 +1,75 @@
+package org.keyboardplaying.cron.parser;
+
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+import org.keyboardplaying.cron.parser.adapter.RangeAdapter;
+
+/**
+ * Resolves the {@code H} token of Jenkins-like CRON expressions.
+ * <p/>
+ * {@code H} stands for a value derived from the hash of a key (usually the name of the job), so that jobs with the
+ * same expression spread over the allowed range instead of all running at the same time, while each job keeps the same
+ * value from one parsing to the next:
+ * <ul>
+ * <li>{@code H} is a single value within the range of the field;</li>
+ * <li>{@code H(min-max)} is a single value within {@code min-max};</li>
+ * <li>{@code H/step} and {@code H(min-max)/step} repeat every {@code step} from an offset lower than {@code step}.</li>
+ * </ul>
+ * The token is resolved at parse time into the usual rules. Both Unix parsers resolve it the same way.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+// package-restricted
+final class HashToken {
+
+    /** The token itself. */
+    static final char TOKEN = 'H';
+    /** The step of a token resolving to a single value. */
+    static final int NO_STEP = -1;
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private HashToken() {
+    }
+
+    /**
+     * Hashes the key of a job for a field of the expression.
+     * <p/>
+     * The different fields of an expression get unrelated values, as close keys do.
+     *
+     * @param key   the key of the job
+     * @param field the position of the field in the expression
+     * @return the hash to resolve the tokens of the field with
+     * @see Hashes#spread(long)
+     */
+    static long hash(String key, int field) {
+        return Hashes.spread(key.hashCode() * 31L + field);
+    }
+
+    /**
+     * Resolves a token into a rule.
+     *
+     * @param hash    the hash of the key for the field
+     * @param min     the minimal value of the token, inclusive
+     * @param max     the maximal value of the token, inclusive
+     * @param step    the step of the token, or {@link #NO_STEP} for a single value
+     * @param adapter the adapter of the field
+     * @return the resolved rule
+     * @throws IllegalArgumentException if {@code min} is higher than {@code max} or {@code step} is neither strictly
+     *                                  positive nor {@link #NO_STEP}
+     */
+    static CronRule resolve(long hash, int min, int max, int step, RangeAdapter adapter) {
+        if (min > max) {
+            throw new IllegalArgumentException("Supplied minimum " + min + " is higher than maximum " + max);
+        } else if (step <= 0 && step != NO_STEP) {
+            throw new IllegalArgumentException("Supplied step " + step + " is not strictly positive");
+        }
+        long size = max - min + 1L;
+        if (step == NO_STEP) {
+            return adapter.adapt(new SingleValueRule(min + (int) Math.floorMod(hash, size)));
+        }
+        return adapter.adapt(new RepeatRule(min + (int) Math.floorMod(hash, Math.min(step, size)), max, step));
+    }
+}
@@ -0,0 +1,36 @@
+package org.keyboardplaying.cron.parser;
+
+/**
+ * Derives stable values from the keys of the jobs.
+ * <p/>
+ * Both the {@code H} token of the CRON expressions and the jitters of the scheduler derive a job's values from the
+ * hash of its key. The hash of a {@link String} is specified, hence a key is given the same values from one JVM to
+ * another; its bits are spread here, so that close keys (e.g. {@code job-1} and {@code job-2}) get unrelated values.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class Hashes {
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private Hashes() {
+    }
+
+    /**
+     * Spreads the bits of a value, so that close values get unrelated results.
+     *
+     * @param value the value to spread, usually derived from the hash code of a key
+     * @return the spread value
+     */
+    public static long spread(long value) {
+        // finalizer of MurmurHash3
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
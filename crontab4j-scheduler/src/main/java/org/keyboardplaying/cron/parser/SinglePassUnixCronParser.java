@@ -0,0 +1,426 @@
+package org.keyboardplaying.cron.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.keyboardplaying.cron.exception.CronSyntaxException;
+import org.keyboardplaying.cron.exception.UnsupportedCronException;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.MultipleRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+import org.keyboardplaying.cron.parser.adapter.DayOfWeekRangeAdapter;
+import org.keyboardplaying.cron.parser.adapter.MonthRangeAdapter;
+import org.keyboardplaying.cron.parser.adapter.NoChangeAdapter;
+import org.keyboardplaying.cron.parser.adapter.RangeAdapter;
+
+/**
+ * A hand-written parser for Unix-like CRON expressions.
+ * <p/>
+ * This parser accepts the same syntax as {@link UnixCronParser}, but reads the expression character by character in a
+ * single pass, without regular expressions nor intermediate strings. When the expression is invalid, the
+ * {@link CronSyntaxException} it throws reports the exact index of the offending character.
+ * <p/>
+ * It is slightly stricter than {@link UnixCronParser}: values must lie within the bounds of their field, steps must be
+ * strictly positive and ranges must not be reversed. Leading zeros are accepted.
+ * <p/>
+ * Like {@link UnixCronParser}, it supports the Jenkins-like {@code H} token, which it resolves the same way.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see <a href="http://www.unix.com/man-page/linux/5/crontab/">Unix manual</a>
+ */
+public class SinglePassUnixCronParser implements CronSyntacticParser {
+
+    private static final int UNIX_JANUARY = 1;
+    private static final int UNIX_SUNDAY = 0;
+
+    private static final char SPECIAL_EXP_KEY = '@';
+    private static final char ANY = '*';
+    private static final char RANGE_SEP = '-';
+    private static final char STEP_SEP = '/';
+    private static final char LIST_SEP = ',';
+    private static final char HASH_RANGE_START = '(';
+    private static final char HASH_RANGE_END = ')';
+
+    private static final String[] MONTH_NAMES = { "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT",
+            "NOV", "DEC" };
+    private static final String[] DAY_OF_WEEK_NAMES = { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+
+    private static final String[] SPECIAL_NAMES = { "reboot", "yearly", "annually", "monthly", "weekly", "daily",
+            "midnight", "hourly" };
+    private static final String[] SPECIAL_EQUIVALENTS = { null, "0 0 1 1 *", "0 0 1 1 *", "0 0 1 * *", "0 0 * * 0",
+            "0 0 * * *", "0 0 * * *", "0 * * * *" };
+
+    private static final CronRule SECOND = new SingleValueRule(0);
+    private static final CronRule YEAR = new AnyValueRule();
+
+    private static final FieldSpec[] FIELDS = {
+            // minute
+            new FieldSpec(Field.MINUTE, 0, 59, 59, 59, null, 0, new NoChangeAdapter()),
+            // hour
+            new FieldSpec(Field.HOUR, 0, 23, 23, 23, null, 0, new NoChangeAdapter()),
+            // day of month: a hashed day is one of the 28 days common to all months
+            new FieldSpec(Field.DAY_OF_MONTH, 1, 31, 31, 28, null, 0, new NoChangeAdapter()),
+            // month
+            new FieldSpec(Field.MONTH, 1, 12, 12, 12, MONTH_NAMES, UNIX_JANUARY, new MonthRangeAdapter(UNIX_JANUARY)),
+            // day of week: 7 is an alias for Sunday, which must not be counted twice when repeating over "*"
+            new FieldSpec(Field.DAY_OF_WEEK, 0, 7, 6, 6, DAY_OF_WEEK_NAMES, UNIX_SUNDAY,
+                    new DayOfWeekRangeAdapter(UNIX_SUNDAY)) };
+
+    /**
+     * The parsing specifications of a field of the CRON expression.
+     */
+    private static final class FieldSpec {
+
+        private final Field field;
+        private final int min;
+        private final int max;
+        private final int anyMax;
+        private final int hashMax;
+        private final String[] names;
+        private final int firstNameValue;
+        private final RangeAdapter adapter;
+
+        FieldSpec(Field field, int min, int max, int anyMax, int hashMax, String[] names, int firstNameValue,
+                RangeAdapter adapter) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+            this.anyMax = anyMax;
+            this.hashMax = hashMax;
+            this.names = names;
+            this.firstNameValue = firstNameValue;
+            this.adapter = adapter;
+        }
+    }
+
+    /**
+     * The state of the parsing of a single expression.
+     */
+    private static final class Scanner {
+
+        private final String cron;
+        private final String hashKey;
+        private final int length;
+        private int pos;
+        private int errorIndex = -1;
+        private String error;
+
+        Scanner(String cron, String hashKey) {
+            this.cron = cron;
+            this.hashKey = hashKey;
+            this.length = cron.length();
+        }
+
+        boolean hasNext() {
+            return pos < length;
+        }
+
+        char peek() {
+            return cron.charAt(pos);
+        }
+
+        /**
+         * Moves past the next character if it is the expected one.
+         */
+        boolean consume(char expected) {
+            if (pos < length && cron.charAt(pos) == expected) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /**
+         * Records an error at the supplied index. Always returns {@code null} so that callers can abort in a single
+         * statement.
+         */
+        <T> T fail(int index, String description) {
+            errorIndex = index;
+            error = description;
+            return null;
+        }
+
+        /**
+         * Records an error for the character at the current position.
+         */
+        <T> T unexpected(String expected) {
+            return fail(pos, (pos < length ? "Unexpected character '" + cron.charAt(pos) + "'"
+                    : "Unexpected end of expression") + ", expected " + expected);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.parser.CronSyntacticParser#isValid(java.lang.String)
+     */
+    @Override
+    public boolean isValid(String cron) {
+        return cron != null && scan(new Scanner(cron, cron)) != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.parser.CronSyntacticParser#parse(java.lang.String)
+     */
+    @Override
+    public CronExpression parse(String cron) {
+        return parse(cron, null);
+    }
+
+    /**
+     * Parses a CRON expression for a given job.
+     * <p/>
+     * The {@code H} tokens of the expression are resolved from the hash of the key. Without a key, they are resolved
+     * from the hash of the expression itself, so that all the jobs sharing the expression are given the same values.
+     *
+     * @param cron the CRON expression to parse
+     * @param key  the key of the job the expression is for (e.g. its name), may be {@code null}
+     * @return a parsed {@link CronExpression}
+     * @throws NullPointerException if the expression is {@code null}
+     * @throws CronSyntaxException  if the expression is invalid
+     */
+    @Override
+    public CronExpression parse(String cron, String key) {
+        Objects.requireNonNull(cron);
+        Scanner scanner = new Scanner(cron, key == null ? cron : key);
+        CronRule[] rules = scan(scanner);
+        if (rules == null) {
+            throw new CronSyntaxException(cron, scanner.errorIndex, scanner.error);
+        }
+        if (rules.length == 0) {
+            throw new UnsupportedCronException(cron, true);
+        }
+
+        CronExpression.Builder builder = CronExpression.Builder.create().set(DayConstraint.BOTH_OR)
+                .set(Field.SECOND, SECOND).set(Field.YEAR, YEAR);
+        for (int i = 0; i < FIELDS.length; i++) {
+            builder.set(FIELDS[i].field, rules[i]);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Scans the whole expression.
+     *
+     * @return the rules for each field, an empty array for {@code @reboot} or {@code null} if the expression is
+     *         invalid
+     */
+    private static CronRule[] scan(Scanner scanner) {
+        if (scanner.consume(SPECIAL_EXP_KEY)) {
+            return scanSpecial(scanner);
+        }
+
+        CronRule[] rules = new CronRule[FIELDS.length];
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (i > 0 && !skipWhitespace(scanner)) {
+                return scanner.unexpected("whitespace before the next field");
+            }
+            rules[i] = scanField(scanner, FIELDS[i], HashToken.hash(scanner.hashKey, i));
+            if (rules[i] == null) {
+                return null;
+            }
+        }
+        return scanner.hasNext() ? scanner.unexpected("end of expression") : rules;
+    }
+
+    private static CronRule[] scanSpecial(Scanner scanner) {
+        String cron = scanner.cron;
+        for (int i = 0; i < SPECIAL_NAMES.length; i++) {
+            String name = SPECIAL_NAMES[i];
+            if (cron.length() == name.length() + 1 && cron.startsWith(name, 1)) {
+                return SPECIAL_EQUIVALENTS[i] == null ? new CronRule[0]
+                        : scan(new Scanner(SPECIAL_EQUIVALENTS[i], scanner.hashKey));
+            }
+        }
+        return scanner.fail(1, "Unknown special expression");
+    }
+
+    private static boolean skipWhitespace(Scanner scanner) {
+        int start = scanner.pos;
+        while (scanner.hasNext() && isWhitespace(scanner.peek())) {
+            scanner.pos++;
+        }
+        return scanner.pos > start;
+    }
+
+    private static boolean isWhitespace(char c) {
+        // same characters as \s in regular expressions
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static CronRule scanField(Scanner scanner, FieldSpec spec, long hash) {
+        CronRule first = scanAtom(scanner, spec, hash);
+        if (first == null || !scanner.consume(LIST_SEP)) {
+            return first;
+        }
+
+        List<CronRule> rules = new ArrayList<>();
+        rules.add(first);
+        do {
+            CronRule rule = scanAtom(scanner, spec, hash);
+            if (rule == null) {
+                return null;
+            }
+            rules.add(rule);
+        } while (scanner.consume(LIST_SEP));
+        return new MultipleRule(rules);
+    }
+
+    private static CronRule scanAtom(Scanner scanner, FieldSpec spec, long hash) {
+        if (scanner.consume(HashToken.TOKEN)) {
+            return scanHash(scanner, spec, hash);
+        }
+
+        boolean any = scanner.consume(ANY);
+        int min = -1;
+        int max = -1;
+        if (!any) {
+            min = scanValue(scanner, spec);
+            if (min < 0) {
+                return null;
+            }
+            if (scanner.consume(RANGE_SEP)) {
+                int start = scanner.pos;
+                max = scanValue(scanner, spec);
+                if (max < 0) {
+                    return null;
+                } else if (max < min) {
+                    return scanner.fail(start, "Range end is lower than its start");
+                }
+            }
+        }
+
+        CronRule rule;
+        if (scanner.consume(STEP_SEP)) {
+            int step = scanNumber(scanner, 1, spec.max);
+            if (step < 0) {
+                return null;
+            } else if (any) {
+                rule = spec.adapter.adapt(new RepeatRule(spec.min, spec.anyMax, step));
+            } else if (max < 0) {
+                rule = spec.adapter.adapt(new SingleValueRule(min));
+            } else {
+                rule = spec.adapter.adapt(new RepeatRule(min, max, step));
+            }
+        } else if (any) {
+            rule = new AnyValueRule();
+        } else if (max < 0) {
+            rule = spec.adapter.adapt(new SingleValueRule(min));
+        } else {
+            rule = spec.adapter.adapt(new RangeRule(min, max));
+        }
+        return rule;
+    }
+
+    /**
+     * Scans the rest of an {@code H} token, after the {@code H} itself.
+     *
+     * @return the resolved rule, or {@code null} if the token is invalid
+     */
+    private static CronRule scanHash(Scanner scanner, FieldSpec spec, long hash) {
+        int min = spec.min;
+        int max = spec.hashMax;
+        if (scanner.consume(HASH_RANGE_START)) {
+            min = scanNumber(scanner, spec.min, spec.max);
+            if (min < 0) {
+                return null;
+            } else if (!scanner.consume(RANGE_SEP)) {
+                return scanner.unexpected("'" + RANGE_SEP + "'");
+            }
+            int start = scanner.pos;
+            max = scanNumber(scanner, spec.min, spec.max);
+            if (max < 0) {
+                return null;
+            } else if (max < min) {
+                return scanner.fail(start, "Range end is lower than its start");
+            } else if (!scanner.consume(HASH_RANGE_END)) {
+                return scanner.unexpected("'" + HASH_RANGE_END + "'");
+            }
+        }
+
+        int step = HashToken.NO_STEP;
+        if (scanner.consume(STEP_SEP)) {
+            step = scanNumber(scanner, 1, spec.max);
+            if (step < 0) {
+                return null;
+            }
+        }
+        return HashToken.resolve(hash, min, max, step, spec.adapter);
+    }
+
+    /**
+     * Scans a value, which may be a number or a name if the field allows them.
+     *
+     * @return the value, or {@code -1} if it is invalid
+     */
+    private static int scanValue(Scanner scanner, FieldSpec spec) {
+        if (!scanner.hasNext()) {
+            scanner.unexpected("a value");
+            return -1;
+        }
+
+        char c = scanner.peek();
+        if (c >= '0' && c <= '9') {
+            return scanNumber(scanner, spec.min, spec.max);
+        } else if (spec.names != null && Character.isLetter(c)) {
+            return scanName(scanner, spec);
+        }
+        scanner.unexpected(spec.names == null ? "a number or '*'" : "a number, a name or '*'");
+        return -1;
+    }
+
+    /**
+     * Scans a case-insensitive name.
+     *
+     * @return the value of the name, or {@code -1} if it is unknown
+     */
+    private static int scanName(Scanner scanner, FieldSpec spec) {
+        int start = scanner.pos;
+        while (scanner.hasNext() && Character.isLetter(scanner.peek())) {
+            scanner.pos++;
+        }
+        int length = scanner.pos - start;
+
+        for (int i = 0; i < spec.names.length; i++) {
+            String name = spec.names[i];
+            if (name.length() == length && scanner.cron.regionMatches(true, start, name, 0, length)) {
+                return spec.firstNameValue + i;
+            }
+        }
+        scanner.fail(start, "Unknown name for field " + spec.field);
+        return -1;
+    }
+
+    /**
+     * Scans a number and checks it lies within the supplied bounds.
+     *
+     * @return the number, or {@code -1} if it is invalid
+     */
+    private static int scanNumber(Scanner scanner, int min, int max) {
+        int start = scanner.pos;
+        int value = 0;
+        while (scanner.hasNext() && scanner.peek() >= '0' && scanner.peek() <= '9') {
+            // saturate rather than overflow, any value above max is refused anyway
+            value = Math.min(value * 10 + scanner.peek() - '0', max + 1);
+            scanner.pos++;
+        }
+
+        if (scanner.pos == start) {
+            scanner.unexpected("a number");
+            return -1;
+        } else if (value < min || value > max) {
+            scanner.fail(start, "Value out of range [" + min + "-" + max + "]");
+            return -1;
+        }
+        return value;
+    }
+}
@@ -19,7 +19,8 @@ import org.keyboardplaying.cron.parser.adapter.RangeAdapter;
 /**
  * A parser for Unix-like CRON expressions.
  * <p/>
- * The rules are implemented based on the crontab documentation.
+ * The rules are implemented based on the crontab documentation. In addition, the Jenkins-like {@code H} token is
+ * supported: see {@link #parse(String, String)}.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  * @see <a href="http://www.unix.com/man-page/linux/5/crontab/">Unix manual</a>
@@ -73,35 +74,42 @@ public class UnixCronParser implements CronSyntacticParser {
         // hours
         HOUR("2[0-3]|1?\\d", 0, 23),
         // day of month
-        DAY_OF_MONTH("3[0-1]|[1-2]?\\d", 1, 31),
+        // a hashed day is one of the 28 days common to all months
+        DAY_OF_MONTH("3[0-1]|[1-2]?\\d", 1, 31, 28),
         // month
-        MONTH("1[0-2]|\\d", 1, 12, MonthAlias.values(), new MonthRangeAdapter(UNIX_JANUARY)) {
-            @Override
-            public CronRule parse(Matcher matcher) {
-                return parse(matcher, MonthAlias.values());
-            }
-        },
+        MONTH("1[0-2]|\\d", 1, 12, MonthAlias.values(), new MonthRangeAdapter(UNIX_JANUARY)),
         // day of week
-        DAY_OF_WEEK("[0-7]", 0, 7, DayOfWeekAlias.values(), new DayOfWeekRangeAdapter(UNIX_SUNDAY)) {
-            @Override
-            public CronRule parse(Matcher matcher) {
-                return parse(matcher, DayOfWeekAlias.values());
-            }
-        };
+        // 7 is an alias for Sunday, which must not be counted twice when repeating over "*"
+        DAY_OF_WEEK("[0-7]", 0, 6, DayOfWeekAlias.values(), new DayOfWeekRangeAdapter(UNIX_SUNDAY));
 
         private String pattern;
+        private Pattern compiled;
+        private CronAlias[] aliases;
         private int min;
         private int max;
+        private int hashMax;
         private RangeAdapter adapter;
 
         UnixCronGroup(String rangePattern, int min, int max) {
-            this(rangePattern, min, max, null, NO_CHANGE_ADAPTER);
+            this(rangePattern, min, max, max);
+        }
+
+        UnixCronGroup(String rangePattern, int min, int max, int hashMax) {
+            this(rangePattern, min, max, hashMax, null, NO_CHANGE_ADAPTER);
         }
 
         UnixCronGroup(String rangePattern, int min, int max, CronAlias[] aliases, RangeAdapter adapter) {
-            this.pattern = CronRegexUtils.initGroupPattern(rangePattern, aliases, false);
+            this(rangePattern, min, max, max, aliases, adapter);
+        }
+
+        UnixCronGroup(String rangePattern, int min, int max, int hashMax, CronAlias[] aliases,
+                RangeAdapter adapter) {
+            this.pattern = CronRegexUtils.initGroupPattern(rangePattern, aliases, false, true);
+            this.compiled = Pattern.compile(pattern);
+            this.aliases = aliases;
             this.min = min;
             this.max = max;
+            this.hashMax = hashMax;
             this.adapter = adapter;
         }
 
@@ -110,6 +118,11 @@ public class UnixCronParser implements CronSyntacticParser {
             return pattern;
         }
 
+        @Override
+        public Pattern getPattern() {
+            return compiled;
+        }
+
         @Override
         public int getMin() {
             return min;
@@ -120,22 +133,19 @@ public class UnixCronParser implements CronSyntacticParser {
             return max;
         }
 
+        @Override
+        public int getHashMax() {
+            return hashMax;
+        }
+
         @Override
         public RangeAdapter getAdapter() {
             return adapter;
         }
 
-        public CronRule parse(Matcher matcher) {
+        public CronRule parse(Matcher matcher, String key) {
             return CronRegexUtils.parseGroup(matcher.group(NB_GROUPS_BASE + ordinal() * NB_GROUPS_REPEAT),
-                    PATTERN_REPEAT_SEP, this);
-        }
-
-        protected CronRule parse(Matcher matcher, CronAlias[] aliases) {
-            String group = matcher.group(NB_GROUPS_BASE + ordinal() * NB_GROUPS_REPEAT).toUpperCase();
-            for (CronAlias alias : aliases) {
-                group = group.replaceAll(alias.getAlias(), String.valueOf(alias.getValue()));
-            }
-            return CronRegexUtils.parseGroup(group, PATTERN_REPEAT_SEP, this);
+                    PATTERN_REPEAT_SEP, this, aliases, HashToken.hash(key, ordinal()));
         }
     }
 
@@ -171,7 +181,7 @@ public class UnixCronParser implements CronSyntacticParser {
     private static final CronRule YEAR = new AnyValueRule();
 
     private static final String PATTERN_REPEAT_SEP = ",";
-    private static final String PATTERN_CRON = initUnixCronPattern();
+    private static final Pattern PATTERN_CRON = Pattern.compile(initUnixCronPattern());
 
     private static final int NB_GROUPS_BASE = 1;
     private static final int NB_GROUPS_REPEAT = 7;
@@ -196,7 +206,21 @@ public class UnixCronParser implements CronSyntacticParser {
     public boolean isValid(String cron) {
         // TODO finer validation:
         // - ranges are correct (min-max, not max-min)
-        return cron != null && cron.matches(PATTERN_CRON);
+        if (cron == null) {
+            return false;
+        }
+        Matcher matcher = PATTERN_CRON.matcher(cron);
+        if (!matcher.matches()) {
+            return false;
+        } else if (cron.indexOf(HashToken.TOKEN) >= 0) {
+            // the range and step of an H token are only checked when the token is resolved
+            try {
+                build(matcher, cron);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /*
@@ -206,20 +230,48 @@ public class UnixCronParser implements CronSyntacticParser {
      */
     @Override
     public CronExpression parse(String cron) {
-        if (!Objects.requireNonNull(cron).matches(PATTERN_CRON)) {
+        return parse(cron, null);
+    }
+
+    /**
+     * Parses a CRON expression for a given job.
+     * <p/>
+     * The {@code H} tokens of the expression are resolved from the hash of the key. Without a key, they are resolved
+     * from the hash of the expression itself, so that all the jobs sharing the expression are given the same values.
+     *
+     * @param cron the CRON expression to parse
+     * @param key  the key of the job the expression is for (e.g. its name), may be {@code null}
+     * @return a parsed {@link CronExpression}
+     * @throws NullPointerException     if the expression is {@code null}
+     * @throws UnsupportedCronException if the expression is invalid
+     */
+    @Override
+    public CronExpression parse(String cron, String key) {
+        Matcher matcher = PATTERN_CRON.matcher(Objects.requireNonNull(cron));
+        if (!matcher.matches()) {
             throw new UnsupportedCronException(cron, false);
         }
 
-        String toParse = cron.startsWith(SPECIAL_EXP_KEY) ? SpecialExpression.valueOf(cron.substring(1)).getEquivalent()
-                : cron;
-        Matcher matcher = Pattern.compile(PATTERN_CRON).matcher(toParse);
-        matcher.find();
+        if (cron.startsWith(SPECIAL_EXP_KEY)) {
+            matcher.reset(SpecialExpression.valueOf(cron.substring(1)).getEquivalent());
+            matcher.matches();
+        }
+
+        try {
+            return build(matcher, key == null ? cron : key);
+        } catch (IllegalArgumentException e) {
+            // a reversed range or a null step, which the pattern cannot tell
+            throw new UnsupportedCronException(cron, false);
+        }
+    }
 
+    private static CronExpression build(Matcher matcher, String hashKey) {
         return CronExpression.Builder.create().set(DayConstraint.BOTH_OR).set(Field.SECOND, SECOND)
-                .set(Field.MINUTE, UnixCronGroup.MINUTE.parse(matcher))
-                .set(Field.HOUR, UnixCronGroup.HOUR.parse(matcher))
-                .set(Field.DAY_OF_MONTH, UnixCronGroup.DAY_OF_MONTH.parse(matcher))
-                .set(Field.MONTH, UnixCronGroup.MONTH.parse(matcher))
-                .set(Field.DAY_OF_WEEK, UnixCronGroup.DAY_OF_WEEK.parse(matcher)).set(Field.YEAR, YEAR).build();
+                .set(Field.MINUTE, UnixCronGroup.MINUTE.parse(matcher, hashKey))
+                .set(Field.HOUR, UnixCronGroup.HOUR.parse(matcher, hashKey))
+                .set(Field.DAY_OF_MONTH, UnixCronGroup.DAY_OF_MONTH.parse(matcher, hashKey))
+                .set(Field.MONTH, UnixCronGroup.MONTH.parse(matcher, hashKey))
+                .set(Field.DAY_OF_WEEK, UnixCronGroup.DAY_OF_WEEK.parse(matcher, hashKey)).set(Field.YEAR, YEAR)
+                .build();
     }
 }
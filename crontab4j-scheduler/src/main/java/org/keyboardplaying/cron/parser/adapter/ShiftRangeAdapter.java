@@ -100,8 +100,7 @@ public abstract class ShiftRangeAdapter implements RangeAdapter {
      * @return the shifted value
      */
     private int shift(int value) {
-        int shifted = (value + shift) % adaptedMax;
-        // in case of negative shift
-        return shifted < adaptedMin ? shifted + adaptedMax : shifted;
+        // wrap around the adapted range, whatever the sign of the shift
+        return Math.floorMod(value + shift - adaptedMin, adaptedMax - adaptedMin + 1) + adaptedMin;
     }
 }
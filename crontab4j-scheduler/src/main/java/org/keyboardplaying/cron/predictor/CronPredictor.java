@@ -1,16 +1,23 @@
 package org.keyboardplaying.cron.predictor;
 
+import java.time.ZonedDateTime;
 import java.util.Calendar;
+import java.util.GregorianCalendar;
 import java.util.Objects;
 
 import org.keyboardplaying.cron.expression.CronExpression;
 
 /**
  * This class provides the capability to compute the next time a CRON expression should be triggered.
+ * <p/>
+ * This implementation relies on {@link Calendar}. {@link ZonedCronPredictor} provides the same results without it and
+ * should be preferred when performance matters, except for the local times falling in a daylight saving overlap:
+ * {@link Calendar} resolves them with the standard offset (usually the later one), while {@link ZonedCronPredictor}
+ * applies its {@link OverlapPolicy} (the earlier offset by default).
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
-public class CronPredictor {
+public class CronPredictor implements OccurrencePredictor {
 
     /**
      * Returns the next time the CRON expression will be triggered.
@@ -59,4 +66,16 @@ public class CronPredictor {
 
         return next;
     }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.predictor.OccurrencePredictor#predictNext(org.keyboardplaying.cron.expression
+     * .CronExpression, java.time.ZonedDateTime)
+     */
+    @Override
+    public ZonedDateTime predictNext(CronExpression cron, ZonedDateTime from) {
+        Calendar next = getNextOccurrence(cron, from == null ? null : GregorianCalendar.from(from));
+        return next == null ? null : next.toInstant().atZone(next.getTimeZone().toZoneId());
+    }
 }
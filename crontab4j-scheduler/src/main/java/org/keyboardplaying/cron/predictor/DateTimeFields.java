@@ -0,0 +1,388 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A mutable local date-time stored as primitive fields.
+ * <p/>
+ * This object is used by the Calendar-free predictors to walk through time without allocating or recomputing
+ * anything but the fields that actually change. Month lengths are precomputed and the day of week is derived
+ * arithmetically.
+ * <p/>
+ * Fields follow the ISO convention ({@code month} from 1 to 12), unlike the rules of a CRON expression which follow the
+ * {@link java.util.Calendar} one.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+// package-restricted
+final class DateTimeFields {
+
+    private static final int[] MONTH_LENGTHS = { 0, 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final int THURSDAY = 4;
+
+    int year;
+    int month;
+    int day;
+    int hour;
+    int minute;
+    int second;
+
+    /**
+     * Sets the fields from a {@link LocalDateTime}, discarding any fraction of second.
+     *
+     * @param ldt the date-time to copy
+     * @return a reference to this object
+     */
+    DateTimeFields set(LocalDateTime ldt) {
+        return set(ldt.getYear(), ldt.getMonthValue(), ldt.getDayOfMonth(), ldt.getHour(), ldt.getMinute(),
+                ldt.getSecond());
+    }
+
+    /**
+     * Sets all the fields.
+     *
+     * @return a reference to this object
+     */
+    DateTimeFields set(int year, int month, int day, int hour, int minute, int second) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.hour = hour;
+        this.minute = minute;
+        this.second = second;
+        return this;
+    }
+
+    /**
+     * Sets the fields from a number of seconds since the epoch in local time (i.e. with the offset already applied).
+     *
+     * @param localEpochSecond the local epoch second
+     * @return a reference to this object
+     */
+    DateTimeFields setLocalEpochSecond(long localEpochSecond) {
+        long epochDay = Math.floorDiv(localEpochSecond, 86400L);
+        int secondOfDay = (int) Math.floorMod(localEpochSecond, 86400L);
+        hour = secondOfDay / 3600;
+        minute = secondOfDay / 60 % 60;
+        second = secondOfDay % 60;
+
+        // same algorithm as LocalDate.ofEpochDay
+        long zeroDay = epochDay + DAYS_0000_TO_1970 - 60;
+        long adjust = 0;
+        if (zeroDay < 0) {
+            long adjustCycles = (zeroDay + 1) / 146097 - 1;
+            adjust = adjustCycles * 400;
+            zeroDay += -adjustCycles * 146097;
+        }
+        long yearEst = (400 * zeroDay + 591) / 146097;
+        long doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        if (doyEst < 0) {
+            yearEst--;
+            doyEst = zeroDay - (365 * yearEst + yearEst / 4 - yearEst / 100 + yearEst / 400);
+        }
+        yearEst += adjust;
+        int marchDoy0 = (int) doyEst;
+        int marchMonth0 = (marchDoy0 * 5 + 2) / 153;
+        month = (marchMonth0 + 2) % 12 + 1;
+        day = marchDoy0 - (marchMonth0 * 306 + 5) / 10 + 1;
+        year = (int) (yearEst + marchMonth0 / 10);
+        return this;
+    }
+
+    /**
+     * Returns the number of seconds since the epoch in local time (i.e. before the offset is applied).
+     *
+     * @return the local epoch second
+     */
+    long toLocalEpochSecond() {
+        return epochDay(year, month, day) * 86400L + hour * 3600 + minute * 60 + second;
+    }
+
+    /**
+     * Creates a {@link LocalDateTime} from the current values of the fields.
+     *
+     * @return the local date-time
+     */
+    LocalDateTime toLocalDateTime() {
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    /**
+     * Moves to the next second.
+     */
+    void nextSecond() {
+        if (++second > 59) {
+            nextMinute();
+        }
+    }
+
+    /**
+     * Moves to the start of the next minute.
+     */
+    void nextMinute() {
+        second = 0;
+        if (++minute > 59) {
+            nextHour();
+        }
+    }
+
+    /**
+     * Moves to the start of the next hour.
+     */
+    void nextHour() {
+        minute = 0;
+        second = 0;
+        if (++hour > 23) {
+            nextDay();
+        }
+    }
+
+    /**
+     * Moves to the start of the next day.
+     */
+    void nextDay() {
+        hour = 0;
+        minute = 0;
+        second = 0;
+        if (++day > lengthOfMonth(year, month)) {
+            nextMonth();
+        }
+    }
+
+    /**
+     * Moves to the start of the next month.
+     */
+    void nextMonth() {
+        day = 1;
+        hour = 0;
+        minute = 0;
+        second = 0;
+        if (++month > 12) {
+            month = 1;
+            year++;
+        }
+    }
+
+    /**
+     * Moves to the start of the supplied year.
+     *
+     * @param year the new year
+     */
+    void startOfYear(int year) {
+        set(year, 1, 1, 0, 0, 0);
+    }
+
+    /**
+     * Moves to the start of the supplied month of the current year.
+     *
+     * @param month the new month
+     */
+    void startOfMonth(int month) {
+        this.month = month;
+        day = 1;
+        hour = 0;
+        minute = 0;
+        second = 0;
+    }
+
+    /**
+     * Moves to the start of the supplied day of the current month.
+     *
+     * @param day the new day
+     */
+    void startOfDay(int day) {
+        this.day = day;
+        hour = 0;
+        minute = 0;
+        second = 0;
+    }
+
+    /**
+     * Moves to the start of the supplied hour of the current day.
+     *
+     * @param hour the new hour
+     */
+    void startOfHour(int hour) {
+        this.hour = hour;
+        minute = 0;
+        second = 0;
+    }
+
+    /**
+     * Moves to the start of the supplied minute of the current hour.
+     *
+     * @param minute the new minute
+     */
+    void startOfMinute(int minute) {
+        this.minute = minute;
+        second = 0;
+    }
+
+    /**
+     * Moves to the previous second.
+     */
+    void previousSecond() {
+        if (--second < 0) {
+            endOfPreviousMinute();
+        }
+    }
+
+    /**
+     * Moves to the end of the previous minute.
+     */
+    void endOfPreviousMinute() {
+        second = 59;
+        if (--minute < 0) {
+            endOfPreviousHour();
+        }
+    }
+
+    /**
+     * Moves to the end of the previous hour.
+     */
+    void endOfPreviousHour() {
+        minute = 59;
+        second = 59;
+        if (--hour < 0) {
+            endOfPreviousDay();
+        }
+    }
+
+    /**
+     * Moves to the end of the previous day.
+     */
+    void endOfPreviousDay() {
+        hour = 23;
+        minute = 59;
+        second = 59;
+        if (--day < 1) {
+            endOfPreviousMonth();
+        }
+    }
+
+    /**
+     * Moves to the end of the previous month.
+     */
+    void endOfPreviousMonth() {
+        if (--month < 1) {
+            month = 12;
+            year--;
+        }
+        endOfMonth(month);
+    }
+
+    /**
+     * Moves to the end of the supplied year.
+     *
+     * @param year the new year
+     */
+    void endOfYear(int year) {
+        set(year, 12, 31, 23, 59, 59);
+    }
+
+    /**
+     * Moves to the end of the supplied month of the current year.
+     *
+     * @param month the new month
+     */
+    void endOfMonth(int month) {
+        this.month = month;
+        endOfDay(lengthOfMonth(year, month));
+    }
+
+    /**
+     * Moves to the end of the supplied day of the current month.
+     *
+     * @param day the new day
+     */
+    void endOfDay(int day) {
+        this.day = day;
+        hour = 23;
+        minute = 59;
+        second = 59;
+    }
+
+    /**
+     * Moves to the end of the supplied hour of the current day.
+     *
+     * @param hour the new hour
+     */
+    void endOfHour(int hour) {
+        this.hour = hour;
+        minute = 59;
+        second = 59;
+    }
+
+    /**
+     * Moves to the end of the supplied minute of the current hour.
+     *
+     * @param minute the new minute
+     */
+    void endOfMinute(int minute) {
+        this.minute = minute;
+        second = 59;
+    }
+
+    /**
+     * Tests whether the supplied year is a leap year in the proleptic Gregorian calendar.
+     *
+     * @param year the year
+     * @return {@code true} if the year is a leap year
+     */
+    static boolean isLeap(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Returns the number of days in the supplied month.
+     *
+     * @param year  the year
+     * @param month the month, from 1 to 12
+     * @return the length of the month
+     */
+    static int lengthOfMonth(int year, int month) {
+        return month == 2 && isLeap(year) ? 29 : MONTH_LENGTHS[month];
+    }
+
+    /**
+     * Returns the number of days since the epoch for the supplied date.
+     *
+     * @param year  the year
+     * @param month the month, from 1 to 12
+     * @param day   the day of month
+     * @return the epoch day
+     */
+    static long epochDay(int year, int month, int day) {
+        // same algorithm as LocalDate.toEpochDay
+        long y = year;
+        long total = 365 * y;
+        if (y >= 0) {
+            total += (y + 3) / 4 - (y + 99) / 100 + (y + 399) / 400;
+        } else {
+            total -= y / -4 - y / -100 + y / -400;
+        }
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+        if (month > 2) {
+            total--;
+            if (!isLeap(year)) {
+                total--;
+            }
+        }
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Returns the day of week of the supplied date, using the {@link java.util.Calendar} convention.
+     *
+     * @param year  the year
+     * @param month the month, from 1 to 12
+     * @param day   the day of month
+     * @return the day of week, from {@link java.util.Calendar#SUNDAY} to {@link java.util.Calendar#SATURDAY}
+     */
+    static int dayOfWeek(int year, int month, int day) {
+        // the epoch was a Thursday
+        return (int) Math.floorMod(epochDay(year, month, day) + THURSDAY, 7L) + 1;
+    }
+}
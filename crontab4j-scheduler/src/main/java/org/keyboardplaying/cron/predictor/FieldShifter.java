@@ -28,27 +28,25 @@ class FieldShifter {
     }
 
     public boolean allowsField(Calendar cal, CronExpression cron, Field cronField) {
-        return cron.get(cronField).allows(cal.get(calendarField));
+        return cron.getCompiled(cronField).allows(cal.get(calendarField));
     }
 
     public Calendar shift(Calendar cal, CronExpression cron, Field exprField) {
         // define a recursive sub method to avoid getting max and rule on each iteration
-        return shift(cal, cron, cron.get(exprField));
+        return shift(cal, cron, cron.getCompiled(exprField));
     }
 
-    private Calendar shift(Calendar cal, CronExpression cron, CronRule rule) {
+    protected Calendar shift(Calendar cal, CronExpression cron, CronRule rule) {
         final int localMax = getMax(cal, rule);
-        int value = cal.get(calendarField);
-        do {
-            value++;
-            if (value > localMax) {
-                Calendar next = shiftUpper(cal, cron);
-                if (next == null) {
-                    return null;
-                }
-                return rule.allows(next.get(calendarField)) ? next : shift(cal, cron, rule);
+        // jump directly to the next legal value
+        int value = rule.nextAllowed(cal.get(calendarField) + 1);
+        if (value < 0 || value > localMax) {
+            Calendar next = shiftUpper(cal, cron);
+            if (next == null) {
+                return null;
             }
-        } while (!rule.allows(value));
+            return rule.allows(next.get(calendarField)) ? next : shift(next, cron, rule);
+        }
 
         Calendar next = resetLowers(cal);
         next.set(calendarField, value);
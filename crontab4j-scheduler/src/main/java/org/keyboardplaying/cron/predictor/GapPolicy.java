@@ -0,0 +1,25 @@
+package org.keyboardplaying.cron.predictor;
+
+/**
+ * What becomes of the occurrences of a CRON expression whose local time is skipped by a time-zone transition (e.g. from
+ * 2:00 to 3:00 when daylight saving time starts).
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see ZonePolicy
+ */
+public enum GapPolicy {
+    /**
+     * The occurrence is shifted forward by the length of the gap (2:30 becomes 3:30), as a lenient
+     * {@link java.util.Calendar} would. This is the default.
+     */
+    SHIFT,
+    /**
+     * The occurrence happens at the end of the gap (2:30 becomes 3:00). Several occurrences within the gap happen only
+     * once.
+     */
+    NEXT_VALID,
+    /**
+     * The occurrence does not happen.
+     */
+    SKIP
+}
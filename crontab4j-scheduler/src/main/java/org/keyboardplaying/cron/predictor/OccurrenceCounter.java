@@ -0,0 +1,255 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.BitmaskRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+
+/**
+ * Counts the occurrences of CRON expressions within a time window without enumerating them.
+ * <p/>
+ * Within a day, the number of matching times is the product of the number of allowed hours, minutes and seconds,
+ * which are popcounts of the compiled rules; the window is then walked day by day (month by month for the months the
+ * expression excludes), so that counting a month of an expression firing every second costs no more than counting a
+ * month of a daily one.
+ * <p/>
+ * The counts are the ones an {@link OccurrenceCursor} would enumerate: around time-zone transitions, where local times
+ * may be skipped or repeated, the occurrences are enumerated with a cursor instead of being counted, so that the counts
+ * honour the {@link ZonePolicy} of the counter.
+ * <p/>
+ * Instances are immutable and can be safely shared between threads.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class OccurrenceCounter {
+
+    private static final long SECONDS_PER_DAY = 86400L;
+    private static final long MILLIS_PER_HOUR = 3600000L;
+    // the occurrences closer than this to a time-zone transition are enumerated rather than counted
+    private static final long TRANSITION_MARGIN = SECONDS_PER_DAY;
+
+    private final ZonePolicy policy;
+    private final ZoneId zone;
+    private final ZoneRules rules;
+
+    /**
+     * Creates a new counter in the specified time-zone, with the default resolution of gaps and overlaps.
+     *
+     * @param zone the time-zone the CRON expressions should be evaluated in
+     * @throws NullPointerException if {@code zone} is {@code null}
+     */
+    public OccurrenceCounter(ZoneId zone) {
+        this(ZonePolicy.of(zone));
+    }
+
+    /**
+     * Creates a new counter in the specified time-zone.
+     *
+     * @param policy the time-zone the CRON expressions should be evaluated in, and how gaps and overlaps are resolved
+     * @throws NullPointerException if {@code policy} is {@code null}
+     */
+    public OccurrenceCounter(ZonePolicy policy) {
+        this.policy = policy;
+        this.zone = policy.getZone();
+        this.rules = zone.getRules();
+    }
+
+    /**
+     * Returns the time-zone the CRON expressions are evaluated in.
+     *
+     * @return the time-zone of this counter
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns the number of occurrences of the CRON expression within a window.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the start of the window, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the window, inclusive, as milliseconds since the epoch
+     * @return the number of occurrences of the expression within the window
+     * @throws NullPointerException if the supplied expression is {@code null}
+     */
+    public long count(CronExpression cron, long fromEpochMillis, long toEpochMillis) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+        return count(new DayCounter(cron), fromEpochMillis, toEpochMillis);
+    }
+
+    /**
+     * Returns the number of occurrences of the CRON expression for each hour of a window.
+     * <p/>
+     * The bucket {@code i} holds the occurrences after {@code fromEpochMillis + i} hours, up to
+     * {@code fromEpochMillis + i + 1} hours included. The last bucket stops at the end of the window.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the start of the window, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the window, inclusive, as milliseconds since the epoch
+     * @return the number of occurrences of the expression for each hour of the window
+     * @throws NullPointerException     if the supplied expression is {@code null}
+     * @throws IllegalArgumentException if the window ends before it starts
+     */
+    public long[] countPerHour(CronExpression cron, long fromEpochMillis, long toEpochMillis) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+        if (toEpochMillis < fromEpochMillis) {
+            throw new IllegalArgumentException("The window must not end before it starts");
+        }
+        DayCounter counter = new DayCounter(cron);
+        long[] buckets = new long[(int) ((toEpochMillis - fromEpochMillis + MILLIS_PER_HOUR - 1) / MILLIS_PER_HOUR)];
+        for (int i = 0; i < buckets.length; i++) {
+            long start = fromEpochMillis + i * MILLIS_PER_HOUR;
+            buckets[i] = count(counter, start, Math.min(start + MILLIS_PER_HOUR, toEpochMillis));
+        }
+        return buckets;
+    }
+
+    private long count(DayCounter counter, long fromEpochMillis, long toEpochMillis) {
+        // the occurrences are whole seconds: (from, to] becomes [first, last]
+        long first = Math.floorDiv(fromEpochMillis, 1000L) + 1;
+        long last = Math.floorDiv(toEpochMillis, 1000L);
+        if (first > last) {
+            return 0L;
+        }
+        if (rules.isFixedOffset()) {
+            int offset = rules.getOffset(Instant.EPOCH).getTotalSeconds();
+            return counter.countLocal(first + offset, last + offset);
+        }
+
+        long total = 0L;
+        long position = first;
+        while (position <= last) {
+            int offset = rules.getOffset(Instant.ofEpochSecond(position)).getTotalSeconds();
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(position - TRANSITION_MARGIN));
+            if (transition == null || transition.toEpochSecond() - TRANSITION_MARGIN > last) {
+                // no transition until the end of the window
+                total += counter.countLocal(position + offset, last + offset);
+                break;
+            }
+
+            long exactFrom = Math.max(position, transition.toEpochSecond() - TRANSITION_MARGIN);
+            long exactTo = Math.min(last, transition.toEpochSecond() + TRANSITION_MARGIN - 1);
+            if (position < exactFrom) {
+                total += counter.countLocal(position + offset, exactFrom - 1 + offset);
+            }
+            total += enumerate(counter.cron, exactFrom, exactTo);
+            position = exactTo + 1;
+        }
+        return total;
+    }
+
+    private long enumerate(CronExpression cron, long firstSecond, long lastSecond) {
+        OccurrenceCursor cursor = new OccurrenceCursor(policy).moveTo((firstSecond - 1) * 1000L);
+        long lastMillis = lastSecond * 1000L;
+        long total = 0L;
+        while (cursor.next(cron) && cursor.getEpochMillis() <= lastMillis) {
+            total++;
+        }
+        return total;
+    }
+
+    /**
+     * Counts the matching local times of a CRON expression, combining the popcounts of its rules.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class DayCounter {
+
+        private final CronExpression cron;
+        private final CronRule years;
+        private final CronRule months;
+        private final long hours;
+        private final long minutes;
+        private final long seconds;
+        private final long perDay;
+
+        DayCounter(CronExpression cron) {
+            this.cron = cron;
+            this.years = cron.getCompiled(Field.YEAR);
+            this.months = cron.getCompiled(Field.MONTH);
+            this.hours = mask(cron, Field.HOUR);
+            this.minutes = mask(cron, Field.MINUTE);
+            this.seconds = mask(cron, Field.SECOND);
+            this.perDay = (long) Long.bitCount(hours) * Long.bitCount(minutes) * Long.bitCount(seconds);
+        }
+
+        private static long mask(CronExpression cron, Field field) {
+            return BitmaskRule.compile(cron.getCompiled(field), field.getMin(), field.getMax()).getMask();
+        }
+
+        /**
+         * Counts the matching local times between two local epoch seconds, both inclusive.
+         */
+        long countLocal(long first, long last) {
+            long firstDay = Math.floorDiv(first, SECONDS_PER_DAY);
+            long lastDay = Math.floorDiv(last, SECONDS_PER_DAY);
+            int firstSecond = (int) Math.floorMod(first, SECONDS_PER_DAY);
+            int lastSecond = (int) Math.floorMod(last, SECONDS_PER_DAY);
+            DateTimeFields fields = new DateTimeFields().setLocalEpochSecond(firstDay * SECONDS_PER_DAY);
+
+            if (firstDay == lastDay) {
+                return matches(fields) ? countBefore(lastSecond + 1) - countBefore(firstSecond) : 0L;
+            }
+
+            long total = matches(fields) ? perDay - countBefore(firstSecond) : 0L;
+            fields.nextDay();
+            long days = lastDay - firstDay - 1;
+            while (days > 0) {
+                if (!years.allows(fields.year) || !months.allows(fields.month - 1)) {
+                    // skip the rest of the month at once
+                    int left = DateTimeFields.lengthOfMonth(fields.year, fields.month) - fields.day + 1;
+                    if (left > days) {
+                        fields.setLocalEpochSecond(lastDay * SECONDS_PER_DAY);
+                        break;
+                    }
+                    days -= left;
+                    fields.nextMonth();
+                    continue;
+                }
+                if (matchesDay(fields)) {
+                    total += perDay;
+                }
+                days--;
+                fields.nextDay();
+            }
+            return total + (matches(fields) ? countBefore(lastSecond + 1) : 0L);
+        }
+
+        private boolean matches(DateTimeFields fields) {
+            return years.allows(fields.year) && months.allows(fields.month - 1) && matchesDay(fields);
+        }
+
+        private boolean matchesDay(DateTimeFields fields) {
+            return ZonedCronPredictor.nextDay(cron, fields.year, fields.month, fields.day) == fields.day;
+        }
+
+        /**
+         * Counts the matching times of a day strictly before the supplied second of the day.
+         */
+        private long countBefore(int secondOfDay) {
+            int hour = secondOfDay / 3600;
+            int minute = secondOfDay / 60 % 60;
+            int second = secondOfDay % 60;
+
+            long total = Long.bitCount(hours & below(hour)) * (long) Long.bitCount(minutes) * Long.bitCount(seconds);
+            // the end of the day is 24:00:00
+            if (hour < 24 && (hours & 1L << hour) != 0) {
+                total += (long) Long.bitCount(minutes & below(minute)) * Long.bitCount(seconds);
+                if ((minutes & 1L << minute) != 0) {
+                    total += Long.bitCount(seconds & below(second));
+                }
+            }
+            return total;
+        }
+
+        private static long below(int value) {
+            return (1L << value) - 1;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Objects;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * A mutable position in time which can be moved from one occurrence of a CRON expression to the next.
+ * <p/>
+ * This object is meant to be reused in tight loops: once created, moving it produces no garbage unless a time-zone
+ * transition has to be looked up, which happens at most once per transition crossed. The offset in use and the period
+ * during which it stays valid are cached, so that converting between local and absolute times is plain arithmetic.
+ * <p/>
+ * Local times falling in a daylight saving gap or overlap are resolved according to a {@link ZonePolicy}. By default,
+ * local times in a gap are shifted forward by the length of the gap and local times in an overlap happen once, with
+ * the earlier offset. Whatever the policy, the transitions are looked up from the {@link ZoneRules} of the time-zone
+ * and the cursor never has to retry a resolution.
+ * <p/>
+ * Instances are not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class OccurrenceCursor {
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final GapPolicy gapPolicy;
+    private final OverlapPolicy overlapPolicy;
+    private final DateTimeFields fields = new DateTimeFields();
+    // used to look for the local times of a gap without moving the cursor
+    private final DateTimeFields scratch = new DateTimeFields();
+
+    private long epochSecond;
+    private int offset;
+    // the period during which the cached offset is valid, as epoch seconds [from, until)
+    private long offsetFrom = Long.MAX_VALUE;
+    private long offsetUntil = Long.MIN_VALUE;
+    // if the cached period starts with an overlap, the end of the local times it shares with the previous period
+    private long overlapUntil = Long.MIN_VALUE;
+    // if the cached period ends with an overlap, the first local time (as a local epoch second) it shares with the next
+    private long nextOverlapFrom = Long.MAX_VALUE;
+    // the transition starting the cached period if it is a gap, null otherwise
+    private ZoneOffsetTransition startingGap;
+
+    /**
+     * Creates a new cursor in the specified time-zone, with the default resolution of gaps and overlaps.
+     *
+     * @param zone the time-zone the CRON expressions should be evaluated in
+     * @throws NullPointerException if {@code zone} is {@code null}
+     */
+    public OccurrenceCursor(ZoneId zone) {
+        this(ZonePolicy.of(zone));
+    }
+
+    /**
+     * Creates a new cursor in the specified time-zone.
+     *
+     * @param policy the time-zone the CRON expressions should be evaluated in, and how gaps and overlaps are resolved
+     * @throws NullPointerException if {@code policy} is {@code null}
+     */
+    public OccurrenceCursor(ZonePolicy policy) {
+        this.zone = policy.getZone();
+        this.rules = zone.getRules();
+        this.gapPolicy = policy.getGap();
+        this.overlapPolicy = policy.getOverlap();
+    }
+
+    /**
+     * Returns the time-zone the CRON expressions are evaluated in.
+     *
+     * @return the time-zone of this cursor
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Moves this cursor to the supplied time. Any fraction of second is discarded.
+     *
+     * @param epochMillis the new position of the cursor, as milliseconds since the epoch
+     * @return a reference to this object
+     */
+    public OccurrenceCursor moveTo(long epochMillis) {
+        epochSecond = Math.floorDiv(epochMillis, 1000L);
+        if (!isOffsetValid(epochSecond)) {
+            updateOffset(epochSecond);
+        }
+        fields.setLocalEpochSecond(epochSecond + offset);
+        return this;
+    }
+
+    /**
+     * Moves this cursor to the next occurrence of the CRON expression, strictly after its current position.
+     * <p/>
+     * If no next occurrence can be found, this method returns {@code false} and the position of the cursor is
+     * undefined until {@link #moveTo(long)} is called.
+     *
+     * @param cron the CRON expression to use to evaluate
+     * @return {@code true} if the cursor was moved to the next occurrence, {@code false} if there is none
+     * @throws NullPointerException if the supplied expression is {@code null}
+     */
+    public boolean next(CronExpression cron) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+        fields.nextSecond();
+        while (ZonedCronPredictor.moveToNext(cron, fields)) {
+            long local = fields.toLocalEpochSecond();
+            if (replaysOverlap(local)) {
+                // go on with the local times repeated after the transition
+                long transition = offsetUntil;
+                updateOffset(transition);
+                fields.setLocalEpochSecond(transition + offset);
+                continue;
+            }
+
+            long candidate = local - offset;
+            if (isOffsetValid(candidate)) {
+                epochSecond = candidate;
+                return true;
+            }
+
+            ZoneOffsetTransition transition = rules.getTransition(fields.toLocalDateTime());
+            if (transition != null && transition.isGap() && gapPolicy == GapPolicy.SKIP) {
+                // go on after the gap
+                updateOffset(transition.toEpochSecond());
+                fields.setLocalEpochSecond(transition.toEpochSecond() + offset);
+                continue;
+            }
+            epochSecond = resolve(local, transition);
+            updateOffset(epochSecond);
+            // the local time may have been shifted by a gap
+            fields.setLocalEpochSecond(epochSecond + offset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Tests whether a local time found when moving forwards lies beyond the local times to use before the overlap
+     * ending the cached period, if any.
+     */
+    private boolean replaysOverlap(long localEpochSecond) {
+        switch (overlapPolicy) {
+        case LATER:
+            // none of the repeated local times is used before the transition
+            return localEpochSecond >= nextOverlapFrom;
+        case BOTH:
+            // all of them are
+            return nextOverlapFrom != Long.MAX_VALUE && localEpochSecond - offset >= offsetUntil;
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Moves this cursor to the previous occurrence of the CRON expression, strictly before its current position.
+     * <p/>
+     * Local times are resolved as {@link #next(CronExpression)} would, so that searching in either direction gives the
+     * same occurrences. In particular, a forward search resolves only the first local time of a gap, then goes on from
+     * the resolved time: the other local times of the gap, and with {@link GapPolicy#SHIFT} the local times after the
+     * gap preceding the shifted occurrence, are never reached and are not occurrences either way.
+     * <p/>
+     * If no previous occurrence can be found, this method returns {@code false} and the position of the cursor is
+     * undefined until {@link #moveTo(long)} is called.
+     *
+     * @param cron the CRON expression to use to evaluate
+     * @return {@code true} if the cursor was moved to the previous occurrence, {@code false} if there is none
+     * @throws NullPointerException if the supplied expression is {@code null}
+     */
+    public boolean previous(CronExpression cron) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+        final long limit = epochSecond;
+        fields.previousSecond();
+        while (ZonedCronPredictor.moveToPrevious(cron, fields)) {
+            long local = fields.toLocalEpochSecond();
+            long candidate = local - offset;
+            if (overlapPolicy == OverlapPolicy.BOTH && overlapUntil != Long.MIN_VALUE && candidate < offsetFrom) {
+                // go on with the local times as they were before the transition starting the cached period
+                long transition = offsetFrom;
+                updateOffset(transition - 1);
+                fields.setLocalEpochSecond(transition - 1 + offset);
+                continue;
+            } else if (overlapPolicy == OverlapPolicy.LATER && local >= nextOverlapFrom) {
+                // local times which will be repeated after the next transition
+                fields.setLocalEpochSecond(nextOverlapFrom - 1);
+                continue;
+            }
+
+            if (isOffsetValid(candidate) && isShadowedByGap(candidate)) {
+                // a forward search jumps from the gap to its shifted occurrence, over this local time
+                long shifted = gapOccurrence(cron, startingGap);
+                // nothing is jumped over if no local time of the gap matches
+                if (shifted != Long.MAX_VALUE && candidate < shifted) {
+                    if (shifted >= limit) {
+                        skipGap(startingGap);
+                        continue;
+                    }
+                    candidate = shifted;
+                }
+            } else if (!isOffsetValid(candidate)
+                    || overlapPolicy == OverlapPolicy.EARLIER && candidate < overlapUntil) {
+                ZoneOffsetTransition transition = rules.getTransition(fields.toLocalDateTime());
+                if (transition != null && transition.isGap()) {
+                    // the whole gap stands for a single occurrence at most
+                    candidate = gapOccurrence(cron, transition);
+                    if (candidate >= limit) {
+                        skipGap(transition);
+                        continue;
+                    }
+                } else {
+                    candidate = resolveEarliest(local, transition);
+                }
+            }
+
+            if (candidate < limit) {
+                epochSecond = candidate;
+                if (!isOffsetValid(candidate)) {
+                    updateOffset(candidate);
+                }
+                fields.setLocalEpochSecond(epochSecond + offset);
+                return true;
+            }
+            // a local time shifted forward by a gap, beyond the starting point
+            fields.previousSecond();
+        }
+        return false;
+    }
+
+    /**
+     * Tests whether a valid time may be jumped over by a forward search resolving the gap starting the cached period,
+     * which only happens with {@link GapPolicy#SHIFT} within the length of the gap after the transition.
+     */
+    private boolean isShadowedByGap(long epochSecond) {
+        return startingGap != null && gapPolicy == GapPolicy.SHIFT
+                && epochSecond < offsetFrom + offset - startingGap.getOffsetBefore().getTotalSeconds();
+    }
+
+    /**
+     * Returns the occurrence a forward search finds for the local times of a gap: the first of them which matches the
+     * CRON expression, resolved according to the gap policy.
+     *
+     * @return the occurrence as an epoch second, {@link Long#MAX_VALUE} if there is none
+     */
+    private long gapOccurrence(CronExpression cron, ZoneOffsetTransition gap) {
+        if (gapPolicy == GapPolicy.SKIP) {
+            return Long.MAX_VALUE;
+        }
+        int before = gap.getOffsetBefore().getTotalSeconds();
+        scratch.setLocalEpochSecond(gap.toEpochSecond() + before);
+        if (!ZonedCronPredictor.moveToNext(cron, scratch)
+                || scratch.toLocalEpochSecond() >= gap.toEpochSecond() + gap.getOffsetAfter().getTotalSeconds()) {
+            return Long.MAX_VALUE;
+        }
+        return gapPolicy == GapPolicy.NEXT_VALID ? gap.toEpochSecond() : scratch.toLocalEpochSecond() - before;
+    }
+
+    /**
+     * Moves the fields to the last local time before a gap, with the offset in use before it.
+     */
+    private void skipGap(ZoneOffsetTransition gap) {
+        updateOffset(gap.toEpochSecond() - 1);
+        fields.setLocalEpochSecond(gap.toEpochSecond() - 1 + offset);
+    }
+
+    /**
+     * Returns the current position of this cursor.
+     *
+     * @return the position of the cursor, as milliseconds since the epoch
+     */
+    public long getEpochMillis() {
+        return epochSecond * 1000L;
+    }
+
+    private boolean isOffsetValid(long epochSecond) {
+        return offsetFrom <= epochSecond && epochSecond < offsetUntil;
+    }
+
+    private void updateOffset(long epochSecond) {
+        Instant instant = Instant.ofEpochSecond(epochSecond);
+        offset = rules.getOffset(instant).getTotalSeconds();
+        if (rules.isFixedOffset()) {
+            offsetFrom = Long.MIN_VALUE;
+            offsetUntil = Long.MAX_VALUE;
+            overlapUntil = Long.MIN_VALUE;
+            nextOverlapFrom = Long.MAX_VALUE;
+            startingGap = null;
+        } else {
+            // the transition starting the current period may be exactly at the supplied instant
+            ZoneOffsetTransition previous = rules.previousTransition(instant.plusSeconds(1));
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            offsetFrom = previous == null ? Long.MIN_VALUE : previous.toEpochSecond();
+            offsetUntil = next == null ? Long.MAX_VALUE : next.toEpochSecond();
+            overlapUntil = previous == null || previous.isGap() ? Long.MIN_VALUE
+                    : offsetFrom + previous.getOffsetBefore().getTotalSeconds() - offset;
+            nextOverlapFrom = next == null || next.isGap() ? Long.MAX_VALUE
+                    : offsetUntil + next.getOffsetAfter().getTotalSeconds();
+            startingGap = previous != null && previous.isGap() ? previous : null;
+        }
+    }
+
+    /**
+     * Resolves a local time for a backward search, which reaches the earlier offset of an overlap first.
+     */
+    private long resolveEarliest(long localEpochSecond, ZoneOffsetTransition transition) {
+        if (transition == null) {
+            return localEpochSecond - rules.getOffset(fields.toLocalDateTime()).getTotalSeconds();
+        } else if (transition.isOverlap() && overlapPolicy != OverlapPolicy.EARLIER) {
+            // the later offset: the earlier one is only reached once the search has crossed the transition
+            return localEpochSecond - transition.getOffsetAfter().getTotalSeconds();
+        }
+        // shifted forward by the length of a gap, or the earlier offset of an overlap
+        return localEpochSecond - transition.getOffsetBefore().getTotalSeconds();
+    }
+
+    /**
+     * Resolves a local time for a forward search.
+     */
+    private long resolve(long localEpochSecond, ZoneOffsetTransition transition) {
+        if (transition == null) {
+            return localEpochSecond - rules.getOffset(fields.toLocalDateTime()).getTotalSeconds();
+        } else if (transition.isGap()) {
+            // shift forward by the length of the gap, or to its end
+            return gapPolicy == GapPolicy.NEXT_VALID ? transition.toEpochSecond()
+                    : localEpochSecond - transition.getOffsetBefore().getTotalSeconds();
+        } else if (overlapPolicy == OverlapPolicy.LATER) {
+            return localEpochSecond - transition.getOffsetAfter().getTotalSeconds();
+        } else {
+            // overlap: keep the current offset if it is one of the transition's, the earlier one otherwise; an offset
+            // cached from another period says nothing about this transition
+            long instant = transition.toEpochSecond();
+            boolean adjacent = offsetUntil == instant || offsetFrom == instant;
+            return localEpochSecond - (adjacent ? offset : transition.getOffsetBefore().getTotalSeconds());
+        }
+    }
+}
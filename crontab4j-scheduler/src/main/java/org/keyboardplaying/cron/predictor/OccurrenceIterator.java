@@ -0,0 +1,106 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.ZoneId;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * A lazy iterator over the occurrences of a CRON expression within a range, as milliseconds since the epoch.
+ * <p/>
+ * The iterator relies on an {@link OccurrenceCursor}: each occurrence is computed from the previous one, carrying the
+ * date-time fields forward rather than restarting the search from scratch, and no garbage is produced as long as the
+ * values are consumed through {@link #nextLong()}.
+ * <p/>
+ * Instances are not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class OccurrenceIterator implements PrimitiveIterator.OfLong {
+
+    private static final int CHARACTERISTICS = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED
+            | Spliterator.NONNULL | Spliterator.IMMUTABLE;
+
+    private final CronExpression cron;
+    private final long toEpochMillis;
+    private final OccurrenceCursor cursor;
+    // whether the cursor is positioned on an occurrence which has not been returned yet
+    private boolean ready;
+    private boolean exhausted;
+
+    /**
+     * Creates a new iterator.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the start of the range, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the range, inclusive, as milliseconds since the epoch; use
+     *                        {@link Long#MAX_VALUE} for an unbounded range
+     * @param zone            the time-zone to evaluate the CRON expression in
+     * @throws NullPointerException if the supplied expression or time-zone is {@code null}
+     */
+    public OccurrenceIterator(CronExpression cron, long fromEpochMillis, long toEpochMillis, ZoneId zone) {
+        this(cron, fromEpochMillis, toEpochMillis, ZonePolicy.of(zone));
+    }
+
+    /**
+     * Creates a new iterator, resolving the local times around time-zone transitions according to a policy.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the start of the range, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the range, inclusive, as milliseconds since the epoch; use
+     *                        {@link Long#MAX_VALUE} for an unbounded range
+     * @param policy          the time-zone to evaluate the CRON expression in, and how gaps and overlaps are resolved
+     * @throws NullPointerException if the supplied expression or policy is {@code null}
+     */
+    public OccurrenceIterator(CronExpression cron, long fromEpochMillis, long toEpochMillis, ZonePolicy policy) {
+        this.cron = Objects.requireNonNull(cron, "A CRON must be supplied");
+        this.toEpochMillis = toEpochMillis;
+        this.cursor = new OccurrenceCursor(policy).moveTo(fromEpochMillis);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (!ready && !exhausted) {
+            if (cursor.next(cron) && cursor.getEpochMillis() <= toEpochMillis) {
+                ready = true;
+            } else {
+                exhausted = true;
+            }
+        }
+        return ready;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.PrimitiveIterator.OfLong#nextLong()
+     */
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ready = false;
+        return cursor.getEpochMillis();
+    }
+
+    /**
+     * Returns a sequential stream of the remaining occurrences, backed by this iterator.
+     *
+     * @return the remaining occurrences, as milliseconds since the epoch
+     */
+    public LongStream stream() {
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(this, CHARACTERISTICS), false);
+    }
+}
@@ -0,0 +1,56 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * Common interface for the objects able to compute the next time a CRON expression should be triggered.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public interface OccurrencePredictor {
+
+    /**
+     * Returns the next time the CRON expression will be triggered after the supplied time.
+     * <p/>
+     * The CRON expression is evaluated in the time-zone of the supplied time. If the supplied time is {@code null},
+     * current time in the default time-zone will be used instead.
+     *
+     * @param cron the CRON expression to use to evaluate
+     * @param from the time base for searching next occurrence
+     * @return the next time the expression will be triggered, or {@code null} if no next occurrence can be found
+     * @throws NullPointerException if the supplied expression is {@code null}
+     */
+    ZonedDateTime predictNext(CronExpression cron, ZonedDateTime from);
+
+    /**
+     * Returns the occurrences of the CRON expression within a range, in chronological order.
+     * <p/>
+     * The stream is lazy: occurrences are computed as they are consumed, so that an unbounded range can be used as
+     * long as the stream is short-circuited (e.g. with {@link Stream#limit(long)}).
+     * <p/>
+     * This default implementation calls {@link #predictNext(CronExpression, ZonedDateTime)} for each occurrence.
+     *
+     * @param cron the CRON expression to use to evaluate
+     * @param from the start of the range, exclusive
+     * @param to   the end of the range, inclusive, or {@code null} for an unbounded range
+     * @param zone the time-zone to evaluate the CRON expression in
+     * @return the occurrences of the expression within the range
+     * @throws NullPointerException if the supplied expression, start or time-zone is {@code null}
+     */
+    default Stream<Instant> occurrences(CronExpression cron, Instant from, Instant to, ZoneId zone) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+        Objects.requireNonNull(from);
+        Objects.requireNonNull(zone);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(new PredictingIterator(this, cron, from, to,
+                zone), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.SORTED | Spliterator.NONNULL), false);
+    }
+}
@@ -0,0 +1,189 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * The merged, chronological timeline of the occurrences of several CRON expressions within a window.
+ * <p/>
+ * Each expression is given a weight, typically the number of jobs it triggers, and may be evaluated in its own
+ * time-zone. The timeline is a k-way merge of one
+ * {@link OccurrenceIterator} per expression, kept in a heap ordered by their next occurrence: it is computed lazily,
+ * in memory proportional to the number of expressions whatever the length of the window, and each instant is visited
+ * once with the total weight of the expressions occurring at it.
+ * <p/>
+ * Usage:
+ *
+ * <pre>
+ * OccurrenceTimeline timeline = new OccurrenceTimeline(weights, from, to, zone);
+ * while (timeline.next()) {
+ *     // timeline.getFirings() jobs fire at timeline.getEpochMillis()
+ * }
+ * </pre>
+ * <p/>
+ * Instances are not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class OccurrenceTimeline {
+
+    private final long fromEpochMillis;
+    private final long toEpochMillis;
+    private final PriorityQueue<Source> heap;
+
+    private long epochMillis;
+    private long firings;
+
+    /**
+     * Creates a new timeline.
+     *
+     * @param weights         the expressions to merge, with their weights
+     * @param fromEpochMillis the start of the window, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the window, inclusive, as milliseconds since the epoch
+     * @param zone            the time-zone to evaluate the CRON expressions in
+     * @throws NullPointerException     if the supplied map or time-zone is {@code null}
+     * @throws IllegalArgumentException if the window ends before it starts
+     */
+    public OccurrenceTimeline(Map<CronExpression, Integer> weights, long fromEpochMillis, long toEpochMillis,
+            ZoneId zone) {
+        this(fromEpochMillis, toEpochMillis);
+        ZonePolicy policy = ZonePolicy.of(zone);
+        for (Map.Entry<CronExpression, Integer> entry : weights.entrySet()) {
+            add(entry.getKey(), entry.getValue(), policy);
+        }
+    }
+
+    /**
+     * Creates a new timeline, without any expression.
+     *
+     * @param fromEpochMillis the start of the window, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the window, inclusive, as milliseconds since the epoch
+     * @throws IllegalArgumentException if the window ends before it starts
+     * @see #add(CronExpression, int, ZonePolicy)
+     */
+    public OccurrenceTimeline(long fromEpochMillis, long toEpochMillis) {
+        if (toEpochMillis < fromEpochMillis) {
+            throw new IllegalArgumentException("The window must not end before it starts");
+        }
+        this.fromEpochMillis = fromEpochMillis;
+        this.toEpochMillis = toEpochMillis;
+        this.heap = new PriorityQueue<>();
+    }
+
+    /**
+     * Adds an expression to this timeline. Expressions must be added before the timeline is moved.
+     *
+     * @param cron   the expression
+     * @param weight the weight of the expression
+     * @param policy the time-zone to evaluate the expression in, and how gaps and overlaps are resolved
+     * @return a reference to this object
+     * @throws NullPointerException if the supplied expression or policy is {@code null}
+     */
+    public OccurrenceTimeline add(CronExpression cron, int weight, ZonePolicy policy) {
+        Source source = new Source(new OccurrenceIterator(cron, fromEpochMillis, toEpochMillis, policy), weight);
+        if (source.advance()) {
+            heap.add(source);
+        }
+        return this;
+    }
+
+    /**
+     * Moves to the next instant at which at least one of the expressions occurs.
+     *
+     * @return {@code true} if the timeline was moved, {@code false} if there is no more occurrence within the window
+     */
+    public boolean next() {
+        Source head = heap.peek();
+        if (head == null) {
+            return false;
+        }
+        epochMillis = head.current;
+        firings = 0L;
+        while (head != null && head.current == epochMillis) {
+            heap.poll();
+            firings += head.weight;
+            if (head.advance()) {
+                heap.add(head);
+            }
+            head = heap.peek();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current instant of the timeline.
+     *
+     * @return the current instant, as milliseconds since the epoch
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+
+    /**
+     * Returns the total weight of the expressions occurring at the current instant.
+     *
+     * @return the number of firings at the current instant
+     */
+    public long getFirings() {
+        return firings;
+    }
+
+    /**
+     * Consumes the rest of the timeline, summing the firings in buckets of the supplied duration.
+     * <p/>
+     * The bucket {@code i} holds the firings after {@code i * bucketMillis} from the start of the window, up to
+     * {@code (i + 1) * bucketMillis} included. The last bucket stops at the end of the window.
+     *
+     * @param bucketMillis the duration of a bucket, in milliseconds (e.g. {@code 60000} for one bucket per minute)
+     * @return the number of firings per bucket
+     * @throws IllegalArgumentException if the duration of a bucket is not strictly positive, or if the window holds
+     *                                  too many buckets
+     */
+    public long[] countPerBucket(long bucketMillis) {
+        if (bucketMillis <= 0) {
+            throw new IllegalArgumentException("The duration of a bucket must be strictly positive");
+        }
+        long length = (toEpochMillis - fromEpochMillis + bucketMillis - 1) / bucketMillis;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many buckets: " + length);
+        }
+        long[] buckets = new long[(int) length];
+        while (next()) {
+            buckets[(int) ((epochMillis - fromEpochMillis - 1) / bucketMillis)] += firings;
+        }
+        return buckets;
+    }
+
+    /**
+     * The occurrences of a single expression, ordered by their current occurrence.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class Source implements Comparable<Source> {
+
+        private final OccurrenceIterator occurrences;
+        private final int weight;
+        private long current;
+
+        Source(OccurrenceIterator occurrences, int weight) {
+            this.occurrences = occurrences;
+            this.weight = weight;
+        }
+
+        boolean advance() {
+            if (occurrences.hasNext()) {
+                current = occurrences.nextLong();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int compareTo(Source other) {
+            return Long.compare(current, other.current);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.keyboardplaying.cron.predictor;
+
+/**
+ * What becomes of the occurrences of a CRON expression whose local time happens twice because of a time-zone transition
+ * (e.g. from 3:00 back to 2:00 when daylight saving time ends).
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see ZonePolicy
+ */
+public enum OverlapPolicy {
+    /**
+     * The occurrence happens once, with the offset in use before the transition. This is the default.
+     */
+    EARLIER,
+    /**
+     * The occurrence happens once, with the offset in use after the transition.
+     */
+    LATER,
+    /**
+     * The occurrence happens twice, once with each offset.
+     */
+    BOTH
+}
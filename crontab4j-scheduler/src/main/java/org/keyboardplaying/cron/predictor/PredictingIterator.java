@@ -0,0 +1,76 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * An iterator over the occurrences of a CRON expression within a range, calling
+ * {@link OccurrencePredictor#predictNext(CronExpression, ZonedDateTime)} for each of them.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see OccurrencePredictor#occurrences(CronExpression, Instant, Instant, ZoneId)
+ */
+// package-restricted
+final class PredictingIterator implements Iterator<Instant> {
+
+    private final OccurrencePredictor predictor;
+    private final CronExpression cron;
+    private final Instant to;
+    private ZonedDateTime current;
+    private Instant next;
+    private boolean exhausted;
+
+    /**
+     * Creates a new iterator.
+     *
+     * @param predictor the predictor computing the occurrences
+     * @param cron      the CRON expression to use to evaluate
+     * @param from      the start of the range, exclusive
+     * @param to        the end of the range, inclusive, or {@code null} for an unbounded range
+     * @param zone      the time-zone to evaluate the CRON expression in
+     */
+    PredictingIterator(OccurrencePredictor predictor, CronExpression cron, Instant from, Instant to, ZoneId zone) {
+        this.predictor = predictor;
+        this.cron = cron;
+        this.to = to;
+        this.current = from.atZone(zone);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.Iterator#hasNext()
+     */
+    @Override
+    public boolean hasNext() {
+        if (next == null && !exhausted) {
+            current = predictor.predictNext(cron, current);
+            if (current != null && (to == null || !current.toInstant().isAfter(to))) {
+                next = current.toInstant();
+            } else {
+                exhausted = true;
+            }
+        }
+        return next != null;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.Iterator#next()
+     */
+    @Override
+    public Instant next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Instant result = next;
+        next = null;
+        return result;
+    }
+}
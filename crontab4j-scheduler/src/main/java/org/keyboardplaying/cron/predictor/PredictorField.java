@@ -4,6 +4,7 @@ import java.util.Calendar;
 
 import org.keyboardplaying.cron.expression.CronExpression;
 import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
 import org.keyboardplaying.cron.expression.rule.CronRule;
 
 // TODO Javadoc
@@ -17,16 +18,26 @@ enum PredictorField {
     //
     DAY {
 
+        private final CronRule anyDay = new AnyValueRule();
+
         private FieldShifter dowShifter = new FieldShifter(Calendar.DAY_OF_WEEK, 1, 7, ordinal()) {
             @Override
             public Calendar shift(Calendar cal, CronExpression cron, Field exprField) {
-                CronRule rule = cron.get(exprField);
+                CronRule rule = cron.getCompiled(exprField);
                 Calendar next = resetLowers((Calendar) cal.clone());
 
-                // at most 7 iterations
-                do {
-                    next.add(Calendar.DATE, 1);
-                } while (!rule.allows(next.get(Calendar.DAY_OF_WEEK)));
+                // jump directly to the next allowed day of week, possibly in the following week
+                int dow = next.get(Calendar.DAY_OF_WEEK);
+                int target = rule.nextAllowed(dow + 1);
+                if (target < 0) {
+                    target = rule.nextAllowed(Calendar.SUNDAY);
+                    if (target < 0) {
+                        // no day of week is allowed
+                        return null;
+                    }
+                    target += 7;
+                }
+                next.add(Calendar.DATE, target - dow);
 
                 // The month may have shifted, ensure the constraints are still OK
                 if (next.get(Calendar.MONTH) != cal.get(Calendar.MONTH) && !MONTH.allows(next, cron)
@@ -78,6 +89,9 @@ enum PredictorField {
             switch (cron.getDayConstraint()) {
 
                 case NONE:
+                    next = domShifter.shift(cal, cron, anyDay);
+                    break;
+
                 case MONTH:
                     next = shiftDayOfMonth(cal, cron);
                     break;
@@ -101,7 +115,7 @@ enum PredictorField {
                     break;
 
                 case BOTH_AND:
-                    final CronRule dowRule = cron.get(Field.DAY_OF_WEEK);
+                    final CronRule dowRule = cron.getCompiled(Field.DAY_OF_WEEK);
                     next = cal;
                     do {
                         next = shiftDayOfMonth(next, cron);
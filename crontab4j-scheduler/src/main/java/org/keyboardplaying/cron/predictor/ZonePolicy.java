@@ -0,0 +1,113 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.ZoneId;
+import java.util.Objects;
+
+/**
+ * The time-zone a CRON expression is evaluated in, together with how its local times are resolved around the
+ * transitions of that time-zone.
+ * <p/>
+ * Instances are immutable and can be safely shared between threads.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class ZonePolicy {
+
+    private final ZoneId zone;
+    private final GapPolicy gap;
+    private final OverlapPolicy overlap;
+
+    private ZonePolicy(ZoneId zone, GapPolicy gap, OverlapPolicy overlap) {
+        this.zone = zone;
+        this.gap = gap;
+        this.overlap = overlap;
+    }
+
+    /**
+     * Returns the policy of a time-zone, with the default {@link GapPolicy#SHIFT} and {@link OverlapPolicy#EARLIER}.
+     *
+     * @param zone the time-zone
+     * @return the policy
+     * @throws NullPointerException if {@code zone} is {@code null}
+     */
+    public static ZonePolicy of(ZoneId zone) {
+        return of(zone, GapPolicy.SHIFT, OverlapPolicy.EARLIER);
+    }
+
+    /**
+     * Returns the policy of a time-zone.
+     *
+     * @param zone    the time-zone
+     * @param gap     what becomes of the local times skipped by a transition
+     * @param overlap what becomes of the local times repeated by a transition
+     * @return the policy
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public static ZonePolicy of(ZoneId zone, GapPolicy gap, OverlapPolicy overlap) {
+        return new ZonePolicy(Objects.requireNonNull(zone), Objects.requireNonNull(gap),
+                Objects.requireNonNull(overlap));
+    }
+
+    /**
+     * Returns the time-zone.
+     *
+     * @return the time-zone
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Returns what becomes of the local times skipped by a transition.
+     *
+     * @return the gap policy
+     */
+    public GapPolicy getGap() {
+        return gap;
+    }
+
+    /**
+     * Returns what becomes of the local times repeated by a transition.
+     *
+     * @return the overlap policy
+     */
+    public OverlapPolicy getOverlap() {
+        return overlap;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        } else if (!(obj instanceof ZonePolicy)) {
+            return false;
+        }
+        ZonePolicy other = (ZonePolicy) obj;
+        return zone.equals(other.zone) && gap == other.gap && overlap == other.overlap;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return (zone.hashCode() * 31 + gap.hashCode()) * 31 + overlap.hashCode();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return zone + " (gap: " + gap + ", overlap: " + overlap + ")";
+    }
+}
@@ -0,0 +1,420 @@
+package org.keyboardplaying.cron.predictor;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+
+/**
+ * A {@link java.util.Calendar}-free implementation of {@link OccurrencePredictor}.
+ * <p/>
+ * The search is performed on primitive date-time fields, jumping from one allowed value to the next on each field, so
+ * that no date object is created or recomputed until the result is known. The result is then resolved in the
+ * time-zone of the time base. By default, local times falling in a daylight saving gap are shifted forward by the
+ * length of the gap, as a lenient {@link java.util.Calendar} would, and local times falling in an overlap happen once,
+ * with the earlier offset; other policies may be specified when creating the predictor.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ZonedCronPredictor implements OccurrencePredictor {
+
+    /**
+     * The value returned by {@link #nextEpochMillis(CronExpression, long, ZoneId)} when no next occurrence can be
+     * found.
+     */
+    public static final long NO_OCCURRENCE = Long.MIN_VALUE;
+
+    private final GapPolicy gap;
+    private final OverlapPolicy overlap;
+
+    /**
+     * Creates a new predictor, with the default resolution of gaps and overlaps.
+     */
+    public ZonedCronPredictor() {
+        this(GapPolicy.SHIFT, OverlapPolicy.EARLIER);
+    }
+
+    /**
+     * Creates a new predictor.
+     *
+     * @param gap     what becomes of the local times skipped by a time-zone transition
+     * @param overlap what becomes of the local times repeated by a time-zone transition
+     * @throws NullPointerException if any argument is {@code null}
+     */
+    public ZonedCronPredictor(GapPolicy gap, OverlapPolicy overlap) {
+        this.gap = Objects.requireNonNull(gap);
+        this.overlap = Objects.requireNonNull(overlap);
+    }
+
+    /**
+     * Returns the policy this predictor applies in the supplied time-zone.
+     *
+     * @param zone the time-zone
+     * @return the policy in the time-zone
+     */
+    private ZonePolicy getPolicy(ZoneId zone) {
+        return ZonePolicy.of(zone, gap, overlap);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.predictor.OccurrencePredictor#predictNext(org.keyboardplaying.cron.expression
+     * .CronExpression, java.time.ZonedDateTime)
+     */
+    @Override
+    public ZonedDateTime predictNext(CronExpression cron, ZonedDateTime from) {
+        Objects.requireNonNull(cron, "A CRON must be supplied");
+
+        ZonedDateTime base = from == null ? ZonedDateTime.now() : from;
+        if (gap != GapPolicy.SHIFT || overlap != OverlapPolicy.EARLIER) {
+            long next = nextEpochMillis(cron, base.toInstant().toEpochMilli(), base.getZone());
+            return next == NO_OCCURRENCE ? null : Instant.ofEpochMilli(next).atZone(base.getZone());
+        }
+
+        DateTimeFields fields = new DateTimeFields().set(base.toLocalDateTime());
+        // next occurrence won't be before next second
+        fields.nextSecond();
+
+        if (!moveToNext(cron, fields)) {
+            return null;
+        }
+        // ZonedDateTime shifts gaps and prefers the earlier offset of an overlap, whatever the offset of the time base
+        ZonedDateTime next = ZonedDateTime.ofLocal(fields.toLocalDateTime(), base.getZone(), null);
+        // unless the search started after the transition, when the earlier instant is already past
+        return next.isAfter(base) ? next : next.withLaterOffsetAtOverlap();
+    }
+
+    /**
+     * Returns the next time the CRON expression will be triggered after the supplied time.
+     * <p/>
+     * This method creates no date object, but allocates a short-lived {@link OccurrenceCursor} on each call. When
+     * computing many occurrences in a row, prefer reusing a cursor, which produces no garbage at all.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the time base for searching next occurrence, as milliseconds since the epoch
+     * @param zone            the time-zone to evaluate the CRON expression in
+     * @return the next time the expression will be triggered as milliseconds since the epoch, or
+     * {@link #NO_OCCURRENCE} if no next occurrence can be found
+     * @throws NullPointerException if the supplied expression or time-zone is {@code null}
+     */
+    public long nextEpochMillis(CronExpression cron, long fromEpochMillis, ZoneId zone) {
+        OccurrenceCursor cursor = new OccurrenceCursor(getPolicy(zone)).moveTo(fromEpochMillis);
+        return cursor.next(cron) ? cursor.getEpochMillis() : NO_OCCURRENCE;
+    }
+
+    /**
+     * Returns the last time the CRON expression was triggered before the supplied time.
+     * <p/>
+     * The search jumps from one allowed value to the previous on each field, as
+     * {@link #predictNext(CronExpression, ZonedDateTime)} does forwards. Local times are resolved as they would be
+     * when searching forwards, so that both searches agree on the occurrences of the expression.
+     * <p/>
+     * If the supplied time is {@code null}, current time in the default time-zone will be used instead.
+     *
+     * @param cron the CRON expression to use to evaluate
+     * @param from the time base for searching previous occurrence (exclusive)
+     * @return the last time the expression was triggered, or {@code null} if no previous occurrence can be found
+     * @throws NullPointerException if the supplied expression is {@code null}
+     */
+    public ZonedDateTime predictPrevious(CronExpression cron, ZonedDateTime from) {
+        ZonedDateTime base = from == null ? ZonedDateTime.now() : from;
+        // round sub-milliseconds up, so that an occurrence just before the supplied time is not missed
+        long fromEpochMillis = base.toInstant().toEpochMilli() + (base.getNano() % 1_000_000 == 0 ? 0 : 1);
+        long previous = previousEpochMillis(cron, fromEpochMillis, base.getZone());
+        return previous == NO_OCCURRENCE ? null : Instant.ofEpochMilli(previous).atZone(base.getZone());
+    }
+
+    /**
+     * Returns the last time the CRON expression was triggered before the supplied time.
+     * <p/>
+     * This method creates no date object unless a time-zone transition has to be looked up, but allocates a
+     * short-lived {@link OccurrenceCursor} on each call, like {@link #nextEpochMillis(CronExpression, long, ZoneId)}.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the time base for searching previous occurrence (exclusive), as milliseconds since the
+     *                        epoch
+     * @param zone            the time-zone to evaluate the CRON expression in
+     * @return the last time the expression was triggered as milliseconds since the epoch, or {@link #NO_OCCURRENCE}
+     * if no previous occurrence can be found
+     * @throws NullPointerException if the supplied expression or time-zone is {@code null}
+     */
+    public long previousEpochMillis(CronExpression cron, long fromEpochMillis, ZoneId zone) {
+        // the cursor works on whole seconds: round up so that the current second is searched if it has begun
+        OccurrenceCursor cursor = new OccurrenceCursor(getPolicy(zone)).moveTo(fromEpochMillis + 999);
+        return cursor.previous(cron) ? cursor.getEpochMillis() : NO_OCCURRENCE;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.predictor.OccurrencePredictor#occurrences(org.keyboardplaying.cron.expression
+     * .CronExpression, java.time.Instant, java.time.Instant, java.time.ZoneId)
+     */
+    @Override
+    public Stream<Instant> occurrences(CronExpression cron, Instant from, Instant to, ZoneId zone) {
+        return occurrencesEpochMillis(cron, from.toEpochMilli(), to == null ? Long.MAX_VALUE : to.toEpochMilli(),
+                zone).mapToObj(Instant::ofEpochMilli);
+    }
+
+    /**
+     * Returns the occurrences of the CRON expression within a range, in chronological order, as milliseconds since
+     * the epoch.
+     * <p/>
+     * The stream is lazy and each occurrence is computed from the previous one, using an {@link OccurrenceIterator}.
+     * Unlike {@link #occurrences(CronExpression, Instant, Instant, ZoneId)}, no object is created per occurrence.
+     *
+     * @param cron            the CRON expression to use to evaluate
+     * @param fromEpochMillis the start of the range, exclusive
+     * @param toEpochMillis   the end of the range, inclusive; use {@link Long#MAX_VALUE} for an unbounded range
+     * @param zone            the time-zone to evaluate the CRON expression in
+     * @return the occurrences of the expression within the range
+     * @throws NullPointerException if the supplied expression or time-zone is {@code null}
+     */
+    public LongStream occurrencesEpochMillis(CronExpression cron, long fromEpochMillis, long toEpochMillis,
+            ZoneId zone) {
+        return new OccurrenceIterator(cron, fromEpochMillis, toEpochMillis, getPolicy(zone)).stream();
+    }
+
+    /**
+     * Moves the supplied fields to the first time matching the CRON expression, which may be the current value of
+     * the fields.
+     *
+     * @param cron   the CRON expression to use to evaluate
+     * @param fields the fields to update
+     * @return {@code true} if a matching time was found, {@code false} if there is none before the maximal year
+     */
+    static boolean moveToNext(CronExpression cron, DateTimeFields fields) {
+        final CronRule years = cron.getCompiled(Field.YEAR);
+        final CronRule months = cron.getCompiled(Field.MONTH);
+        final CronRule hours = cron.getCompiled(Field.HOUR);
+        final CronRule minutes = cron.getCompiled(Field.MINUTE);
+        final CronRule seconds = cron.getCompiled(Field.SECOND);
+
+        while (fields.year <= Field.YEAR.getMax()) {
+            int year = years.nextAllowed(fields.year);
+            if (year < 0 || year > Field.YEAR.getMax()) {
+                return false;
+            } else if (year != fields.year) {
+                fields.startOfYear(year);
+            }
+
+            // months are zero-based in the CRON expression
+            int month = months.nextAllowed(fields.month - 1) + 1;
+            if (month <= 0) {
+                fields.startOfYear(fields.year + 1);
+                continue;
+            } else if (month != fields.month) {
+                fields.startOfMonth(month);
+            }
+
+            int day = nextDay(cron, fields.year, fields.month, fields.day);
+            if (day < 0) {
+                fields.nextMonth();
+                continue;
+            } else if (day != fields.day) {
+                fields.startOfDay(day);
+            }
+
+            int hour = hours.nextAllowed(fields.hour);
+            if (hour < 0) {
+                fields.nextDay();
+                continue;
+            } else if (hour != fields.hour) {
+                fields.startOfHour(hour);
+            }
+
+            int minute = minutes.nextAllowed(fields.minute);
+            if (minute < 0) {
+                fields.nextHour();
+                continue;
+            } else if (minute != fields.minute) {
+                fields.startOfMinute(minute);
+            }
+
+            int second = seconds.nextAllowed(fields.second);
+            if (second < 0) {
+                fields.nextMinute();
+                continue;
+            }
+            fields.second = second;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Moves the supplied fields to the last time matching the CRON expression, which may be the current value of the
+     * fields.
+     *
+     * @param cron   the CRON expression to use to evaluate
+     * @param fields the fields to update
+     * @return {@code true} if a matching time was found, {@code false} if there is none after the minimal year
+     */
+    static boolean moveToPrevious(CronExpression cron, DateTimeFields fields) {
+        final CronRule years = cron.getCompiled(Field.YEAR);
+        final CronRule months = cron.getCompiled(Field.MONTH);
+        final CronRule hours = cron.getCompiled(Field.HOUR);
+        final CronRule minutes = cron.getCompiled(Field.MINUTE);
+        final CronRule seconds = cron.getCompiled(Field.SECOND);
+
+        while (fields.year >= Field.YEAR.getMin()) {
+            int year = years.previousAllowed(Math.min(fields.year, Field.YEAR.getMax()));
+            if (year < Field.YEAR.getMin()) {
+                return false;
+            } else if (year != fields.year) {
+                fields.endOfYear(year);
+            }
+
+            // months are zero-based in the CRON expression
+            int month = months.previousAllowed(fields.month - 1) + 1;
+            if (month <= 0) {
+                fields.endOfYear(fields.year - 1);
+                continue;
+            } else if (month != fields.month) {
+                fields.endOfMonth(month);
+            }
+
+            int day = previousDay(cron, fields.year, fields.month, fields.day);
+            if (day < 0) {
+                fields.endOfPreviousMonth();
+                continue;
+            } else if (day != fields.day) {
+                fields.endOfDay(day);
+            }
+
+            int hour = hours.previousAllowed(fields.hour);
+            if (hour < 0) {
+                fields.endOfPreviousDay();
+                continue;
+            } else if (hour != fields.hour) {
+                fields.endOfHour(hour);
+            }
+
+            int minute = minutes.previousAllowed(fields.minute);
+            if (minute < 0) {
+                fields.endOfPreviousHour();
+                continue;
+            } else if (minute != fields.minute) {
+                fields.endOfMinute(minute);
+            }
+
+            int second = seconds.previousAllowed(fields.second);
+            if (second < 0) {
+                fields.endOfPreviousMinute();
+                continue;
+            }
+            fields.second = second;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first day of the month, starting from the supplied one, which matches the day constraints of the
+     * CRON expression.
+     *
+     * @return the matching day, or {@code -1} if no day matches in the rest of the month
+     */
+    static int nextDay(CronExpression cron, int year, int month, int from) {
+        final int length = DateTimeFields.lengthOfMonth(year, month);
+        int day;
+        switch (cron.getDayConstraint()) {
+            case NONE:
+                day = from;
+                break;
+            case MONTH:
+                day = nextDayOfMonth(cron, from);
+                break;
+            case WEEK:
+                day = nextDayOfWeek(cron, year, month, from);
+                break;
+            case BOTH_OR:
+                int dom = nextDayOfMonth(cron, from);
+                int dow = nextDayOfWeek(cron, year, month, from);
+                day = dom < 0 || dow >= 0 && dow < dom ? dow : dom;
+                break;
+            case BOTH_AND:
+            default:
+                final CronRule dowRule = cron.getCompiled(Field.DAY_OF_WEEK);
+                day = nextDayOfMonth(cron, from);
+                while (day > 0 && day <= length && !dowRule.allows(DateTimeFields.dayOfWeek(year, month, day))) {
+                    day = nextDayOfMonth(cron, day + 1);
+                }
+        }
+        return day <= length ? day : -1;
+    }
+
+    /**
+     * Returns the last day of the month, starting from the supplied one and going backwards, which matches the day
+     * constraints of the CRON expression.
+     *
+     * @return the matching day, or {@code -1} if no day matches in the beginning of the month
+     */
+    static int previousDay(CronExpression cron, int year, int month, int from) {
+        final CronRule domRule = cron.getCompiled(Field.DAY_OF_MONTH);
+        int day;
+        switch (cron.getDayConstraint()) {
+            case NONE:
+                day = from;
+                break;
+            case MONTH:
+                day = domRule.previousAllowed(from);
+                break;
+            case WEEK:
+                day = previousDayOfWeek(cron, year, month, from);
+                break;
+            case BOTH_OR:
+                day = Math.max(domRule.previousAllowed(from), previousDayOfWeek(cron, year, month, from));
+                break;
+            case BOTH_AND:
+            default:
+                final CronRule dowRule = cron.getCompiled(Field.DAY_OF_WEEK);
+                day = domRule.previousAllowed(from);
+                while (day >= 1 && !dowRule.allows(DateTimeFields.dayOfWeek(year, month, day))) {
+                    day = domRule.previousAllowed(day - 1);
+                }
+        }
+        return day >= 1 ? day : -1;
+    }
+
+    private static int previousDayOfWeek(CronExpression cron, int year, int month, int from) {
+        final CronRule rule = cron.getCompiled(Field.DAY_OF_WEEK);
+        int dow = DateTimeFields.dayOfWeek(year, month, from);
+        int target = rule.previousAllowed(dow);
+        if (target < 0) {
+            // in the preceding week
+            target = rule.previousAllowed(Field.DAY_OF_WEEK.getMax());
+            if (target < 0) {
+                return -1;
+            }
+            target -= 7;
+        }
+        return from - (dow - target);
+    }
+
+    private static int nextDayOfMonth(CronExpression cron, int from) {
+        return cron.getCompiled(Field.DAY_OF_MONTH).nextAllowed(from);
+    }
+
+    private static int nextDayOfWeek(CronExpression cron, int year, int month, int from) {
+        final CronRule rule = cron.getCompiled(Field.DAY_OF_WEEK);
+        int dow = DateTimeFields.dayOfWeek(year, month, from);
+        int target = rule.nextAllowed(dow);
+        if (target < 0) {
+            // in the following week
+            target = rule.nextAllowed(Field.DAY_OF_WEEK.getMin());
+            if (target < 0) {
+                return -1;
+            }
+            target += 7;
+        }
+        return from + target - dow;
+    }
+}
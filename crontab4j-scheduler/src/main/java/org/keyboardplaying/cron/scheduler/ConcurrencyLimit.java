@@ -0,0 +1,215 @@
+package org.keyboardplaying.cron.scheduler;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import org.keyboardplaying.cron.scheduler.execution.DroppableJob;
+import org.keyboardplaying.cron.scheduler.execution.WrappedJob;
+
+/**
+ * Limits the number of instances of a job running at the same time, so that a job lasting longer than the interval
+ * between its occurrences does not pile up.
+ * <p/>
+ * The limit relies on a single atomic counter of the running and waiting instances: starting or ending an instance
+ * costs a single atomic operation when it is not contended, and no lock is ever taken.
+ * <p/>
+ * Each instance is handed over as a distinct {@link DroppableJob}, so that an instance the executor drops releases its
+ * slot. It is a {@link WrappedJob} too, so that an executor coalescing identical jobs merges the instances of the same
+ * job which are waiting in its queue.
+ * <p/>
+ * A waiting firing is run by the worker of the instance which ends, in the slot this instance releases, so that a
+ * worker never waits for room in the executor. It is dropped if the job it was fired for is no longer active by then.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+// package-restricted
+final class ConcurrencyLimit {
+
+    private final Runnable job;
+    private final Executor executor;
+    private final int maxConcurrent;
+    private final int maxState;
+    // the number of running instances, plus one if a firing waits for an instance to end
+    private final AtomicInteger state = new AtomicInteger();
+    // tells whether the waiting firing may still run, set before the firing is counted in the state
+    private final AtomicReference<BooleanSupplier> waiting = new AtomicReference<>();
+
+    /**
+     * Creates a new limit.
+     *
+     * @param job           the job to run
+     * @param executor      the executor running the job
+     * @param maxConcurrent the maximal number of instances running at the same time
+     * @param policy        what becomes of the firings beyond the limit
+     * @throws IllegalArgumentException if {@code maxConcurrent} is not strictly positive
+     */
+    ConcurrencyLimit(Runnable job, Executor executor, int maxConcurrent, OverrunPolicy policy) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException(
+                    "The maximal number of concurrent instances must be strictly positive, got " + maxConcurrent);
+        }
+        this.job = job;
+        this.executor = executor;
+        this.maxConcurrent = maxConcurrent;
+        this.maxState = policy == OverrunPolicy.QUEUE_ONE_BEHIND ? maxConcurrent + 1 : maxConcurrent;
+    }
+
+    /**
+     * Fires the job: hands it over to the executor if the limit allows it, makes it wait or drops it otherwise.
+     *
+     * @return {@code true} if the firing was handed over or is waiting, {@code false} if it was dropped because of the
+     *         limit
+     */
+    boolean fire() {
+        return fire(job, () -> true);
+    }
+
+    /**
+     * Fires a task standing for one instance of the job (e.g. the job run several times in a row): hands it over to
+     * the executor if the limit allows it, makes the job wait or drops the task otherwise. A waiting firing always
+     * runs the job itself, once, and only if the guard still allows it when an instance ends.
+     *
+     * @param task  the task to run in the slot of the instance
+     * @param guard tells whether the firing may still run if it has to wait
+     * @return {@code true} if the firing was handed over or is waiting, {@code false} if it was dropped because of the
+     *         limit
+     */
+    boolean fire(Runnable task, BooleanSupplier guard) {
+        while (true) {
+            int current = state.get();
+            if (current < maxConcurrent) {
+                if (state.compareAndSet(current, current + 1)) {
+                    submit(task);
+                    return true;
+                }
+            } else if (current < maxState && waiting.compareAndSet(null, guard)) {
+                if (state.compareAndSet(current, current + 1)) {
+                    // the last instance to end will run it
+                    return true;
+                }
+                // an instance ended meanwhile
+                waiting.set(null);
+            } else {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of instances currently running or waiting.
+     *
+     * @return the number of running instances, plus one if a firing is waiting
+     */
+    int getState() {
+        return state.get();
+    }
+
+    private void submit(Runnable task) {
+        try {
+            executor.execute(new Instance(task));
+        } catch (RejectedExecutionException e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the slot of an instance which ended, unless a firing was waiting and may still run.
+     *
+     * @return {@code true} if the waiting firing takes the slot over, {@code false} if the slot was released
+     */
+    private boolean handOver() {
+        while (state.getAndDecrement() > maxConcurrent) {
+            // a firing was waiting: it takes the slot just released, unless its job is no longer active
+            if (waiting.getAndSet(null).getAsBoolean()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Releases the slot of an instance which did not end normally, handing the waiting firing over to the executor.
+     */
+    private void release() {
+        if (handOver()) {
+            try {
+                submit(job);
+            } catch (RejectedExecutionException e) {
+                // the executor was shut down, the waiting firing is dropped
+            }
+        }
+    }
+
+    /**
+     * An instance of the job, holding a slot until it ends or the executor drops it.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private final class Instance implements DroppableJob, WrappedJob {
+
+        private final Runnable task;
+
+        Instance(Runnable task) {
+            this.task = task;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            // the waiting firings run in this worker, rather than through an executor which might be full
+            Runnable next = task;
+            RuntimeException failure = null;
+            boolean ended = false;
+            try {
+                do {
+                    try {
+                        next.run();
+                    } catch (RuntimeException e) {
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                    next = job;
+                } while (handOver());
+                ended = true;
+            } finally {
+                if (!ended) {
+                    release();
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.execution.WrappedJob#getJob()
+         */
+        @Override
+        public Runnable getJob() {
+            return job;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.execution.DroppableJob#dropped()
+         */
+        @Override
+        public void dropped() {
+            release();
+        }
+    }
+}
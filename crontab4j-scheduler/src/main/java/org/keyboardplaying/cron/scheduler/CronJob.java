@@ -1,7 +1,11 @@
 package org.keyboardplaying.cron.scheduler;
 
+import java.time.ZoneId;
 import java.util.Objects;
 
+import org.keyboardplaying.cron.predictor.GapPolicy;
+import org.keyboardplaying.cron.predictor.OverlapPolicy;
+
 /**
  * Object utility to represent a job that may be supplied to the scheduler.
  *
@@ -11,6 +15,14 @@ public class CronJob {
 
     private Runnable job;
     private String cron;
+    private String key;
+    private Jitter jitter;
+    private ZoneId zone;
+    private GapPolicy gapPolicy;
+    private OverlapPolicy overlapPolicy;
+    private MisfirePolicy misfirePolicy;
+    private int maxConcurrent;
+    private OverrunPolicy overrunPolicy;
 
     /**
      * Creates a new job.
@@ -68,4 +80,161 @@ public class CronJob {
     public void setCron(String cron) {
         this.cron = cron;
     }
+
+    /**
+     * Returns the key identifying this job, used to resolve the {@code H} tokens of its CRON and to derive the delay of
+     * a hash-based {@link Jitter}.
+     *
+     * @return the key of the job, or {@code null} if none was set
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Sets the key identifying this job.
+     * <p/>
+     * The key should be stable (e.g. the name of the job) for the {@code H} tokens and hash-based {@link Jitter}s to
+     * give the job the same values from one run of the application to the next.
+     *
+     * @param key the key of the job
+     */
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns the jitter delaying the firings of this job.
+     *
+     * @return the jitter of the job, or {@code null} to use the one of the scheduler
+     */
+    public Jitter getJitter() {
+        return jitter;
+    }
+
+    /**
+     * Sets the jitter delaying the firings of this job, overriding the one of the scheduler.
+     *
+     * @param jitter the jitter of the job
+     */
+    public void setJitter(Jitter jitter) {
+        this.jitter = jitter;
+    }
+
+    /**
+     * Returns the time-zone the CRON expression of this job is evaluated in.
+     *
+     * @return the time-zone of the job, or {@code null} to use the default time-zone of the system
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Sets the time-zone the CRON expression of this job is evaluated in.
+     *
+     * @param zone the time-zone of the job
+     */
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Returns what becomes of the occurrences skipped by a transition of the time-zone of this job.
+     *
+     * @return the gap policy of the job, or {@code null} for {@link GapPolicy#SHIFT}
+     */
+    public GapPolicy getGapPolicy() {
+        return gapPolicy;
+    }
+
+    /**
+     * Sets what becomes of the occurrences skipped by a transition of the time-zone of this job (e.g. 2:30 when
+     * daylight saving time starts).
+     *
+     * @param gapPolicy the gap policy of the job
+     */
+    public void setGapPolicy(GapPolicy gapPolicy) {
+        this.gapPolicy = gapPolicy;
+    }
+
+    /**
+     * Returns which of the occurrences repeated by a transition of the time-zone of this job happen.
+     *
+     * @return the overlap policy of the job, or {@code null} for {@link OverlapPolicy#EARLIER}
+     */
+    public OverlapPolicy getOverlapPolicy() {
+        return overlapPolicy;
+    }
+
+    /**
+     * Sets which of the occurrences repeated by a transition of the time-zone of this job happen (e.g. 2:30 when
+     * daylight saving time ends).
+     *
+     * @param overlapPolicy the overlap policy of the job
+     */
+    public void setOverlapPolicy(OverlapPolicy overlapPolicy) {
+        this.overlapPolicy = overlapPolicy;
+    }
+
+    /**
+     * Returns what becomes of the firings of this job when the scheduler is late.
+     *
+     * @return the misfire policy of the job, or {@code null} for {@link MisfirePolicy#FIRE_ONCE_NOW}
+     */
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+
+    /**
+     * Sets what becomes of the firings of this job when the scheduler is late.
+     *
+     * @param misfirePolicy the misfire policy of the job
+     */
+    public void setMisfirePolicy(MisfirePolicy misfirePolicy) {
+        this.misfirePolicy = misfirePolicy;
+    }
+
+    /**
+     * Returns the maximal number of instances of this job running at the same time.
+     *
+     * @return the maximal number of concurrent instances, or {@code 0} if unlimited
+     */
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     * Sets the maximal number of instances of this job running at the same time, e.g. {@code 1} for a job which must
+     * not overlap with itself. The firings beyond this limit are handled according to the {@link OverrunPolicy} of the
+     * job.
+     *
+     * @param maxConcurrent the maximal number of concurrent instances, or {@code 0} if unlimited
+     * @throws IllegalArgumentException if {@code maxConcurrent} is negative
+     */
+    public void setMaxConcurrent(int maxConcurrent) {
+        if (maxConcurrent < 0) {
+            throw new IllegalArgumentException(
+                    "The maximal number of concurrent instances must not be negative, got " + maxConcurrent);
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Returns what becomes of the firings of this job beyond its maximal number of concurrent instances.
+     *
+     * @return the overrun policy of the job, or {@code null} for {@link OverrunPolicy#SKIP}
+     */
+    public OverrunPolicy getOverrunPolicy() {
+        return overrunPolicy;
+    }
+
+    /**
+     * Sets what becomes of the firings of this job beyond its maximal number of concurrent instances.
+     *
+     * @param overrunPolicy the overrun policy of the job
+     */
+    public void setOverrunPolicy(OverrunPolicy overrunPolicy) {
+        this.overrunPolicy = overrunPolicy;
+    }
 }
@@ -1,14 +1,35 @@
 package org.keyboardplaying.cron.scheduler;
 
-import java.util.Calendar;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.parser.CachingCronParser;
 import org.keyboardplaying.cron.parser.CronSyntacticParser;
 import org.keyboardplaying.cron.parser.UnixCronParser;
-import org.keyboardplaying.cron.predictor.CronPredictor;
+import org.keyboardplaying.cron.predictor.GapPolicy;
+import org.keyboardplaying.cron.predictor.OccurrenceCounter;
+import org.keyboardplaying.cron.predictor.OccurrencePredictor;
+import org.keyboardplaying.cron.predictor.OccurrenceTimeline;
+import org.keyboardplaying.cron.predictor.OverlapPolicy;
+import org.keyboardplaying.cron.predictor.ZonePolicy;
+import org.keyboardplaying.cron.predictor.ZonedCronPredictor;
+import org.keyboardplaying.cron.scheduler.engine.ExecutorTriggerEngine;
+import org.keyboardplaying.cron.scheduler.engine.TriggerEngine;
+import org.keyboardplaying.cron.scheduler.execution.BoundedJobExecutor;
+import org.keyboardplaying.cron.scheduler.execution.JobExecutors;
+import org.keyboardplaying.cron.scheduler.execution.WrappedJob;
 
 /**
  * The CRON scheduler.
@@ -16,16 +37,47 @@ import org.keyboardplaying.cron.predictor.CronPredictor;
  * It is expected to be used as a singleton. When used inside a Spring context, you should specify a parser (
  * {@link #setParser(org.keyboardplaying.cron.parser.CronSyntacticParser)}) and a list of jobs (
  * {@link #setJobs(java.util.Collection)}). All jobs set this way will be started automatically.
+ * <p/>
+ * The scheduler relies on a {@link TriggerEngine} to be woken up when a job is due. Jobs due at the same instant are
+ * grouped in a single batch, so that the engine is woken up once for all of them. The engine only performs the
+ * bookkeeping (computing the next occurrence of each distinct CRON expression, shared by all the jobs using it); the
+ * jobs themselves are handed over to an {@link Executor}.
+ * <p/>
+ * To prevent all the jobs sharing an expression from running at the very same instant, their firings can be delayed
+ * with a {@link Jitter}, set for the whole scheduler or per job.
+ * <p/>
+ * Each job may have its CRON expression evaluated in its own time-zone, and choose how the occurrences skipped or
+ * repeated by the transitions of that time-zone are handled (see {@link GapPolicy} and {@link OverlapPolicy}). Jobs
+ * share a schedule only if they share both the expression and these settings.
+ * <p/>
+ * When the scheduler is late (overload, garbage collection, suspended host), the {@link MisfirePolicy} of each job
+ * tells whether the occurrences missed in the meantime are fired, forgotten or skipped. The number of instances of a
+ * job running at the same time may also be limited (see {@link CronJob#setMaxConcurrent(int)}), so that a job lasting
+ * longer than the interval between its occurrences does not pile up.
+ * <p/>
+ * Each scheduled job is given a {@link JobHandle}, to cancel, pause, resume or reschedule it while the scheduler is
+ * running.
  *
  * @author Cyrille Chopelet (https://keyboardplaying.org)
  */
-// TODO Remove Timer and TimerTask, use a custom mechanism based on Thread instead
 public class CronScheduler {
 
-    private static CronPredictor predictor = new CronPredictor();
+    private static final String DEFAULT_THREAD_NAME = "crontab4j-trigger";
+    private static final long DEFAULT_MISFIRE_THRESHOLD = 60000L;
 
     private CronSyntacticParser parser;
-    private Timer timer;
+    private OccurrencePredictor predictor;
+    // guarded by the lock on batches, so that a single default executor is ever created
+    private Executor executor;
+    private BoundedJobExecutor defaultExecutor;
+    private Jitter jitter;
+    private volatile long misfireThreshold = DEFAULT_MISFIRE_THRESHOLD;
+    private final TriggerEngine engine;
+    // the schedules waiting to be triggered, by instant (milliseconds since the epoch); also guards the fields below
+    private final Map<Long, Batch> batches = new HashMap<>();
+    // only modified while holding the lock, but read without it to know whether a new schedule must be prepared
+    private final Map<ScheduleKey, Schedule> schedules = new ConcurrentHashMap<>();
+    private boolean terminated;
 
     /**
      * Creates a scheduler whose associated thread will run as a daemon.
@@ -40,7 +92,7 @@ public class CronScheduler {
      * @param daemon {@code true} if the associated thread should run as a daemon, {@code false} otherwise
      */
     public CronScheduler(boolean daemon) {
-        this.timer = new Timer(daemon);
+        this(DEFAULT_THREAD_NAME, daemon);
     }
 
     /**
@@ -50,7 +102,7 @@ public class CronScheduler {
      * @throws NullPointerException if {@code name} is {@code null}
      */
     public CronScheduler(String threadName) {
-        this.timer = new Timer(threadName);
+        this(threadName, false);
     }
 
     /**
@@ -61,13 +113,36 @@ public class CronScheduler {
      * @throws NullPointerException if {@code name} is {@code null}
      */
     public CronScheduler(String threadName, boolean daemon) {
-        this.timer = new Timer(threadName, daemon);
+        this(threadName, daemon, 1);
+    }
+
+    /**
+     * Creates a new scheduler whose associated threads have the specified name, may be specified to run as daemons.
+     *
+     * @param threadName the prefix of the name of the associated threads
+     * @param daemon     {@code true} if the associated threads should run as daemons, {@code false} otherwise
+     * @param threads    the number of threads triggering the jobs
+     * @throws NullPointerException     if {@code name} is {@code null}
+     * @throws IllegalArgumentException if {@code threads} is not strictly positive
+     */
+    public CronScheduler(String threadName, boolean daemon, int threads) {
+        this(new ExecutorTriggerEngine(threads, threadName, daemon));
+    }
+
+    /**
+     * Creates a new scheduler relying on the supplied engine to trigger the jobs.
+     *
+     * @param engine the trigger engine
+     * @throws NullPointerException if {@code engine} is {@code null}
+     */
+    public CronScheduler(TriggerEngine engine) {
+        this.engine = Objects.requireNonNull(engine);
     }
 
     /**
      * Sets the parser to use for the jobs' CRON expressions.
      * <p/>
-     * If not explicitly set, a {@link UnixCronParser} will be used.
+     * If not explicitly set, a {@link UnixCronParser} decorated with a {@link CachingCronParser} will be used.
      *
      * @param parser a syntactic CRON parser
      */
@@ -76,54 +151,290 @@ public class CronScheduler {
     }
 
     /**
-     * Returns the CRON parser. Defaults to a {@link UnixCronParser}.
+     * Returns the CRON parser. Defaults to a cached {@link UnixCronParser}.
      *
      * @return the CRON parser
      */
     private CronSyntacticParser getParser() {
         if (parser == null) {
-            parser = new UnixCronParser();
+            parser = new CachingCronParser(new UnixCronParser());
         }
         return parser;
     }
 
     /**
-     * Schedules the next occurrence of a task based on a CRON expression.
+     * Sets the predictor to use to compute the next occurrence of the jobs' CRON expressions.
+     * <p/>
+     * If not explicitly set, a {@link ZonedCronPredictor} will be used. This predictor is only used for the jobs with
+     * the default {@link GapPolicy} and {@link OverlapPolicy}; the other ones rely on a {@link ZonedCronPredictor}
+     * applying their policies.
+     *
+     * @param predictor a CRON predictor
+     */
+    public void setPredictor(OccurrencePredictor predictor) {
+        this.predictor = predictor;
+    }
+
+    /**
+     * Returns the CRON predictor. Defaults to a {@link ZonedCronPredictor}.
      *
-     * @param timer the timer the task should be scheduled at
-     * @param task  the task to schedule
-     * @param cron  the CRON expression used for scheduling
+     * @return the CRON predictor
      */
-    // static so it can be used inside a static inner class
-    private static void scheduleNext(Timer timer, TimerTask task, CronExpression cron) {
-        Calendar next = predictor.getNextOccurrence(cron);
-        if (next != null) {
-            timer.schedule(task, next.getTime());
+    private OccurrencePredictor getPredictor() {
+        if (predictor == null) {
+            predictor = new ZonedCronPredictor();
         }
+        return predictor;
+    }
+
+    /**
+     * Sets the executor running the jobs once they have been triggered.
+     * <p/>
+     * If not explicitly set, a {@link BoundedJobExecutor} with default settings will be used and shut down when this
+     * scheduler is terminated. An executor set this way is not shut down by the scheduler.
+     * <p/>
+     * For I/O-bound jobs, consider {@link JobExecutors#newVirtualThreadExecutor()}.
+     *
+     * @param executor the job executor
+     */
+    public void setExecutor(Executor executor) {
+        synchronized (batches) {
+            this.executor = executor;
+        }
+    }
+
+    /**
+     * Returns the job executor. Defaults to a {@link BoundedJobExecutor}.
+     *
+     * @return the job executor
+     * @throws IllegalStateException if this scheduler has been terminated
+     */
+    private Executor getExecutor() {
+        synchronized (batches) {
+            if (terminated) {
+                // a default executor created now would never be shut down
+                throw new IllegalStateException("The scheduler has been terminated");
+            }
+            if (executor == null) {
+                defaultExecutor = new BoundedJobExecutor();
+                executor = defaultExecutor;
+            }
+            return executor;
+        }
+    }
+
+    /**
+     * Sets the jitter delaying the firings of the jobs after the occurrences of their CRON expression.
+     * <p/>
+     * If not explicitly set, the jobs are fired exactly at the occurrences. A jitter set on a {@link CronJob} overrides
+     * this one.
+     *
+     * @param jitter the default jitter
+     * @see Jitters
+     */
+    public void setJitter(Jitter jitter) {
+        this.jitter = jitter;
+    }
+
+    /**
+     * Returns the default jitter. Defaults to {@link Jitters#none()}.
+     *
+     * @return the default jitter
+     */
+    private Jitter getJitter() {
+        if (jitter == null) {
+            jitter = Jitters.none();
+        }
+        return jitter;
+    }
+
+    /**
+     * Sets how late a firing may be triggered after its occurrence before it is deemed misfired.
+     * <p/>
+     * Defaults to one minute. A misfired firing is handled according to the {@link MisfirePolicy} of each job. A
+     * firing late by less than the threshold is not misfired: the occurrences which elapsed meanwhile are all fired in
+     * turn.
+     *
+     * @param misfireThreshold the misfire threshold, in milliseconds
+     * @throws IllegalArgumentException if {@code misfireThreshold} is not strictly positive
+     */
+    public void setMisfireThreshold(long misfireThreshold) {
+        if (misfireThreshold < 1) {
+            throw new IllegalArgumentException(
+                    "The misfire threshold must be strictly positive, got " + misfireThreshold);
+        }
+        this.misfireThreshold = misfireThreshold;
+    }
+
+    /**
+     * Returns the time-zone policy of a job, filling its unset settings with the defaults.
+     *
+     * @param job the job
+     * @return the time-zone policy of the job
+     */
+    private static ZonePolicy getPolicy(CronJob job) {
+        return ZonePolicy.of(job.getZone() == null ? ZoneId.systemDefault() : job.getZone(),
+                job.getGapPolicy() == null ? GapPolicy.SHIFT : job.getGapPolicy(),
+                job.getOverlapPolicy() == null ? OverlapPolicy.EARLIER : job.getOverlapPolicy());
+    }
+
+    /**
+     * Returns the predictor to compute the occurrences of an expression with, according to its time-zone policy.
+     *
+     * @param policy the time-zone policy
+     * @return the configured predictor for the default policies, a {@link ZonedCronPredictor} otherwise
+     */
+    private OccurrencePredictor getPredictor(ZonePolicy policy) {
+        if (policy.getGap() == GapPolicy.SHIFT && policy.getOverlap() == OverlapPolicy.EARLIER) {
+            return getPredictor();
+        }
+        return new ZonedCronPredictor(policy.getGap(), policy.getOverlap());
+    }
+
+    /**
+     * Computes the next occurrence of a schedule.
+     *
+     * @param schedule    the schedule
+     * @param epochMillis the time to compute the next occurrence from, as milliseconds since the epoch
+     * @return the next occurrence as milliseconds since the epoch, or {@code null} if there is none
+     */
+    private static Long predictNext(Schedule schedule, long epochMillis) {
+        ZonedDateTime next = schedule.predictor.predictNext(schedule.key.cron,
+                Instant.ofEpochMilli(epochMillis).atZone(schedule.key.policy.getZone()));
+        return next == null ? null : next.toInstant().toEpochMilli();
+    }
+
+    /**
+     * Adds a schedule to the batch of the supplied instant, creating the batch and registering it if necessary.
+     * <p/>
+     * Must be called while holding the lock on {@link #batches}.
+     *
+     * @param schedule    the schedule to add
+     * @param epochMillis the instant the schedule is due at, as milliseconds since the epoch
+     */
+    private void enqueue(Schedule schedule, long epochMillis) {
+        Batch batch = batches.get(epochMillis);
+        if (batch == null) {
+            batch = new Batch(epochMillis);
+            engine.schedule(batch, epochMillis);
+            batches.put(epochMillis, batch);
+        }
+        batch.schedules.add(schedule);
     }
 
     /**
      * Schedules the specified job for execution.
      * <p/>
-     * The job will be triggered every time the current time matches its CRON.
+     * The job will be triggered every time the current time matches its CRON. Jobs sharing the same CRON expression
+     * are triggered together, and the next occurrence of their expression is computed only once for all of them.
      *
      * @param job  the job to schedule
      * @param cron the CRON trigger
+     * @return a handle on the scheduled job
+     * @throws NullPointerException  if {@code job} or {@code cron} is {@code null}
+     * @throws IllegalStateException if this scheduler has been terminated
      */
-    public void scheduleJob(Runnable job, String cron) {
-        CronExpression parsed = getParser().parse(cron);
-        scheduleNext(timer, new TimerTaskWrapper(job, timer, parsed), parsed);
+    public JobHandle scheduleJob(Runnable job, String cron) {
+        return scheduleJob(new CronJob(job, cron));
     }
 
     /**
      * Schedules the specified job for execution.
      * <p/>
-     * The job will be triggered every time the current time matches its CRON.
+     * The job will be triggered every time the current time matches its CRON, delayed by its {@link Jitter} if any.
+     * The key of the job, if any, is used to resolve the {@code H} tokens of its CRON. The CRON is evaluated in the
+     * time-zone of the job, or in the default time-zone of the system if none was set.
      *
      * @param job the job to schedule
+     * @return a handle on the scheduled job
+     * @throws IllegalStateException if this scheduler has been terminated
+     */
+    public JobHandle scheduleJob(CronJob job) {
+        ZonePolicy policy = getPolicy(job);
+        ScheduleKey key = new ScheduleKey(getParser().parse(job.getCron(), job.getKey()), policy);
+        Runnable runnable = job.getJob();
+        Executor jobExecutor = getExecutor();
+        ConcurrencyLimit limit = job.getMaxConcurrent() == 0 ? null
+                : new ConcurrencyLimit(runnable, jobExecutor, job.getMaxConcurrent(),
+                        job.getOverrunPolicy() == null ? OverrunPolicy.SKIP : job.getOverrunPolicy());
+        Handle handle = new Handle(job.getCron(), job.getKey(), policy);
+        ScheduledJob scheduled = new ScheduledJob(handle, runnable, jobExecutor, limit, getKey(job),
+                job.getJitter() == null ? getJitter() : job.getJitter(),
+                job.getMisfirePolicy() == null ? MisfirePolicy.FIRE_ONCE_NOW : job.getMisfirePolicy());
+        handle.current = scheduled;
+        Registration prepared = schedules.containsKey(key) ? null : prepare(key);
+        while (true) {
+            synchronized (batches) {
+                if (subscribe(key, scheduled, prepared)) {
+                    return handle;
+                }
+            }
+            // the schedule of the expression ended meanwhile
+            prepared = prepare(key);
+        }
+    }
+
+    /**
+     * Creates the schedule of a CRON expression and computes its first occurrence.
+     * <p/>
+     * Called without holding the lock on {@link #batches}, so that computing the occurrence does not delay the
+     * triggers. The schedule is only registered by {@link #subscribe(ScheduleKey, ScheduledJob, Registration)}, if the
+     * expression is still not scheduled by then.
+     *
+     * @param key the CRON expression and its time-zone policy
+     * @return the schedule and its first occurrence
      */
-    public void scheduleJob(CronJob job) {
-        scheduleJob(job.getJob(), job.getCron());
+    private Registration prepare(ScheduleKey key) {
+        Schedule schedule = new Schedule(key, getPredictor(key.policy));
+        return new Registration(schedule, predictNext(schedule, System.currentTimeMillis()));
+    }
+
+    /**
+     * Adds a job to the schedule of its CRON expression, registering the prepared schedule if the expression is not
+     * scheduled yet.
+     * <p/>
+     * Must be called while holding the lock on {@link #batches}.
+     *
+     * @param key      the CRON expression and its time-zone policy
+     * @param job      the job
+     * @param prepared the schedule prepared for the expression, {@code null} if it was already scheduled
+     * @return {@code false} if the expression is not scheduled anymore and no schedule was prepared, in which case a
+     *         schedule must be prepared and the job subscribed again; {@code true} otherwise
+     * @throws IllegalStateException if this scheduler has been terminated
+     */
+    private boolean subscribe(ScheduleKey key, ScheduledJob job, Registration prepared) {
+        if (terminated) {
+            throw new IllegalStateException("The scheduler has been terminated");
+        }
+        Schedule schedule = schedules.get(key);
+        if (schedule == null) {
+            if (prepared == null) {
+                return false;
+            } else if (prepared.first == null) {
+                // will never be triggered
+                return true;
+            }
+            schedule = prepared.schedule;
+            enqueue(schedule, prepared.first);
+            schedules.put(key, schedule);
+        }
+        // the job waits for the next occurrence already computed for its expression
+        schedule.subscribe(job);
+        return true;
+    }
+
+    /**
+     * Returns the key of a job, defaulting to the identity of its {@link Runnable} when none was set.
+     *
+     * @param job the job
+     * @return the key of the job
+     */
+    private static String getKey(CronJob job) {
+        if (job.getKey() != null) {
+            return job.getKey();
+        }
+        Runnable runnable = job.getJob();
+        return runnable.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(runnable));
     }
 
     /**
@@ -141,58 +452,661 @@ public class CronScheduler {
         }
     }
 
+    /**
+     * Returns the merged timeline of the firings of all the jobs currently scheduled, within a window.
+     * <p/>
+     * The timeline visits each instant at which at least one job fires, with the number of jobs firing at it. It is
+     * computed lazily from a snapshot of the scheduled jobs, in memory proportional to the number of distinct CRON
+     * expressions, and can be summed per second or per minute to spot the instants at which many jobs fire together.
+     * <p/>
+     * The timeline follows the occurrences of the CRON expressions, before any {@link Jitter} is applied. Paused and
+     * cancelled jobs are left out.
+     *
+     * @param fromEpochMillis the start of the window, exclusive, as milliseconds since the epoch
+     * @param toEpochMillis   the end of the window, inclusive, as milliseconds since the epoch
+     * @return the timeline of the firings within the window
+     * @throws IllegalArgumentException if the window ends before it starts
+     * @see OccurrenceTimeline#countPerBucket(long)
+     */
+    public OccurrenceTimeline getTimeline(long fromEpochMillis, long toEpochMillis) {
+        OccurrenceTimeline timeline = new OccurrenceTimeline(fromEpochMillis, toEpochMillis);
+        ScheduleKey[] keys;
+        int[] weights;
+        int count = 0;
+        synchronized (batches) {
+            keys = new ScheduleKey[schedules.size()];
+            weights = new int[keys.length];
+            for (Schedule schedule : schedules.values()) {
+                int active = 0;
+                for (ScheduledJob job : schedule.jobs) {
+                    if (job.isActive()) {
+                        active++;
+                    }
+                }
+                if (active > 0) {
+                    keys[count] = schedule.key;
+                    weights[count++] = active;
+                }
+            }
+        }
+        // the first occurrence of each expression is only computed once the lock is released
+        for (int i = 0; i < count; i++) {
+            timeline.add(keys[i].cron, weights[i], keys[i].policy);
+        }
+        return timeline;
+    }
+
     /**
      * Terminates this scheduler, discarding any currently scheduled tasks. Does not interfere with a currently
-     * executing task (if it exists). Once a scheduler has been terminated, its execution thread terminates gracefully,
+     * executing task (if it exists). Once a scheduler has been terminated, its execution threads terminate gracefully,
      * and no more tasks may be scheduled on it.
      * <p/>
-     * Note that calling this method from within the run method of a timer task that was invoked by this timer
-     * absolutely guarantees that the ongoing task execution is the last task execution that will ever be performed by
-     * this timer.
-     * <p/>
      * This method may be called repeatedly; the second and subsequent calls have no effect.
      */
     public void terminate() {
-        timer.cancel();
-        // ensure all references are released
-        timer.purge();
+        BoundedJobExecutor created;
+        synchronized (batches) {
+            terminated = true;
+            batches.clear();
+            schedules.clear();
+            created = defaultExecutor;
+        }
+        engine.terminate();
+        if (created != null) {
+            created.shutdown();
+        }
     }
 
     /**
-     * A wrapper to execute {@link CronJob} instances in scheduler.
+     * A job together with everything required to run it.
      *
      * @author Cyrille Chopelet (https://keyboardplaying.org)
      */
-    // Keep this a nested class as it is expected to disappear in a future version.
-    private static class TimerTaskWrapper extends TimerTask {
+    private static class ScheduledJob {
 
-        private Runnable job;
-        private Timer timer;
-        private CronExpression cron;
+        private final Handle handle;
+        private final Runnable job;
+        private final Executor executor;
+        private final ConcurrencyLimit limit;
+        private final String key;
+        private final Jitter jitter;
+        private final MisfirePolicy misfirePolicy;
+        // set when the job is rescheduled, this instance being replaced by another one
+        private volatile boolean retired;
 
         /**
-         * Creates a new wrapper.
+         * Creates a new instance.
          *
-         * @param job   the job wrapped in the new instance
-         * @param timer the timer used to
+         * @param handle        the handle on the job
+         * @param job           the job to trigger
+         * @param executor      the executor running the job
+         * @param limit         the limit of concurrent instances of the job, or {@code null} if unlimited
+         * @param key           the key of the job
+         * @param jitter        the jitter delaying the firings of the job
+         * @param misfirePolicy what becomes of the firings of the job when the scheduler is late
          */
-        public TimerTaskWrapper(Runnable job, Timer timer, CronExpression cron) {
+        ScheduledJob(Handle handle, Runnable job, Executor executor, ConcurrencyLimit limit, String key, Jitter jitter,
+                MisfirePolicy misfirePolicy) {
+            this.handle = handle;
             this.job = job;
-            this.timer = timer;
+            this.executor = executor;
+            this.limit = limit;
+            this.key = key;
+            this.jitter = jitter;
+            this.misfirePolicy = misfirePolicy;
+        }
+
+        /**
+         * Creates a copy of this instance, to replace it when the job is rescheduled.
+         *
+         * @return the copy
+         */
+        ScheduledJob copy() {
+            return new ScheduledJob(handle, job, executor, limit, key, jitter, misfirePolicy);
+        }
+
+        /**
+         * Tells whether the job should be fired.
+         *
+         * @return {@code false} if the job is paused, cancelled or was rescheduled, {@code true} otherwise
+         */
+        boolean isActive() {
+            return !retired && handle.state.get() == Handle.ACTIVE;
+        }
+
+        /**
+         * Tells whether the job can be removed from its schedule.
+         *
+         * @return {@code true} if the job is cancelled or was rescheduled, {@code false} otherwise
+         */
+        boolean isDiscarded() {
+            return retired || handle.state.get() == Handle.CANCELLED;
+        }
+
+        /**
+         * Hands the job over to its executor, unless it is not active anymore or as many instances as allowed are
+         * already running.
+         */
+        void execute() {
+            execute(1L);
+        }
+
+        /**
+         * Hands the job over to its executor to be run several times in a row, as a single task, unless it is not
+         * active anymore or as many instances as allowed are already running.
+         *
+         * @param times the number of times to run the job
+         */
+        void execute(long times) {
+            if (!isActive()) {
+                return;
+            }
+            Runnable task = times == 1L ? job : new Replay(job, times);
+            if (limit == null) {
+                executor.execute(task);
+            } else {
+                limit.fire(task, this::isActive);
+            }
+        }
+    }
+
+    /**
+     * The handle on a scheduled job.
+     * <p/>
+     * Its state is an atomic flag, read by the trigger threads when the job is due: cancelling, pausing or resuming the
+     * job takes no lock. Rescheduling it takes the lock of the scheduler, like scheduling a new job.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private class Handle implements JobHandle {
+
+        private static final int ACTIVE = 0;
+        private static final int PAUSED = 1;
+        private static final int CANCELLED = 2;
+
+        private final String hashKey;
+        private final ZonePolicy policy;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        // modified while holding the lock on batches
+        private volatile String cron;
+        private volatile ScheduledJob current;
+
+        /**
+         * Creates a new handle.
+         *
+         * @param cron    the CRON expression of the job
+         * @param hashKey the key used to resolve the {@code H} tokens of the expression, or {@code null}
+         * @param policy  the time-zone policy of the job
+         */
+        Handle(String cron, String hashKey, ZonePolicy policy) {
+            this.cron = cron;
+            this.hashKey = hashKey;
+            this.policy = policy;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#getCron()
+         */
+        @Override
+        public String getCron() {
+            return cron;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#cancel()
+         */
+        @Override
+        public boolean cancel() {
+            return state.getAndSet(CANCELLED) != CANCELLED;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#isCancelled()
+         */
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#pause()
+         */
+        @Override
+        public boolean pause() {
+            return state.compareAndSet(ACTIVE, PAUSED);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#resume()
+         */
+        @Override
+        public boolean resume() {
+            return state.compareAndSet(PAUSED, ACTIVE);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#isPaused()
+         */
+        @Override
+        public boolean isPaused() {
+            return state.get() == PAUSED;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.JobHandle#reschedule(java.lang.String)
+         */
+        @Override
+        public void reschedule(String cron) {
+            ScheduleKey key = new ScheduleKey(getParser().parse(Objects.requireNonNull(cron), hashKey), policy);
+            Registration prepared = schedules.containsKey(key) ? null : prepare(key);
+            while (true) {
+                if (prepared != null && prepared.first == null) {
+                    throw new IllegalArgumentException("The CRON expression " + cron + " has no future occurrence");
+                }
+                synchronized (batches) {
+                    if (isCancelled()) {
+                        throw new IllegalStateException("The job has been cancelled");
+                    }
+                    ScheduledJob replacement = current.copy();
+                    if (subscribe(key, replacement, prepared)) {
+                        // the previous instance is removed from its schedule the next time it is triggered
+                        current.retired = true;
+                        current = replacement;
+                        this.cron = cron;
+                        return;
+                    }
+                }
+                // the schedule of the expression ended meanwhile
+                prepared = prepare(key);
+            }
+        }
+    }
+
+    /**
+     * A schedule prepared outside the lock on {@link #batches}, together with its first occurrence.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class Registration {
+
+        private final Schedule schedule;
+        // null if the expression has no future occurrence
+        private final Long first;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param schedule the schedule, not registered yet
+         * @param first    the first occurrence of the schedule, or {@code null} if there is none
+         */
+        Registration(Schedule schedule, Long first) {
+            this.schedule = schedule;
+            this.first = first;
+        }
+    }
+
+    /**
+     * A CRON expression together with the time-zone policy it is evaluated with, identifying a {@link Schedule}.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class ScheduleKey {
+
+        private final CronExpression cron;
+        private final ZonePolicy policy;
+
+        /**
+         * Creates a new instance.
+         *
+         * @param cron   the CRON expression
+         * @param policy the time-zone policy
+         */
+        ScheduleKey(CronExpression cron, ZonePolicy policy) {
             this.cron = cron;
+            this.policy = policy;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#equals(java.lang.Object)
+         */
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof ScheduleKey)) {
+                return false;
+            }
+            ScheduleKey other = (ScheduleKey) obj;
+            return cron.equals(other.cron) && policy.equals(other.policy);
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Object#hashCode()
+         */
+        @Override
+        public int hashCode() {
+            return 31 * cron.hashCode() + policy.hashCode();
+        }
+    }
+
+    /**
+     * A CRON expression and all the jobs it triggers.
+     * <p/>
+     * Its fields are guarded by the lock on {@link CronScheduler#batches}.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static class Schedule {
+
+        private static final ScheduledJob[] NO_JOBS = {};
+
+        private final ScheduleKey key;
+        private final OccurrencePredictor predictor;
+        private final OccurrenceCounter counter;
+        // replaced rather than modified, so that a triggered batch can keep a snapshot without copying it
+        private ScheduledJob[] jobs = NO_JOBS;
+
+        /**
+         * Creates a new schedule, without any job.
+         *
+         * @param key       the CRON expression and its time-zone policy
+         * @param predictor the predictor computing the occurrences of the expression
+         */
+        Schedule(ScheduleKey key, OccurrencePredictor predictor) {
+            this.key = key;
+            this.predictor = predictor;
+            this.counter = new OccurrenceCounter(key.policy);
+        }
+
+        /**
+         * Adds a job to the jobs triggered by this schedule.
+         *
+         * @param job the job
+         */
+        void subscribe(ScheduledJob job) {
+            ScheduledJob[] remaining = purge();
+            ScheduledJob[] subscribed = Arrays.copyOf(remaining, remaining.length + 1);
+            subscribed[remaining.length] = job;
+            jobs = subscribed;
+        }
+
+        /**
+         * Removes the cancelled and rescheduled jobs from the jobs triggered by this schedule.
+         *
+         * @return the remaining jobs
+         */
+        ScheduledJob[] purge() {
+            int discarded = 0;
+            for (ScheduledJob job : jobs) {
+                if (job.isDiscarded()) {
+                    discarded++;
+                }
+            }
+            if (discarded > 0) {
+                ScheduledJob[] remaining = new ScheduledJob[jobs.length - discarded];
+                int i = 0;
+                for (ScheduledJob job : jobs) {
+                    if (!job.isDiscarded()) {
+                        remaining[i++] = job;
+                    }
+                }
+                jobs = remaining;
+            }
+            return jobs;
+        }
+    }
+
+    /**
+     * The trigger of all the schedules due at the same instant.
+     * <p/>
+     * When called, it computes the next occurrence of each schedule before handing the jobs over for execution, or to
+     * the engine again for the jobs whose firing is delayed by a jitter.
+     * <p/>
+     * If it is called late, but by less than the misfire threshold, the next occurrences are predicted from its due
+     * time, so that the ones which elapsed meanwhile are fired in turn. If it is called later than the threshold, the
+     * occurrences missed since its due time are counted rather than enumerated, once per schedule and only if a job
+     * has to fire them all; they are then handed over as a single task per job.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private class Batch implements Runnable {
+
+        private final long epochMillis;
+        private final List<Schedule> schedules = new ArrayList<>();
+
+        /**
+         * Creates a new batch.
+         *
+         * @param epochMillis the time this batch is due at, as milliseconds since the epoch
+         */
+        Batch(long epochMillis) {
+            this.epochMillis = epochMillis;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Runnable#run()
+         */
+        @Override
+        public void run() {
+            ScheduledJob[][] jobs = new ScheduledJob[schedules.size()][];
+            synchronized (batches) {
+                // no schedule can be added to this batch anymore, nor any job to the ones it will trigger
+                batches.remove(epochMillis, this);
+                for (int i = 0; i < jobs.length; i++) {
+                    // the cancelled jobs are only removed now, so that cancelling a job takes no lock
+                    jobs[i] = schedules.get(i).purge();
+                }
+            }
+            // never predict from before the due time, in case the engine is early
+            long now = Math.max(epochMillis, System.currentTimeMillis());
+            // unless it misfired, catch up with the occurrences which elapsed since the due time
+            long from = now - epochMillis > misfireThreshold ? now : epochMillis;
+            RuntimeException failure = scheduleNext(from);
+            try {
+                dispatch(jobs, from);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    throw e;
+                }
+                failure.addSuppressed(e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Enqueues each schedule of this batch for its next occurrence, or forgets it if it has no job or no next
+         * occurrence anymore.
+         * <p/>
+         * A schedule whose next occurrence cannot be predicted is forgotten too, without preventing the other ones from
+         * being enqueued.
+         *
+         * @param from the time to predict the next occurrences from
+         * @return the failures to predict the next occurrences, or {@code null} if none
+         */
+        private RuntimeException scheduleNext(long from) {
+            RuntimeException failure = null;
+            Long[] nexts = new Long[schedules.size()];
+            boolean[] failed = new boolean[nexts.length];
+            for (int i = 0; i < nexts.length; i++) {
+                Schedule schedule = schedules.get(i);
+                try {
+                    nexts[i] = predictNext(schedule, from);
+                } catch (RuntimeException | StackOverflowError e) {
+                    // e.g. a predictor recursing endlessly on an expression which never matches
+                    failed[i] = true;
+                    IllegalStateException error = new IllegalStateException(
+                            "Could not predict the next occurrence of " + schedule.key.cron, e);
+                    if (failure == null) {
+                        failure = error;
+                    } else {
+                        failure.addSuppressed(error);
+                    }
+                }
+            }
+
+            synchronized (batches) {
+                if (terminated) {
+                    return failure;
+                }
+                for (int i = 0; i < nexts.length; i++) {
+                    Schedule schedule = schedules.get(i);
+                    if (!failed[i] && nexts[i] != null && schedule.jobs.length > 0) {
+                        enqueue(schedule, nexts[i]);
+                    } else {
+                        CronScheduler.this.schedules.remove(schedule.key, schedule);
+                    }
+                }
+            }
+            return failure;
+        }
+
+        /**
+         * Hands the jobs over for execution.
+         *
+         * @param jobs       the jobs of each schedule of this batch
+         * @param misfiredTo the time this batch is called at if it misfired, its due time otherwise
+         */
+        private void dispatch(ScheduledJob[][] jobs, long misfiredTo) {
+            RuntimeException failure = null;
+            for (int i = 0; i < jobs.length; i++) {
+                // the number of occurrences missed by the schedule, only counted if needed
+                long missed = -1L;
+                for (ScheduledJob job : jobs[i]) {
+                    try {
+                        if (misfiredTo == epochMillis || job.misfirePolicy == MisfirePolicy.FIRE_ONCE_NOW) {
+                            fire(job);
+                        } else if (job.misfirePolicy == MisfirePolicy.FIRE_ALL_MISSED) {
+                            if (missed < 0) {
+                                Schedule schedule = schedules.get(i);
+                                missed = schedule.counter.count(schedule.key.cron, epochMillis, misfiredTo);
+                            }
+                            fire(job, missed + 1);
+                        }
+                        // SKIP_TO_NEXT: wait for the next occurrence
+                    } catch (RuntimeException e) {
+                        // a rejected job must not prevent the other ones from being run
+                        if (failure == null) {
+                            failure = e;
+                        } else {
+                            failure.addSuppressed(e);
+                        }
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        /**
+         * Hands a job over for execution, or to the engine if its firing is delayed by a jitter.
+         *
+         * @param job the job
+         */
+        private void fire(ScheduledJob job) {
+            long delay = job.jitter.getDelayMillis(job.key, epochMillis);
+            if (delay > 0) {
+                engine.schedule(job::execute, epochMillis + delay);
+            } else {
+                job.execute();
+            }
+        }
+
+        /**
+         * Hands a job over to be run several times in a row, or to the engine if its firing is delayed by a jitter.
+         *
+         * @param job   the job
+         * @param times the number of times to run the job
+         */
+        private void fire(ScheduledJob job, long times) {
+            long delay = job.jitter.getDelayMillis(job.key, epochMillis);
+            if (delay > 0) {
+                engine.schedule(() -> job.execute(times), epochMillis + delay);
+            } else {
+                job.execute(times);
+            }
+        }
+    }
+
+    /**
+     * A job run several times in a row, to fire at once the occurrences missed by a late scheduler.
+     * <p/>
+     * A single task takes a single slot in the queue of the executor, however many occurrences were missed. A failing
+     * run does not prevent the next ones.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class Replay implements WrappedJob {
+
+        private final Runnable job;
+        private final long times;
+
+        /**
+         * Creates a new replay.
+         *
+         * @param job   the job to run
+         * @param times the number of times to run it
+         */
+        Replay(Runnable job, long times) {
+            this.job = job;
+            this.times = times;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see org.keyboardplaying.cron.scheduler.execution.WrappedJob#getJob()
+         */
+        @Override
+        public Runnable getJob() {
+            return job;
         }
 
         /*
          * (non-Javadoc)
          *
-         * @see java.util.TimerTask.run()
+         * @see java.lang.Runnable#run()
          */
         @Override
         public void run() {
-            // prepare the next trigger
-            scheduleNext(timer, new TimerTaskWrapper(job, timer, cron), cron);
-            // run the job
-            new Thread(job).start();
+            RuntimeException failure = null;
+            for (long i = 0; i < times; i++) {
+                try {
+                    job.run();
+                } catch (RuntimeException e) {
+                    if (failure == null) {
+                        failure = e;
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
         }
     }
 }
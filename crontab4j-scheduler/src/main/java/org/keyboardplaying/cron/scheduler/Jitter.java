@@ -0,0 +1,24 @@
+package org.keyboardplaying.cron.scheduler;
+
+/**
+ * Delays the firings of a job after the occurrences of its CRON expression, to avoid that all the jobs sharing an
+ * expression (e.g. {@code @hourly}) fire at the very same instant.
+ * <p/>
+ * The occurrences themselves are left untouched, so that the predictions remain the ones of the CRON expression: the
+ * jitter only shifts the moment each job is handed over for execution.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see Jitters
+ */
+@FunctionalInterface
+public interface Jitter {
+
+    /**
+     * Returns the delay between an occurrence of the CRON expression of a job and the moment the job is fired.
+     *
+     * @param key         the key of the job, used to tell jobs apart
+     * @param epochMillis the occurrence of the CRON expression, as milliseconds since the epoch
+     * @return the delay in milliseconds; {@code 0} or less to fire the job at the occurrence
+     */
+    long getDelayMillis(String key, long epochMillis);
+}
@@ -0,0 +1,93 @@
+package org.keyboardplaying.cron.scheduler;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.keyboardplaying.cron.parser.Hashes;
+
+/**
+ * Factory methods for the {@link Jitter}s of a {@link CronScheduler}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class Jitters {
+
+    private static final long MILLIS_PER_MINUTE = 60000L;
+
+    private static final Jitter NONE = (key, epochMillis) -> 0L;
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private Jitters() {
+    }
+
+    /**
+     * Returns a jitter firing the jobs exactly at the occurrences of their CRON expression.
+     *
+     * @return a jitter without any delay
+     */
+    public static Jitter none() {
+        return NONE;
+    }
+
+    /**
+     * Returns a jitter delaying each job by a fixed amount derived from the hash of its key.
+     * <p/>
+     * This is the equivalent of the {@code H} of Jenkins: the delays are spread between {@code 0} (inclusive) and
+     * {@code maxMillis} (exclusive) across the jobs, but a given job is always delayed by the same amount, so that its
+     * firings remain evenly spaced and predictable. As the hash of a {@link String} is specified, a job also gets the
+     * same delay from one JVM to another.
+     *
+     * @param maxMillis the upper bound of the delay, exclusive, in milliseconds
+     * @return a jitter based on the jobs' keys
+     * @throws IllegalArgumentException if {@code maxMillis} is not strictly positive
+     */
+    public static Jitter hashed(final long maxMillis) {
+        checkBound(maxMillis);
+        return (key, epochMillis) -> Math.floorMod(hash(key), maxMillis);
+    }
+
+    /**
+     * Returns a jitter delaying each firing by a random amount.
+     * <p/>
+     * Unlike {@link #hashed(long)}, the delay of a job changes from one firing to the next.
+     *
+     * @param maxMillis the upper bound of the delay, exclusive, in milliseconds
+     * @return a random jitter
+     * @throws IllegalArgumentException if {@code maxMillis} is not strictly positive
+     */
+    public static Jitter random(final long maxMillis) {
+        checkBound(maxMillis);
+        return (key, epochMillis) -> ThreadLocalRandom.current().nextLong(maxMillis);
+    }
+
+    /**
+     * Returns a jitter spreading the jobs across the minute following the occurrences of their CRON expression.
+     * <p/>
+     * This is suited to the syntaxes which cannot specify the seconds, such as the Unix one, whose expressions
+     * otherwise all fire at the start of a minute.
+     *
+     * @return a jitter based on the jobs' keys, of less than a minute
+     * @see #hashed(long)
+     */
+    public static Jitter spreadOverMinute() {
+        return hashed(MILLIS_PER_MINUTE);
+    }
+
+    private static void checkBound(long maxMillis) {
+        if (maxMillis <= 0) {
+            throw new IllegalArgumentException("The maximal delay must be strictly positive");
+        }
+    }
+
+    /**
+     * Hashes a key, spreading its bits so that close keys (e.g. {@code job-1} and {@code job-2}) get distant values.
+     *
+     * @param key the key to hash
+     * @return the hash of the key
+     * @see Hashes#spread(long)
+     */
+    static long hash(String key) {
+        return Hashes.spread(key.hashCode());
+    }
+}
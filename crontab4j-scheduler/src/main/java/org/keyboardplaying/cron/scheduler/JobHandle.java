@@ -0,0 +1,70 @@
+package org.keyboardplaying.cron.scheduler;
+
+/**
+ * A handle on a job scheduled by a {@link CronScheduler}, to change its scheduling while the scheduler is running.
+ * <p/>
+ * Cancelling, pausing and resuming a job only flip a flag, checked when the job is due: they take no lock and cost the
+ * same whatever the number of scheduled jobs. A cancelled job is removed from the scheduler the next time its CRON
+ * expression occurs.
+ * <p/>
+ * Implementations are thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see CronScheduler#scheduleJob(CronJob)
+ */
+public interface JobHandle {
+
+    /**
+     * Returns the CRON expression currently triggering the job.
+     *
+     * @return the CRON expression
+     */
+    String getCron();
+
+    /**
+     * Cancels the job: it will not be fired anymore. The instances already handed over for execution are not
+     * interrupted.
+     *
+     * @return {@code true} if the job was cancelled by this call, {@code false} if it had already been cancelled
+     */
+    boolean cancel();
+
+    /**
+     * Tells whether the job has been cancelled.
+     *
+     * @return {@code true} if the job has been cancelled, {@code false} otherwise
+     */
+    boolean isCancelled();
+
+    /**
+     * Pauses the job: the occurrences of its CRON expression are ignored until it is resumed.
+     *
+     * @return {@code true} if the job was paused by this call, {@code false} if it was already paused
+     */
+    boolean pause();
+
+    /**
+     * Resumes the job, which will be fired again from the next occurrence of its CRON expression.
+     *
+     * @return {@code true} if the job was resumed by this call, {@code false} if it was not paused
+     */
+    boolean resume();
+
+    /**
+     * Tells whether the job is paused.
+     *
+     * @return {@code true} if the job is paused, {@code false} otherwise
+     */
+    boolean isPaused();
+
+    /**
+     * Changes the CRON expression triggering the job, keeping all its other settings. The job stays paused if it was.
+     *
+     * @param cron the new CRON expression
+     * @throws NullPointerException     if {@code cron} is {@code null}
+     * @throws IllegalArgumentException if the new CRON expression has no future occurrence, in which case the job
+     *                                  keeps its current CRON expression
+     * @throws IllegalStateException    if the job has been cancelled or the scheduler has been terminated
+     */
+    void reschedule(String cron);
+}
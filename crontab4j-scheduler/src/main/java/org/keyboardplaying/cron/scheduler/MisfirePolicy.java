@@ -0,0 +1,29 @@
+package org.keyboardplaying.cron.scheduler;
+
+/**
+ * What becomes of the firings of a job when the scheduler is late, e.g. because it was overloaded, paused by the
+ * garbage collector or suspended with its host.
+ * <p/>
+ * A firing is deemed misfired when it is triggered later than the misfire threshold of the scheduler after its
+ * occurrence. All the occurrences between the misfired one and the moment it is triggered are missed: the next
+ * firing is predicted from the current time. A firing late by less than the threshold is not misfired, and the
+ * occurrences which elapsed meanwhile are fired in turn.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see CronScheduler#setMisfireThreshold(long)
+ */
+public enum MisfirePolicy {
+    /**
+     * The job is fired once, as soon as possible, and the missed occurrences are forgotten. This is the default.
+     */
+    FIRE_ONCE_NOW,
+    /**
+     * The job is fired as soon as possible, once for the misfired occurrence and once for each missed one. The firings
+     * are handed over to the executor as a single task, which runs the job as many times in a row.
+     */
+    FIRE_ALL_MISSED,
+    /**
+     * The job is not fired until the next occurrence after the current time.
+     */
+    SKIP_TO_NEXT
+}
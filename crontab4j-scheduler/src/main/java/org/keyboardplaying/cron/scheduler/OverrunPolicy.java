@@ -0,0 +1,19 @@
+package org.keyboardplaying.cron.scheduler;
+
+/**
+ * What becomes of a firing of a job when as many instances of that job as allowed are still running.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see CronJob#setMaxConcurrent(int)
+ */
+public enum OverrunPolicy {
+    /**
+     * The firing is dropped. This is the default.
+     */
+    SKIP,
+    /**
+     * The firing is delayed until an instance of the job ends. At most one firing waits this way: the next ones are
+     * dropped while it waits.
+     */
+    QUEUE_ONE_BEHIND
+}
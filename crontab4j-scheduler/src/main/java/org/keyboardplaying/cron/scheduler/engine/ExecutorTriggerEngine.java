@@ -0,0 +1,80 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link TriggerEngine} based on a {@link ScheduledExecutorService}.
+ * <p/>
+ * Unlike a {@link java.util.Timer}, the underlying executor may use several threads and keeps on calling the other
+ * triggers when one of them throws an exception.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ExecutorTriggerEngine implements TriggerEngine {
+
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Creates a new engine backed by a pool of the specified number of threads.
+     *
+     * @param threads    the number of threads calling the triggers
+     * @param threadName the prefix of the name of the threads
+     * @param daemon     {@code true} if the threads should run as daemons, {@code false} otherwise
+     * @throws IllegalArgumentException if {@code threads} is not strictly positive
+     * @throws NullPointerException     if {@code threadName} is {@code null}
+     */
+    public ExecutorTriggerEngine(int threads, String threadName, boolean daemon) {
+        this(createExecutor(threads, new NamedThreadFactory(threadName, daemon)));
+    }
+
+    /**
+     * Creates a new engine backed by the supplied executor.
+     * <p/>
+     * The executor will be shut down when this engine is terminated.
+     *
+     * @param executor the executor calling the triggers
+     * @throws NullPointerException if {@code executor} is {@code null}
+     */
+    public ExecutorTriggerEngine(ScheduledExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor);
+    }
+
+    private static ScheduledExecutorService createExecutor(int threads, NamedThreadFactory threadFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be strictly positive, got " + threads);
+        }
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(threads, threadFactory);
+        // discard the pending triggers on termination
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        return executor;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#schedule(java.lang.Runnable, long)
+     */
+    @Override
+    public void schedule(Runnable trigger, long epochMillis) {
+        Objects.requireNonNull(trigger);
+        try {
+            executor.schedule(trigger, epochMillis - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("The engine has been terminated", e);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#terminate()
+     */
+    @Override
+    public void terminate() {
+        executor.shutdown();
+    }
+}
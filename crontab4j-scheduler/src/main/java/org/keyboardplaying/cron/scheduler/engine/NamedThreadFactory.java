@@ -0,0 +1,43 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadFactory} creating threads with a common name prefix, optionally running as daemons.
+ * <p/>
+ * Threads are named after the prefix followed by a sequence number, starting at {@code 1}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class NamedThreadFactory implements ThreadFactory {
+
+    private final String name;
+    private final boolean daemon;
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name   the prefix of the name of the created threads
+     * @param daemon {@code true} if the created threads should run as daemons, {@code false} otherwise
+     * @throws NullPointerException if {@code name} is {@code null}
+     */
+    public NamedThreadFactory(String name, boolean daemon) {
+        this.name = Objects.requireNonNull(name);
+        this.daemon = daemon;
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see java.util.concurrent.ThreadFactory#newThread(java.lang.Runnable)
+     */
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread thread = new Thread(r, name + '-' + sequence.incrementAndGet());
+        thread.setDaemon(daemon);
+        return thread;
+    }
+}
@@ -0,0 +1,253 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link TriggerEngine} calling its triggers with sub-millisecond accuracy.
+ * <p/>
+ * The thread of the engine waits on deadlines of the monotonic clock ({@link System#nanoTime()}), which is not
+ * affected by the adjustments of the wall clock. The wall clock is mapped onto the monotonic one by spinning until it
+ * ticks, which gives the offset between both clocks within a few microseconds. This offset is checked again on every
+ * wakeup: if the wall clock was stepped (NTP adjustment, resumed virtual machine, ...), the mapping is computed again
+ * and the deadlines follow the new wall time, so that a trigger is never called before its due time.
+ * <p/>
+ * Parking a thread usually wakes it up late. The engine keeps a moving average of this overshoot, parks until that
+ * much before the deadline, then spins for the remaining time. The spinning phase is bounded by
+ * {@link #MAX_SPIN_NANOS}, hence costs at most a couple of milliseconds of CPU per distinct due time.
+ * <p/>
+ * Triggers are called by a single thread, in the order of their due time.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class PrecisionTriggerEngine implements TriggerEngine {
+
+    /** The maximal duration of the final spinning phase, in nanoseconds. */
+    public static final long MAX_SPIN_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private static final String DEFAULT_THREAD_NAME = "crontab4j-precision";
+    private static final long NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    // the longest park, so that a step of the wall clock is noticed even when nothing is due soon
+    private static final long MAX_PARK_NANOS = TimeUnit.SECONDS.toNanos(1);
+    // the initial guess of the overshoot, until it has been measured
+    private static final long INITIAL_OVERSHOOT_NANOS = 100_000L;
+    // the difference between the wall clock and its mapping beyond which the wall clock is deemed stepped
+    private static final long MAX_SKEW_MILLIS = 2L;
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    private final Thread thread;
+    private volatile boolean terminated;
+    // set when a trigger is scheduled before the one the thread is waiting for
+    private volatile boolean headChanged;
+    // guarded by the lock on queue
+    private long sequence;
+
+    // only accessed by the thread of the engine
+    private long offsetNanos;
+    private long overshootNanos = INITIAL_OVERSHOOT_NANOS;
+
+    /**
+     * Creates a new engine whose thread runs as a daemon.
+     */
+    public PrecisionTriggerEngine() {
+        this(DEFAULT_THREAD_NAME, true);
+    }
+
+    /**
+     * Creates a new engine and starts its thread.
+     *
+     * @param threadName the name of the thread calling the triggers
+     * @param daemon     {@code true} if the thread should run as a daemon, {@code false} otherwise
+     * @throws NullPointerException if {@code threadName} is {@code null}
+     */
+    public PrecisionTriggerEngine(String threadName, boolean daemon) {
+        this.thread = new Thread(this::loop, Objects.requireNonNull(threadName));
+        this.thread.setDaemon(daemon);
+        this.thread.start();
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#schedule(java.lang.Runnable, long)
+     */
+    @Override
+    public void schedule(Runnable trigger, long epochMillis) {
+        Objects.requireNonNull(trigger);
+        boolean wakeUp;
+        synchronized (queue) {
+            if (terminated) {
+                throw new IllegalStateException("The engine has been terminated");
+            }
+            Entry entry = new Entry(trigger, epochMillis, sequence++);
+            queue.add(entry);
+            // the thread only needs to wait less if the new trigger is the first one
+            wakeUp = queue.peek() == entry;
+        }
+        if (wakeUp && Thread.currentThread() != thread) {
+            headChanged = true;
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#terminate()
+     */
+    @Override
+    public void terminate() {
+        terminated = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void loop() {
+        calibrate();
+        List<Runnable> fired = new ArrayList<>();
+        while (!terminated) {
+            checkWallClock();
+            long dueMillis;
+            synchronized (queue) {
+                headChanged = false;
+                Entry head = queue.peek();
+                dueMillis = head == null ? Long.MAX_VALUE : head.epochMillis;
+            }
+            if (dueMillis == Long.MAX_VALUE) {
+                // nothing to wait for: scheduling a trigger or terminating the engine unparks the thread
+                LockSupport.park(this);
+            } else if (awaitWallMillis(dueMillis)) {
+                fire(fired);
+            }
+        }
+        synchronized (queue) {
+            // release the references to the triggers
+            queue.clear();
+        }
+    }
+
+    /**
+     * Calls all the triggers which are due.
+     *
+     * @param fired a buffer for the triggers to call, empty when this method returns
+     */
+    private void fire(List<Runnable> fired) {
+        long nowMillis = Math.floorDiv(wallNanos(), NANOS_PER_MILLI);
+        synchronized (queue) {
+            while (!queue.isEmpty() && queue.peek().epochMillis <= nowMillis) {
+                fired.add(queue.poll().trigger);
+            }
+        }
+        for (Runnable trigger : fired) {
+            if (terminated) {
+                break;
+            }
+            try {
+                trigger.run();
+            } catch (RuntimeException e) {
+                // a failing trigger must not prevent the other ones from being called, but is reported
+                thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+            }
+        }
+        fired.clear();
+    }
+
+    /**
+     * Waits until the supplied wall time, unless the engine is woken up before.
+     *
+     * @param dueMillis the wall time to wait for, as milliseconds since the epoch
+     * @return {@code true} if the wall time was reached, {@code false} if the engine was woken up before and should
+     *         check its triggers again
+     */
+    private boolean awaitWallMillis(long dueMillis) {
+        // beyond year 2262, the deadline cannot be expressed in nanoseconds: wait for the longest park
+        long remaining = dueMillis >= Long.MAX_VALUE / NANOS_PER_MILLI ? Long.MAX_VALUE
+                : dueMillis * NANOS_PER_MILLI - wallNanos();
+        long deadline = System.nanoTime() + remaining;
+        long parking = remaining - overshootNanos;
+        if (parking > 0) {
+            long parked = Math.min(parking, MAX_PARK_NANOS);
+            long start = System.nanoTime();
+            LockSupport.parkNanos(this, parked);
+            long overshoot = System.nanoTime() - start - parked;
+            if (overshoot >= 0) {
+                // moving average over the last 8 wakeups, bounded so that the spinning phase remains short
+                overshootNanos = Math.min(overshootNanos + ((overshoot - overshootNanos) >> 3), MAX_SPIN_NANOS);
+            }
+            // woken up early or parked for the longest allowed: check the clocks and the triggers again
+            return false;
+        }
+        // final phase: spin for the expected overshoot, checking whether a new trigger should be called sooner
+        while (System.nanoTime() - deadline < 0) {
+            if (terminated || headChanged) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the current wall time according to the monotonic clock.
+     *
+     * @return the current wall time, as nanoseconds since the epoch
+     */
+    private long wallNanos() {
+        return System.nanoTime() + offsetNanos;
+    }
+
+    /**
+     * Computes the mapping of the wall clock onto the monotonic one again if the wall clock was stepped.
+     */
+    private void checkWallClock() {
+        long nowMillis = System.currentTimeMillis();
+        long expectedMillis = Math.floorDiv(wallNanos(), NANOS_PER_MILLI);
+        // the wall clock ticks every millisecond at best and may be slewed, so that small differences are expected
+        if (Math.abs(nowMillis - expectedMillis) > MAX_SKEW_MILLIS) {
+            calibrate();
+        }
+    }
+
+    /**
+     * Maps the wall clock onto the monotonic one, by spinning until the next tick of the wall clock.
+     */
+    private void calibrate() {
+        long start = System.currentTimeMillis();
+        long nowMillis;
+        do {
+            nowMillis = System.currentTimeMillis();
+        } while (nowMillis == start);
+        offsetNanos = nowMillis * NANOS_PER_MILLI - System.nanoTime();
+    }
+
+    /**
+     * A trigger and its due time, ordered by due time then by scheduling order.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static final class Entry implements Comparable<Entry> {
+
+        private final Runnable trigger;
+        private final long epochMillis;
+        private final long sequence;
+
+        Entry(Runnable trigger, long epochMillis, long sequence) {
+            this.trigger = trigger;
+            this.epochMillis = epochMillis;
+            this.sequence = sequence;
+        }
+
+        /*
+         * (non-Javadoc)
+         *
+         * @see java.lang.Comparable#compareTo(java.lang.Object)
+         */
+        @Override
+        public int compareTo(Entry other) {
+            int result = Long.compare(epochMillis, other.epochMillis);
+            return result == 0 ? Long.compare(sequence, other.sequence) : result;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel, keeping triggers until they are due.
+ * <p/>
+ * Time is measured in ticks of one second, matching the finest granularity of a CRON expression. The wheel has four
+ * levels: 60 slots of a second, 60 slots of a minute, 24 slots of an hour and 366 slots of a day. A trigger is stored
+ * in the finest level covering its distance to the current tick; when the wheel reaches the start of a slot of a
+ * coarser level, the triggers of that slot are moved down to a finer level. Triggers more than 366 days ahead wait in
+ * an overflow list, examined once a day.
+ * <p/>
+ * Adding a trigger and firing it are both constant-time operations, whatever the number of triggers in the wheel.
+ * <p/>
+ * This class is not thread-safe.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+// package-restricted
+final class TimingWheel {
+
+    private static final int[] SLOTS = { 60, 60, 24, 366 };
+    private static final long[] TICKS_PER_SLOT = { 1L, 60L, 3600L, 86400L };
+
+    private final Node[][] wheels = new Node[SLOTS.length][];
+    private Node overflow;
+    // triggers which were already due when added
+    private Node due;
+    private long currentTick;
+    private int size;
+
+    /**
+     * A trigger stored in the wheel, as a node of a singly-linked list.
+     */
+    private static final class Node {
+
+        private final Runnable trigger;
+        private final long tick;
+        private Node next;
+
+        Node(Runnable trigger, long tick) {
+            this.trigger = trigger;
+            this.tick = tick;
+        }
+    }
+
+    /**
+     * Creates a new wheel.
+     *
+     * @param currentTick the current tick; triggers added for this tick or before are due immediately
+     */
+    TimingWheel(long currentTick) {
+        for (int i = 0; i < SLOTS.length; i++) {
+            wheels[i] = new Node[SLOTS[i]];
+        }
+        this.currentTick = currentTick;
+    }
+
+    /**
+     * Returns the last tick the wheel was advanced to.
+     *
+     * @return the current tick
+     */
+    long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Returns the number of triggers in the wheel.
+     *
+     * @return the number of triggers
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Tests whether some triggers are due without advancing the wheel.
+     *
+     * @return {@code true} if some triggers were added for the current tick or before
+     */
+    boolean hasDue() {
+        return due != null;
+    }
+
+    /**
+     * Adds a trigger to the wheel.
+     *
+     * @param trigger the trigger
+     * @param tick    the tick the trigger is due at
+     */
+    void add(Runnable trigger, long tick) {
+        Node node = new Node(trigger, tick);
+        if (tick <= currentTick) {
+            node.next = due;
+            due = node;
+        } else {
+            place(node);
+        }
+        size++;
+    }
+
+    /**
+     * Advances the wheel up to the supplied tick and collects the triggers which became due.
+     * <p/>
+     * If the supplied tick is before the current tick, only the triggers which are already due are collected.
+     *
+     * @param tick  the tick to advance to
+     * @param fired the list to add the due triggers to
+     */
+    void advance(long tick, List<Runnable> fired) {
+        collect(due, fired);
+        due = null;
+
+        if (size == 0) {
+            // nothing to cascade, jump directly
+            currentTick = Math.max(currentTick, tick);
+            return;
+        }
+        while (currentTick < tick) {
+            advanceOne(currentTick + 1, fired);
+            if (size == 0) {
+                currentTick = tick;
+            }
+        }
+    }
+
+    private void advanceOne(long tick, List<Runnable> fired) {
+        currentTick = tick;
+        // cascade from the coarsest level down, so that a trigger can go down several levels at once
+        if (tick % TICKS_PER_SLOT[3] == 0) {
+            Node far = overflow;
+            overflow = null;
+            replace(far, fired);
+        }
+        for (int level = SLOTS.length - 1; level > 0; level--) {
+            if (tick % TICKS_PER_SLOT[level] == 0) {
+                int slot = slot(tick, level);
+                Node nodes = wheels[level][slot];
+                wheels[level][slot] = null;
+                replace(nodes, fired);
+            }
+        }
+
+        int slot = slot(tick, 0);
+        Node nodes = wheels[0][slot];
+        wheels[0][slot] = null;
+        replace(nodes, fired);
+    }
+
+    /**
+     * Removes all triggers from the wheel.
+     */
+    void clear() {
+        for (Node[] wheel : wheels) {
+            Arrays.fill(wheel, null);
+        }
+        overflow = null;
+        due = null;
+        size = 0;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) Math.floorMod(Math.floorDiv(tick, TICKS_PER_SLOT[level]), (long) SLOTS[level]);
+    }
+
+    /**
+     * Collects the nodes of the list which are due and places the other ones again.
+     */
+    private void replace(Node nodes, List<Runnable> fired) {
+        Node node = nodes;
+        while (node != null) {
+            Node next = node.next;
+            node.next = null;
+            if (node.tick <= currentTick) {
+                fired.add(node.trigger);
+                size--;
+            } else {
+                place(node);
+            }
+            node = next;
+        }
+    }
+
+    private void collect(Node nodes, List<Runnable> fired) {
+        for (Node node = nodes; node != null; node = node.next) {
+            fired.add(node.trigger);
+            size--;
+        }
+    }
+
+    /**
+     * Places a node which is not due yet in the finest level covering its distance to the current tick.
+     */
+    private void place(Node node) {
+        long delta = node.tick - currentTick;
+        for (int level = 0; level < SLOTS.length; level++) {
+            if (delta < TICKS_PER_SLOT[level] * SLOTS[level]) {
+                int slot = slot(node.tick, level);
+                node.next = wheels[level][slot];
+                wheels[level][slot] = node;
+                return;
+            }
+        }
+        node.next = overflow;
+        overflow = node;
+    }
+}
@@ -0,0 +1,143 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link TriggerEngine} based on a hierarchical timing wheel.
+ * <p/>
+ * Scheduling a trigger costs the same whatever the number of triggers already scheduled, which makes this engine
+ * suitable for very large numbers of jobs. Its resolution is one second: a trigger is called at the start of the first
+ * second it is due in, never before.
+ * <p/>
+ * Triggers are called by a single thread, which wakes up once a second as long as some triggers are scheduled.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class TimingWheelTriggerEngine implements TriggerEngine {
+
+    private static final long MILLIS_PER_TICK = 1000L;
+    private static final String DEFAULT_THREAD_NAME = "crontab4j-wheel";
+
+    private final TimingWheel wheel;
+    private final Thread thread;
+    private volatile boolean terminated;
+
+    /**
+     * Creates a new engine whose thread runs as a daemon.
+     */
+    public TimingWheelTriggerEngine() {
+        this(DEFAULT_THREAD_NAME, true);
+    }
+
+    /**
+     * Creates a new engine and starts its thread.
+     *
+     * @param threadName the name of the thread calling the triggers
+     * @param daemon     {@code true} if the thread should run as a daemon, {@code false} otherwise
+     * @throws NullPointerException if {@code threadName} is {@code null}
+     */
+    public TimingWheelTriggerEngine(String threadName, boolean daemon) {
+        this.wheel = new TimingWheel(currentTick());
+        this.thread = new Thread(this::loop, Objects.requireNonNull(threadName));
+        this.thread.setDaemon(daemon);
+        this.thread.start();
+    }
+
+    /**
+     * Returns the last tick which was reached.
+     */
+    private static long currentTick() {
+        return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_TICK);
+    }
+
+    /**
+     * Returns the tick a trigger is due at, rounding up so that nothing is called before it is due.
+     */
+    private static long toTick(long epochMillis) {
+        return Math.floorDiv(epochMillis + MILLIS_PER_TICK - 1, MILLIS_PER_TICK);
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#schedule(java.lang.Runnable, long)
+     */
+    @Override
+    public void schedule(Runnable trigger, long epochMillis) {
+        Objects.requireNonNull(trigger);
+        boolean wakeUp;
+        synchronized (wheel) {
+            if (terminated) {
+                throw new IllegalStateException("The engine has been terminated");
+            }
+            wheel.add(trigger, toTick(epochMillis));
+            // the thread sleeps indefinitely while the wheel is empty
+            wakeUp = wheel.hasDue() || wheel.size() == 1;
+        }
+        if (wakeUp && Thread.currentThread() != thread) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see org.keyboardplaying.cron.scheduler.engine.TriggerEngine#terminate()
+     */
+    @Override
+    public void terminate() {
+        terminated = true;
+        LockSupport.unpark(thread);
+    }
+
+    private void loop() {
+        List<Runnable> fired = new ArrayList<>();
+        while (!terminated) {
+            long waitUntil;
+            synchronized (wheel) {
+                wheel.advance(currentTick(), fired);
+            }
+
+            for (Runnable trigger : fired) {
+                if (terminated) {
+                    break;
+                }
+                try {
+                    trigger.run();
+                } catch (RuntimeException e) {
+                    // a failing trigger must not prevent the other ones from being called, but is reported
+                    thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+                }
+            }
+            fired.clear();
+
+            synchronized (wheel) {
+                if (wheel.hasDue()) {
+                    continue;
+                }
+                // sleep until the next tick, or until a trigger is scheduled if there is nothing to wait for
+                waitUntil = wheel.size() == 0 ? Long.MAX_VALUE : (wheel.getCurrentTick() + 1) * MILLIS_PER_TICK;
+            }
+            park(waitUntil);
+        }
+        synchronized (wheel) {
+            // release the references to the triggers
+            wheel.clear();
+        }
+    }
+
+    private void park(long waitUntil) {
+        if (waitUntil == Long.MAX_VALUE) {
+            LockSupport.park(this);
+        } else {
+            long delay = waitUntil - System.currentTimeMillis();
+            if (delay > 0) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(delay));
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+/**
+ * The engine waking the scheduler up when a trigger is due.
+ * <p/>
+ * A trigger only performs the bookkeeping of the scheduler (computing the next occurrence, handing the job over for
+ * execution) and is expected to return quickly; jobs are never run by the engine itself. An exception thrown by a
+ * trigger must not prevent the engine from calling the other ones.
+ * <p/>
+ * Implementations must be thread-safe, as triggers are usually scheduled from within other triggers.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public interface TriggerEngine {
+
+    /**
+     * Schedules a trigger to be called at the supplied time.
+     * <p/>
+     * If the time is already past, the trigger is called as soon as possible.
+     *
+     * @param trigger     the trigger to call
+     * @param epochMillis the time the trigger is due at, as milliseconds since the epoch
+     * @throws NullPointerException  if {@code trigger} is {@code null}
+     * @throws IllegalStateException if this engine has been terminated
+     */
+    void schedule(Runnable trigger, long epochMillis);
+
+    /**
+     * Terminates this engine, discarding any currently scheduled trigger. Does not interfere with a trigger being
+     * called, if any.
+     * <p/>
+     * This method may be called repeatedly; the second and subsequent calls have no effect.
+     */
+    void terminate();
+}
@@ -0,0 +1,4 @@
+/**
+ * The engines responsible for calling the triggers of the scheduler at the right time.
+ */
+package org.keyboardplaying.cron.scheduler.engine;
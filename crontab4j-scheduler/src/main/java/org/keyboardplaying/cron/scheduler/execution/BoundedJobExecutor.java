@@ -0,0 +1,219 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.keyboardplaying.cron.scheduler.engine.NamedThreadFactory;
+
+/**
+ * An {@link Executor} running jobs on a bounded pool of threads with a bounded queue.
+ * <p/>
+ * When all threads are busy and the queue is full, the {@link OverflowPolicy} decides what becomes of the new firings.
+ * A firing which is discarded does not throw: a {@link DroppableJob} is notified instead.
+ * Idle threads are released after a while, so that a pool sized for the busiest instants costs nothing the rest of the
+ * time.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class BoundedJobExecutor implements Executor {
+
+    /**
+     * The default maximal number of threads running jobs.
+     */
+    public static final int DEFAULT_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    /**
+     * The default maximal number of jobs waiting for a thread.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private static final String DEFAULT_THREAD_NAME = "crontab4j-job";
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final ThreadPoolExecutor pool;
+    private final OverflowPolicy policy;
+    // the jobs currently waiting in the queue, unwrapped, only used by the COALESCE policy
+    private final Set<Runnable> pending;
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Creates a new executor with the default number of threads and queue capacity, queuing the firings on overflow.
+     */
+    public BoundedJobExecutor() {
+        this(DEFAULT_THREADS, DEFAULT_QUEUE_CAPACITY, OverflowPolicy.QUEUE);
+    }
+
+    /**
+     * Creates a new executor whose threads run as daemons.
+     *
+     * @param threads       the maximal number of threads running jobs
+     * @param queueCapacity the maximal number of jobs waiting for a thread
+     * @param policy        what to do with new firings when all threads are busy and the queue is full
+     * @throws IllegalArgumentException if {@code threads} or {@code queueCapacity} is not strictly positive
+     * @throws NullPointerException     if {@code policy} is {@code null}
+     */
+    public BoundedJobExecutor(int threads, int queueCapacity, OverflowPolicy policy) {
+        this(threads, queueCapacity, policy, new NamedThreadFactory(DEFAULT_THREAD_NAME, true));
+    }
+
+    /**
+     * Creates a new executor.
+     *
+     * @param threads       the maximal number of threads running jobs
+     * @param queueCapacity the maximal number of jobs waiting for a thread
+     * @param policy        what to do with new firings when all threads are busy and the queue is full
+     * @param threadFactory the factory creating the threads running jobs
+     * @throws IllegalArgumentException if {@code threads} or {@code queueCapacity} is not strictly positive
+     * @throws NullPointerException     if {@code policy} or {@code threadFactory} is {@code null}
+     */
+    public BoundedJobExecutor(int threads, int queueCapacity, OverflowPolicy policy, ThreadFactory threadFactory) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The number of threads must be strictly positive, got " + threads);
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("The queue capacity must be strictly positive, got " + queueCapacity);
+        }
+        this.policy = Objects.requireNonNull(policy);
+        this.pending = policy == OverflowPolicy.COALESCE ? ConcurrentHashMap.<Runnable> newKeySet() : null;
+        this.pool = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), Objects.requireNonNull(threadFactory),
+                new OverflowHandler());
+        this.pool.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Returns the policy applied when all threads are busy and the queue is full.
+     *
+     * @return the overflow policy
+     */
+    public OverflowPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Returns the number of firings which were discarded, either because of the {@link OverflowPolicy#DROP} policy or
+     * because they were coalesced with a pending execution.
+     *
+     * @return the number of discarded firings
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Runs the supplied job on one of the threads of this executor, or applies the overflow policy.
+     *
+     * @param job the job to run
+     * @throws NullPointerException       if {@code job} is {@code null}
+     * @throws RejectedExecutionException if this executor has been shut down
+     */
+    @Override
+    public void execute(Runnable job) {
+        Objects.requireNonNull(job);
+        if (pending == null) {
+            pool.execute(job);
+            return;
+        }
+        Runnable key = job instanceof WrappedJob ? ((WrappedJob) job).getJob() : job;
+        if (pending.add(key)) {
+            pool.execute(new CoalescedJob(key, job));
+        } else {
+            drop(job);
+        }
+    }
+
+    private void drop(Runnable job) {
+        dropped.incrementAndGet();
+        if (job instanceof DroppableJob) {
+            ((DroppableJob) job).dropped();
+        }
+    }
+
+    /**
+     * Shuts this executor down. Jobs which are running or waiting in the queue are still run, but no new job is
+     * accepted.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Blocks until all jobs have completed after a shutdown request, or the timeout occurs, or the current thread is
+     * interrupted, whichever happens first.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit    the time unit of the timeout argument
+     * @return {@code true} if this executor terminated, {@code false} if the timeout elapsed before termination
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    /**
+     * A job which is removed from the pending jobs when it starts.
+     */
+    private final class CoalescedJob implements Runnable {
+
+        private final Runnable key;
+        private final Runnable job;
+
+        CoalescedJob(Runnable key, Runnable job) {
+            this.key = key;
+            this.job = job;
+        }
+
+        @Override
+        public void run() {
+            // from now on, a new firing needs a new execution
+            pending.remove(key);
+            job.run();
+        }
+    }
+
+    /**
+     * Applies the {@link OverflowPolicy} to the jobs the pool rejected.
+     */
+    private final class OverflowHandler implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            if (executor.isShutdown()) {
+                release(r);
+                throw new RejectedExecutionException("The executor has been shut down");
+            }
+
+            switch (policy) {
+                case QUEUE:
+                    try {
+                        executor.getQueue().put(r);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new RejectedExecutionException("Interrupted while waiting for room in the queue", e);
+                    }
+                    break;
+                case RUN_INLINE:
+                    r.run();
+                    break;
+                default:
+                    release(r);
+                    drop(r instanceof CoalescedJob ? ((CoalescedJob) r).job : r);
+                    break;
+            }
+        }
+
+        private void release(Runnable r) {
+            if (r instanceof CoalescedJob) {
+                pending.remove(((CoalescedJob) r).key);
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+/**
+ * A job which is told when an executor discards it instead of running it.
+ * <p/>
+ * An executor dropping a firing on overflow does not throw, so that an overloaded executor does not flood the trigger
+ * threads with exceptions. A job holding a resource until it ends (e.g. a slot limiting the number of its concurrent
+ * instances) implements this interface to release the resource when it is dropped.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see BoundedJobExecutor
+ */
+public interface DroppableJob extends Runnable {
+
+    /**
+     * Called instead of {@link #run()} when the executor discards this job. Called at most once, by the thread which
+     * handed the job over.
+     */
+    void dropped();
+}
@@ -0,0 +1,71 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Factory methods for the executors running the jobs of a {@link org.keyboardplaying.cron.scheduler.CronScheduler}.
+ * <p/>
+ * Virtual threads are looked up by reflection, so that this library still runs on Java 8: when they are not
+ * available, the factory falls back to a {@link BoundedJobExecutor}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public final class JobExecutors {
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = findVirtualThreadExecutorFactory();
+
+    /**
+     * Private constructor to avoid instantiation.
+     */
+    private JobExecutors() {
+    }
+
+    /**
+     * Looks up {@code Executors.newVirtualThreadPerTaskExecutor()} and ensures it can actually be called (it throws
+     * on Java 19 and 20 when preview features are disabled).
+     *
+     * @return the factory method, or {@code null} if virtual threads are not available
+     */
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            ((ExecutorService) method.invoke(null)).shutdown();
+            return method;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Tests whether the running JVM supports virtual threads.
+     *
+     * @return {@code true} if virtual threads are available, {@code false} otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor running each job on a new virtual thread.
+     * <p/>
+     * Virtual threads are cheap enough to run tens of thousands of I/O-bound jobs concurrently, hence this executor is
+     * unbounded. On a JVM without virtual threads, a {@link BoundedJobExecutor} with default settings is returned
+     * instead.
+     *
+     * @return an executor running jobs on virtual threads if possible
+     * @see #isVirtualThreadSupported()
+     */
+    public static Executor newVirtualThreadExecutor() {
+        if (NEW_VIRTUAL_THREAD_EXECUTOR != null) {
+            try {
+                return (Executor) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // checked when looking the method up, should not happen; fall back anyway
+            }
+        }
+        return new BoundedJobExecutor();
+    }
+}
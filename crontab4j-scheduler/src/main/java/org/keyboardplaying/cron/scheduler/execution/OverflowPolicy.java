@@ -0,0 +1,30 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+/**
+ * What a {@link BoundedJobExecutor} does with a triggered job when all its threads are busy and its queue is full.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public enum OverflowPolicy {
+    /**
+     * The triggering thread waits until there is room in the queue. No firing is lost, but the following triggers are
+     * delayed.
+     */
+    QUEUE,
+    /**
+     * The firing is discarded.
+     */
+    DROP,
+    /**
+     * The job is run by the triggering thread itself. No firing is lost, but the following triggers are delayed until
+     * the job completes.
+     */
+    RUN_INLINE,
+    /**
+     * A job which is already waiting in the queue is not queued a second time, as its pending execution will serve
+     * both firings. When the queue is full, the firing is discarded.
+     * <p/>
+     * The firings of a {@link WrappedJob} are compared by the job they wrap.
+     */
+    COALESCE
+}
@@ -0,0 +1,21 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+/**
+ * A task standing for a job, such as one instance of a job whose concurrent instances are limited, or a job run
+ * several times in a row.
+ * <p/>
+ * A new task wraps the job on each firing, so that an executor coalescing identical jobs compares the wrapped jobs
+ * rather than the tasks.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ * @see OverflowPolicy#COALESCE
+ */
+public interface WrappedJob extends Runnable {
+
+    /**
+     * Returns the job this task stands for.
+     *
+     * @return the wrapped job
+     */
+    Runnable getJob();
+}
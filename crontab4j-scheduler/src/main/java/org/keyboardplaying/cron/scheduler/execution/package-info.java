@@ -0,0 +1,4 @@
+/**
+ * The executors running the jobs once they have been triggered.
+ */
+package org.keyboardplaying.cron.scheduler.execution;
@@ -1,12 +1,15 @@
 package org.keyboardplaying.cron.expression;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 import org.keyboardplaying.cron.expression.CronExpression.Builder;
 import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
 import org.keyboardplaying.cron.expression.CronExpression.Field;
 import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.BitmaskRule;
 import org.keyboardplaying.cron.expression.rule.CronRule;
 import org.keyboardplaying.cron.expression.rule.MultipleRule;
 import org.keyboardplaying.cron.expression.rule.RangeRule;
@@ -47,6 +50,64 @@ public class CronExpressionTest {
         assertEquals(DayConstraint.NONE, cron.getDayConstraint());
     }
 
+    /**
+     * Tests the compiled rules are equivalent to the rules they were compiled from.
+     */
+    @Test
+    public void testCompiled() {
+        CronRule any = new AnyValueRule();
+        CronRule onlyWorkHours = new MultipleRule(new RangeRule(8, 12), new RangeRule(14, 18));
+
+        CronExpression cron = Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new RepeatRule(0, 59, 15)).set(Field.HOUR, onlyWorkHours)
+                .set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any)
+                .set(DayConstraint.NONE).build();
+
+        for (Field field : Field.values()) {
+            if (field == Field.YEAR) {
+                // too wide to be compiled
+                assertEquals(any, cron.getCompiled(field));
+                continue;
+            }
+            CronRule compiled = cron.getCompiled(field);
+            assertTrue(compiled instanceof BitmaskRule);
+            for (int i = field.getMin(); i <= field.getMax(); i++) {
+                assertEquals(field + " " + i, cron.get(field).allows(i), compiled.allows(i));
+            }
+        }
+        assertEquals(1L | 1L << 15 | 1L << 30 | 1L << 45, ((BitmaskRule) cron.getCompiled(Field.MINUTE)).getMask());
+    }
+
+    /**
+     * Tests expressions allowing the same values are equal, whatever their rules look like.
+     */
+    @Test
+    public void testEquals() {
+        CronRule any = new AnyValueRule();
+
+        CronExpression quarters = Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new RepeatRule(0, 59, 15)).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any)
+                .set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any).set(DayConstraint.NONE)
+                .build();
+        CronExpression sameQuarters = Builder.create().set(Field.SECOND, new RangeRule(0, 0))
+                .set(Field.MINUTE,
+                        new MultipleRule(new SingleValueRule(0), new SingleValueRule(15), new RepeatRule(30, 45, 15)))
+                .set(Field.HOUR, new RangeRule(0, 23)).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, any).set(Field.YEAR, new AnyValueRule()).set(DayConstraint.NONE).build();
+
+        assertEquals(quarters, sameQuarters);
+        assertEquals(quarters.hashCode(), sameQuarters.hashCode());
+
+        assertNotEquals(quarters, Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new RepeatRule(0, 59, 15)).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any)
+                .set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any).set(DayConstraint.BOTH_OR)
+                .build());
+        assertNotEquals(quarters, Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new RepeatRule(0, 59, 15)).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any)
+                .set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, new SingleValueRule(2030))
+                .set(DayConstraint.NONE).build());
+    }
+
     /**
      * Tests the creation of a {@link CronExpression and the setting} with a missing rule.
      */
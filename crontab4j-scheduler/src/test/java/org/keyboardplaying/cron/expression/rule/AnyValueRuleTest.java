@@ -35,4 +35,22 @@ public class AnyValueRuleTest {
         assertTrue(rule.allows(42));
         assertTrue(rule.allows(1337));
     }
+
+    /**
+     * Tests that the next allowed value is always the supplied one.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(0, rule.nextAllowed(0));
+        assertEquals(42, rule.nextAllowed(42));
+    }
+
+    /**
+     * Tests that the previous allowed value is always the supplied one.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(0, rule.previousAllowed(0));
+        assertEquals(42, rule.previousAllowed(42));
+    }
 }
@@ -0,0 +1,93 @@
+package org.keyboardplaying.cron.expression.rule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BitmaskRule}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class BitmaskRuleTest {
+
+    // 0-10/2,15,30-45
+    private CronRule source = new MultipleRule(new RepeatRule(0, 10, 2), new SingleValueRule(15),
+            new RangeRule(30, 45));
+    private BitmaskRule rule = BitmaskRule.compile(source, 0, 59);
+
+    /**
+     * Tests {@link BitmaskRule#hasMax()} and {@link BitmaskRule#getMax()} methods.
+     */
+    @Test
+    public void testMax() {
+        assertTrue(rule.hasMax());
+        assertEquals(45, rule.getMax());
+        assertEquals(-1, new BitmaskRule(0L).getMax());
+        assertEquals(BitmaskRule.MAX_VALUE, new BitmaskRule(-1L).getMax());
+    }
+
+    /**
+     * Ensures the compiled rule allows exactly the same values as the source rule within the compiled range.
+     */
+    @Test
+    public void testCompile() {
+        for (int i = 0; i <= 59; i++) {
+            assertEquals(String.valueOf(i), source.allows(i), rule.allows(i));
+        }
+    }
+
+    /**
+     * Ensures values outside the compiled range are rejected, even if the source rule allowed them.
+     */
+    @Test
+    public void testOutOfRange() {
+        BitmaskRule any = BitmaskRule.compile(new AnyValueRule(), 1, 31);
+        assertFalse(any.allows(-1));
+        assertFalse(any.allows(0));
+        assertTrue(any.allows(1));
+        assertTrue(any.allows(31));
+        assertFalse(any.allows(32));
+        assertFalse(any.allows(64));
+        assertFalse(any.allows(65));
+        assertEquals(any, BitmaskRule.compile(any, 1, 31));
+        assertEquals(new BitmaskRule(2L), BitmaskRule.compile(any, 0, 1));
+    }
+
+    /**
+     * Ensures a range wider than a {@code long} cannot be compiled.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRange() {
+        BitmaskRule.compile(new AnyValueRule(), 1970, 9999);
+    }
+
+    /**
+     * Tests the search of the next allowed value gives the same results as the source rule.
+     */
+    @Test
+    public void testNextAllowed() {
+        for (int i = 0; i <= 60; i++) {
+            assertEquals(String.valueOf(i), source.nextAllowed(i), rule.nextAllowed(i));
+        }
+        assertEquals(0, rule.nextAllowed(-5));
+        assertEquals(-1, rule.nextAllowed(64));
+        assertEquals(BitmaskRule.MAX_VALUE, new BitmaskRule(-1L).nextAllowed(BitmaskRule.MAX_VALUE));
+    }
+
+    /**
+     * Tests the search of the previous allowed value gives the same results as the source rule.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        for (int i = 0; i <= 59; i++) {
+            assertEquals(String.valueOf(i), source.previousAllowed(i), rule.previousAllowed(i));
+        }
+        assertEquals(-1, rule.previousAllowed(-1));
+        assertEquals(45, rule.previousAllowed(64));
+        assertEquals(BitmaskRule.MAX_VALUE, new BitmaskRule(-1L).previousAllowed(BitmaskRule.MAX_VALUE));
+        assertEquals(BitmaskRule.MAX_VALUE - 1, new BitmaskRule(Long.MAX_VALUE).previousAllowed(BitmaskRule.MAX_VALUE));
+    }
+}
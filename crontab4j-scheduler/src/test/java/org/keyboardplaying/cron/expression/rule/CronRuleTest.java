@@ -0,0 +1,56 @@
+package org.keyboardplaying.cron.expression.rule;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests the default methods of {@link CronRule}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class CronRuleTest {
+
+    // an implementation relying on the default methods, allowing the even values between 4 and 10
+    private CronRule rule = new CronRule() {
+
+        @Override
+        public boolean allows(int value) {
+            return value >= 4 && value <= 10 && value % 2 == 0;
+        }
+
+        @Override
+        public boolean hasMax() {
+            return true;
+        }
+
+        @Override
+        public int getMax() {
+            return 10;
+        }
+    };
+
+    /**
+     * Tests the default {@link CronRule#nextAllowed(int)}.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(4, rule.nextAllowed(0));
+        assertEquals(4, rule.nextAllowed(4));
+        assertEquals(6, rule.nextAllowed(5));
+        assertEquals(10, rule.nextAllowed(10));
+        assertEquals(-1, rule.nextAllowed(11));
+    }
+
+    /**
+     * Tests the default {@link CronRule#previousAllowed(int)}.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(10, rule.previousAllowed(59));
+        assertEquals(8, rule.previousAllowed(9));
+        assertEquals(4, rule.previousAllowed(4));
+        assertEquals(-1, rule.previousAllowed(3));
+        assertEquals(-1, rule.previousAllowed(-1));
+    }
+}
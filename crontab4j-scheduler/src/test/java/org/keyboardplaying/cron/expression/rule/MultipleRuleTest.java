@@ -42,4 +42,29 @@ public class MultipleRuleTest {
         assertTrue(rule.allows(42));
         assertFalse(rule.allows(1337));
     }
+
+    /**
+     * Tests the search of the next allowed value returns the lowest candidate of all rules.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(0, rule.nextAllowed(-1));
+        assertEquals(4, rule.nextAllowed(3));
+        assertEquals(15, rule.nextAllowed(11));
+        assertEquals(30, rule.nextAllowed(16));
+        assertEquals(45, rule.nextAllowed(45));
+        assertEquals(-1, rule.nextAllowed(46));
+    }
+
+    /**
+     * Tests the search of the previous allowed value returns the highest candidate of all rules.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(-1, rule.previousAllowed(-1));
+        assertEquals(2, rule.previousAllowed(3));
+        assertEquals(10, rule.previousAllowed(14));
+        assertEquals(15, rule.previousAllowed(29));
+        assertEquals(45, rule.previousAllowed(1337));
+    }
 }
@@ -77,4 +77,28 @@ public class RangeRuleTest {
     public void testIllegalConstructorArguments() {
         new RangeRule(1, 0);
     }
+
+    /**
+     * Tests the search of the next allowed value below, inside and above the range.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(42, rule.nextAllowed(0));
+        assertEquals(42, rule.nextAllowed(42));
+        assertEquals(420, rule.nextAllowed(420));
+        assertEquals(1337, rule.nextAllowed(1337));
+        assertEquals(-1, rule.nextAllowed(1338));
+    }
+
+    /**
+     * Tests the search of the previous allowed value below, inside and above the range.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(-1, rule.previousAllowed(41));
+        assertEquals(42, rule.previousAllowed(42));
+        assertEquals(420, rule.previousAllowed(420));
+        assertEquals(1337, rule.previousAllowed(1337));
+        assertEquals(1337, rule.previousAllowed(9999));
+    }
 }
@@ -111,4 +111,39 @@ public class RepeatRuleTest {
     public void testIllegalConstructorArguments() {
         new RepeatRule(1, 0, 2);
     }
+
+    /**
+     * Tests the search of the next allowed value jumps to the next repetition.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(42, rule.nextAllowed(0));
+        assertEquals(42, rule.nextAllowed(42));
+        assertEquals(45, rule.nextAllowed(43));
+        assertEquals(45, rule.nextAllowed(45));
+        assertEquals(1335, rule.nextAllowed(1334));
+        assertEquals(-1, rule.nextAllowed(1336));
+
+        RepeatRule r = new RepeatRule(1, 31, 10);
+        assertEquals(11, r.nextAllowed(2));
+        assertEquals(31, r.nextAllowed(22));
+        assertEquals(-1, r.nextAllowed(32));
+    }
+
+    /**
+     * Tests the search of the previous allowed value jumps to the previous repetition.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(-1, rule.previousAllowed(41));
+        assertEquals(42, rule.previousAllowed(42));
+        assertEquals(42, rule.previousAllowed(44));
+        assertEquals(45, rule.previousAllowed(45));
+        assertEquals(1335, rule.previousAllowed(9999));
+
+        RepeatRule r = new RepeatRule(1, 31, 10);
+        assertEquals(1, r.previousAllowed(10));
+        assertEquals(21, r.previousAllowed(30));
+        assertEquals(-1, r.previousAllowed(0));
+    }
 }
@@ -42,4 +42,24 @@ public class SingleValueRuleTest {
         assertFalse(rule.allows(0));
         assertFalse(rule.allows(1337));
     }
+
+    /**
+     * Tests the search of the next allowed value.
+     */
+    @Test
+    public void testNextAllowed() {
+        assertEquals(42, rule.nextAllowed(0));
+        assertEquals(42, rule.nextAllowed(42));
+        assertEquals(-1, rule.nextAllowed(43));
+    }
+
+    /**
+     * Tests the search of the previous allowed value.
+     */
+    @Test
+    public void testPreviousAllowed() {
+        assertEquals(-1, rule.previousAllowed(41));
+        assertEquals(42, rule.previousAllowed(42));
+        assertEquals(42, rule.previousAllowed(1337));
+    }
 }
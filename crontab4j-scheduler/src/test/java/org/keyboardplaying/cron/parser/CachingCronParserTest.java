@@ -0,0 +1,177 @@
+package org.keyboardplaying.cron.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.exception.UnsupportedCronException;
+import org.keyboardplaying.cron.expression.CronExpression;
+
+/**
+ * Tests {@link CachingCronParser}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class CachingCronParserTest {
+
+    /**
+     * Ensures a cached expression is returned when parsing the same text twice.
+     */
+    @Test
+    public void testCache() {
+        CachingCronParser prsr = new CachingCronParser(new UnixCronParser());
+
+        CronExpression first = prsr.parse("*/5 * * * *");
+        assertEquals(0, prsr.getHitCount());
+        assertEquals(1, prsr.getMissCount());
+
+        assertSame(first, prsr.parse("*/5 * * * *"));
+        assertEquals(1, prsr.getHitCount());
+        assertEquals(1, prsr.getMissCount());
+        assertEquals(1, prsr.size());
+    }
+
+    /**
+     * Ensures equivalent spellings of the same schedule share a single instance.
+     */
+    @Test
+    public void testInterning() {
+        CachingCronParser prsr = new CachingCronParser(new UnixCronParser());
+
+        assertSame(prsr.parse("@daily"), prsr.parse("@midnight"));
+        assertSame(prsr.parse("0 0 * * 0"), prsr.parse("0 0 * * 7"));
+        assertSame(prsr.parse("0 0 * * 0"), prsr.parse("@weekly"));
+        assertSame(prsr.parse("0 0 1 jan mon-fri"), prsr.parse("0 0 1 1 1-5"));
+        assertSame(prsr.parse("0,30 * * * *"), prsr.parse("*/30 * * * *"));
+        assertNotSame(prsr.parse("0 0 * * *"), prsr.parse("0 0 * * 0"));
+
+        // "0 0 * * 0" was parsed three times
+        assertEquals(2, prsr.getHitCount());
+        assertEquals(10, prsr.getMissCount());
+    }
+
+    /**
+     * Ensures the expressions holding an {@code H} token are cached per job key, and the other ones regardless of it.
+     */
+    @Test
+    public void testKeys() {
+        CachingCronParser prsr = new CachingCronParser(new UnixCronParser());
+        CronSyntacticParser reference = new UnixCronParser();
+
+        assertEquals(reference.parse("H H * * *", "job-1"), prsr.parse("H H * * *", "job-1"));
+        assertSame(prsr.parse("H H * * *", "job-1"), prsr.parse("H H * * *", "job-1"));
+        assertEquals(reference.parse("H H * * *", "job-2"), prsr.parse("H H * * *", "job-2"));
+        assertEquals(reference.parse("H H * * *"), prsr.parse("H H * * *"));
+        assertEquals(3, prsr.size());
+
+        assertSame(prsr.parse("0 0 * * *"), prsr.parse("0 0 * * *", "job-1"));
+        assertSame(prsr.parse("0 0 * * *"), prsr.parse("0 0 * * *", "job-2"));
+        assertEquals(4, prsr.size());
+    }
+
+    /**
+     * Ensures the least recently used expressions are evicted when the cache is full.
+     */
+    @Test
+    public void testEviction() {
+        CachingCronParser prsr = new CachingCronParser(new UnixCronParser(), 2);
+
+        prsr.parse("1 * * * *");
+        prsr.parse("2 * * * *");
+        // access the first one so that the second one is the least recently used
+        prsr.parse("1 * * * *");
+        prsr.parse("3 * * * *");
+        assertEquals(2, prsr.size());
+        assertEquals(1, prsr.getHitCount());
+
+        prsr.parse("1 * * * *");
+        assertEquals(2, prsr.getHitCount());
+        prsr.parse("2 * * * *");
+        assertEquals(2, prsr.getHitCount());
+        assertEquals(4, prsr.getMissCount());
+
+        prsr.clear();
+        assertEquals(0, prsr.size());
+    }
+
+    /**
+     * Ensures invalid expressions are not cached and still fail.
+     */
+    @Test
+    public void testInvalid() {
+        CachingCronParser prsr = new CachingCronParser(new UnixCronParser());
+
+        assertFalse(prsr.isValid("* * *"));
+        assertFalse(prsr.isValid(null));
+        for (int i = 0; i < 2; i++) {
+            try {
+                prsr.parse("* * *");
+                fail();
+            } catch (UnsupportedCronException e) {
+                assertEquals("* * *", e.getCron());
+            }
+        }
+        assertEquals(0, prsr.size());
+
+        prsr.parse("* * * * *");
+        assertTrue(prsr.isValid("* * * * *"));
+    }
+
+    /**
+     * Ensures the parser fails with a {@link NullPointerException} if the supplied expression is {@code null}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testParseNull() {
+        new CachingCronParser(new UnixCronParser()).parse(null);
+    }
+
+    /**
+     * Ensures the size of the cache must be strictly positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new CachingCronParser(new UnixCronParser(), 0);
+    }
+
+    /**
+     * Ensures concurrent parsings of equivalent expressions all resolve to the same instance.
+     */
+    @Test
+    public void testConcurrentParsing() throws Exception {
+        final CachingCronParser prsr = new CachingCronParser(new SinglePassUnixCronParser());
+        final String[] spellings = { "0 0 * * 0", "0 0 * * 7", "0 0 * * sun", "@weekly" };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<CronExpression>> results = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                final String cron = spellings[i % spellings.length];
+                results.add(executor.submit(new Callable<CronExpression>() {
+                    @Override
+                    public CronExpression call() {
+                        return prsr.parse(cron);
+                    }
+                }));
+            }
+
+            CronExpression expected = prsr.parse("@weekly");
+            for (Future<CronExpression> result : results) {
+                assertSame(expected, result.get());
+            }
+            assertEquals(401, prsr.getHitCount() + prsr.getMissCount());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package org.keyboardplaying.cron.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Calendar;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.exception.CronSyntaxException;
+import org.keyboardplaying.cron.exception.UnsupportedCronException;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.MultipleRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests {@link SinglePassUnixCronParser}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class SinglePassUnixCronParserTest {
+
+    private CronSyntacticParser prsr = new SinglePassUnixCronParser();
+
+    /**
+     * Tests {@link SinglePassUnixCronParser#isValid(java.lang.String)}.
+     */
+    @Test
+    public void testValidate() {
+        assertTrue(prsr.isValid("* * * * *"));
+        assertTrue(prsr.isValid("0 0 */2 1-7/2,8-12/2 1-5"));
+        assertTrue(prsr.isValid("00 05\t* * *"));
+        assertFalse(prsr.isValid("* * * *"));
+        assertFalse(prsr.isValid("* * * * * *"));
+        assertFalse(prsr.isValid(" * * * * *"));
+        assertFalse(prsr.isValid("* * * * * "));
+        assertFalse(prsr.isValid("* * 0 * *"));
+        assertFalse(prsr.isValid("*/0 * * * *"));
+        assertFalse(prsr.isValid("5-1 * * * *"));
+        assertFalse(prsr.isValid("@never"));
+        assertFalse(prsr.isValid(""));
+        assertFalse(prsr.isValid(null));
+    }
+
+    /**
+     * Ensures the parser fails with a {@link NullPointerException} if the supplied expression is {@code null}.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testParseNull() {
+        prsr.parse(null);
+    }
+
+    /**
+     * Ensures the parser fails with a {@link CronSyntaxException} if the supplied expression is invalid.
+     */
+    @Test
+    public void testParseInvalid() {
+        try {
+            prsr.parse("* * * */mon *");
+            fail();
+        } catch (CronSyntaxException e) {
+            assertFalse(e.isValid());
+            assertEquals("* * * */mon *", e.getCron());
+            assertEquals(8, e.getIndex());
+        }
+    }
+
+    /**
+     * Ensures the index reported on a syntax error points to the offending character.
+     */
+    @Test
+    public void testErrorIndex() {
+        assertErrorIndex("* * * *", 7);
+        assertErrorIndex("* * * * * *", 9);
+        assertErrorIndex("60 * * * *", 0);
+        assertErrorIndex("* 1-24 * * *", 4);
+        assertErrorIndex("* * 1,2,,3 * *", 8);
+        assertErrorIndex("* * * jan-foo *", 10);
+        assertErrorIndex("* * * * mon-sun", 12);
+        assertErrorIndex("* * * * 1x", 9);
+        assertErrorIndex("*/ * * * *", 2);
+        assertErrorIndex("@hourlyy", 1);
+    }
+
+    private void assertErrorIndex(String cron, int index) {
+        try {
+            prsr.parse(cron);
+            fail(cron);
+        } catch (CronSyntaxException e) {
+            assertEquals(cron, index, e.getIndex());
+            StringBuilder caret = new StringBuilder(cron).append(System.lineSeparator());
+            for (int i = 0; i < index; i++) {
+                caret.append(' ');
+            }
+            assertTrue(e.getMessage(), e.getMessage().endsWith(caret.append('^').toString()));
+        }
+    }
+
+    /**
+     * Ensures the {@link CronExpression} obtained from the parsing of a complex expression is correct.
+     */
+    @Test
+    public void testParse() {
+        CronExpression cron = prsr.parse("0 * 1-15/2,*/3,31 1/2 1-5");
+
+        CronRule second = cron.get(Field.SECOND);
+        CronRule minute = cron.get(Field.MINUTE);
+        CronRule hour = cron.get(Field.HOUR);
+        CronRule dom = cron.get(Field.DAY_OF_MONTH);
+        CronRule month = cron.get(Field.MONTH);
+        CronRule dow = cron.get(Field.DAY_OF_WEEK);
+        CronRule year = cron.get(Field.YEAR);
+
+        assertEquals(DayConstraint.BOTH_OR, cron.getDayConstraint());
+
+        assertTrue(second instanceof SingleValueRule);
+        assertEquals(0, ((SingleValueRule) second).getValue());
+
+        assertTrue(minute instanceof SingleValueRule);
+        assertEquals(0, ((SingleValueRule) minute).getValue());
+
+        assertTrue(hour instanceof AnyValueRule);
+
+        assertTrue(dom instanceof MultipleRule);
+        assertTrue(dom.allows(1));
+        assertFalse(dom.allows(2));
+        assertTrue(dom.allows(3));
+        assertFalse(dom.allows(14));
+        assertTrue(dom.allows(15));
+        assertTrue(dom.allows(31));
+
+        assertTrue(month instanceof SingleValueRule);
+        assertEquals(Calendar.JANUARY, ((SingleValueRule) month).getValue());
+
+        assertTrue(dow instanceof RangeRule);
+        assertEquals(Calendar.MONDAY, ((RangeRule) dow).getMin());
+        assertEquals(Calendar.FRIDAY, dow.getMax());
+
+        assertTrue(year instanceof AnyValueRule);
+    }
+
+    /**
+     * Ensures names are parsed case-insensitively, including the last name of each list.
+     */
+    @Test
+    public void testParseWithNames() {
+        CronExpression cron = prsr.parse("* * * sep-Dec SAT");
+
+        CronRule month = cron.get(Field.MONTH);
+        CronRule dow = cron.get(Field.DAY_OF_WEEK);
+
+        assertTrue(month instanceof RangeRule);
+        assertEquals(Calendar.SEPTEMBER, ((RangeRule) month).getMin());
+        assertEquals(Calendar.DECEMBER, month.getMax());
+
+        assertTrue(dow instanceof SingleValueRule);
+        assertEquals(Calendar.SATURDAY, ((SingleValueRule) dow).getValue());
+    }
+
+    /**
+     * Ensures repeating over any day of week does not count Sunday twice.
+     */
+    @Test
+    public void testParseDayOfWeekRepeat() {
+        CronRule dow = prsr.parse("* * * * */2").get(Field.DAY_OF_WEEK);
+
+        assertTrue(dow.allows(Calendar.SUNDAY));
+        assertFalse(dow.allows(Calendar.MONDAY));
+        assertTrue(dow.allows(Calendar.TUESDAY));
+        assertFalse(dow.allows(Calendar.WEDNESDAY));
+        assertTrue(dow.allows(Calendar.THURSDAY));
+        assertFalse(dow.allows(Calendar.FRIDAY));
+        assertTrue(dow.allows(Calendar.SATURDAY));
+    }
+
+    /**
+     * Tests the parsing of the special expression {@code @reboot}.
+     */
+    @Test
+    public void testAtReboot() {
+        assertTrue(prsr.isValid("@reboot"));
+        try {
+            prsr.parse("@reboot");
+            fail();
+        } catch (UnsupportedCronException e) {
+            assertTrue(e.isValid());
+            assertEquals("@reboot", e.getCron());
+        }
+    }
+
+    /**
+     * Ensures this parser produces the same expressions as {@link UnixCronParser} for valid expressions.
+     */
+    @Test
+    public void testSameAsUnixCronParser() {
+        CronSyntacticParser reference = new UnixCronParser();
+        String[] expressions = { "* * * * *", "0 * 1-15/2,*/3,31 1/2 1-5", "*/15 9-17 * jan-jun,sep-dec mon-fri",
+                "59 23 31 12 7", "0 0 * * 5-7", "0 0 * 2,4 sun,sat", "0 12 */5 */3 */2", "5-40/7 1,3,5 29 feb *",
+                "@yearly", "@annually", "@monthly", "@weekly", "@daily", "@midnight", "@hourly", "H H * * *",
+                "H(0-29)/10 H(9-17) H * H", "H/15,30 * H(1-31)/7 * H(5-7)" };
+
+        for (String expression : expressions) {
+            assertTrue(expression, prsr.isValid(expression));
+            CronExpression expected = reference.parse(expression);
+            CronExpression actual = prsr.parse(expression);
+
+            assertEquals(expression, expected.getDayConstraint(), actual.getDayConstraint());
+            for (Field field : Field.values()) {
+                if (field != Field.YEAR) {
+                    assertEquals(expression + " " + field, expected.getCompiled(field), actual.getCompiled(field));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensures this parser resolves the {@code H} tokens of a job the same way as {@link UnixCronParser}.
+     */
+    @Test
+    public void testHashTokenSameAsUnixCronParser() {
+        CronSyntacticParser reference = new UnixCronParser();
+        for (int i = 0; i < 100; i++) {
+            String key = "job-" + i;
+            assertEquals(key, reference.parse("H(0-29)/10 H H * H", key), prsr.parse("H(0-29)/10 H H * H", key));
+        }
+    }
+
+    /**
+     * Ensures invalid {@code H} tokens are reported at the offending character.
+     */
+    @Test
+    public void testHashTokenErrorIndex() {
+        assertErrorIndex("H(0-29 * * * *", 6);
+        assertErrorIndex("H(29-0) * * * *", 5);
+        assertErrorIndex("H(0-60) * * * *", 4);
+        assertErrorIndex("H/0 * * * *", 2);
+    }
+}
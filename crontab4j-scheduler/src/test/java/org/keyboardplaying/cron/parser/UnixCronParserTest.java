@@ -5,7 +5,11 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.Test;
 import org.keyboardplaying.cron.exception.UnsupportedCronException;
@@ -137,6 +141,28 @@ public class UnixCronParserTest {
         assertEquals(Calendar.FRIDAY, dow.getMax());
     }
 
+    /**
+     * Ensures the last name of each alias list ({@code DEC} and {@code SAT}) is recognized as well.
+     */
+    @Test
+    public void testParseWithLastNames() {
+        assertTrue(prsr.isValid("* * * sep-Dec SAT"));
+        CronExpression cron = prsr.parse("* * * sep-Dec SAT");
+
+        CronRule month = cron.get(Field.MONTH);
+        CronRule dow = cron.get(Field.DAY_OF_WEEK);
+
+        assertTrue(month instanceof RangeRule);
+        assertEquals(Calendar.SEPTEMBER, ((RangeRule) month).getMin());
+        assertEquals(Calendar.DECEMBER, month.getMax());
+
+        assertTrue(dow instanceof SingleValueRule);
+        assertEquals(Calendar.SATURDAY, ((SingleValueRule) dow).getValue());
+
+        assertFalse(prsr.isValid("* * * dece *"));
+        assertFalse(prsr.isValid("* * * * satu"));
+    }
+
     /**
      * Tests the parsing of the special expression {@code @reboot}.
      */
@@ -306,4 +332,70 @@ public class UnixCronParserTest {
         assertTrue(month instanceof AnyValueRule);
         assertTrue(dow instanceof AnyValueRule);
     }
+
+    /**
+     * Tests the parsing of the {@code H} token.
+     */
+    @Test
+    public void testHashToken() {
+        assertTrue(prsr.isValid("H H * * *"));
+        assertTrue(prsr.isValid("H(0-29)/10 H(9-17) H * H"));
+        assertTrue(prsr.isValid("H/15,30 * * * *"));
+        assertFalse(prsr.isValid("H(0-29 * * * *"));
+        assertFalse(prsr.isValid("H-3 * * * *"));
+
+        // a job is always given the same values
+        assertEquals(prsr.parse("H H H * H", "job"), prsr.parse("H H H * H", "job"));
+
+        Set<Integer> minutes = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            CronExpression cron = prsr.parse("H H H * H", "job-" + i);
+            int minute = allowed(cron.get(Field.MINUTE), 0, 59).get(0);
+            minutes.add(minute);
+            assertEquals(1, allowed(cron.get(Field.MINUTE), 0, 59).size());
+            assertEquals(1, allowed(cron.get(Field.HOUR), 0, 23).size());
+            // only the days common to all months
+            assertEquals(1, allowed(cron.get(Field.DAY_OF_MONTH), 1, 28).size());
+            assertEquals(1, allowed(cron.get(Field.DAY_OF_WEEK), Calendar.SUNDAY, Calendar.SATURDAY).size());
+
+            List<Integer> repeat = allowed(prsr.parse("H(0-29)/10 * * * *", "job-" + i).get(Field.MINUTE), 0, 59);
+            assertEquals(3, repeat.size());
+            assertTrue(repeat.get(0) < 10);
+            assertEquals(repeat.get(0) + 10, (int) repeat.get(1));
+            assertEquals(repeat.get(0) + 20, (int) repeat.get(2));
+        }
+        // the jobs are spread across the hour
+        assertTrue(minutes.size() > 30);
+
+        // without a key, the value is derived from the expression
+        assertEquals(prsr.parse("H * * * *"), prsr.parse("H * * * *", null));
+    }
+
+    /**
+     * Ensures {@code H} tokens with a null step or a reversed range are reported as invalid expressions.
+     */
+    @Test
+    public void testInvalidHashToken() {
+        for (String cron : new String[] { "H/0 * * * *", "H(0-29)/0 * * * *", "H(29-0) * * * *",
+                "H(29-0)/10 * * * *" }) {
+            assertFalse(cron, prsr.isValid(cron));
+            try {
+                prsr.parse(cron, "job");
+                fail(cron);
+            } catch (UnsupportedCronException e) {
+                assertFalse(e.isValid());
+                assertEquals(cron, e.getCron());
+            }
+        }
+    }
+
+    private static List<Integer> allowed(CronRule rule, int min, int max) {
+        List<Integer> values = new ArrayList<>();
+        for (int i = min; i <= max; i++) {
+            if (rule.allows(i)) {
+                values.add(i);
+            }
+        }
+        return values;
+    }
 }
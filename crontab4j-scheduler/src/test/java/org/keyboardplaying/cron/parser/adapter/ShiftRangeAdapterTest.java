@@ -100,4 +100,23 @@ public class ShiftRangeAdapterTest {
         assertFalse(rule.allows(Calendar.FRIDAY));
         assertFalse(rule.allows(Calendar.SATURDAY));
     }
+
+    /**
+     * Ensures the upper limit of the original range is not wrapped to the lower limit of the adapted one.
+     */
+    @Test
+    public void testUpperLimitAdaptation() {
+        ShiftRangeAdapter months = new MonthRangeAdapter(1);
+
+        CronRule rule = months.adapt(new SingleValueRule(12));
+        assertTrue(rule instanceof SingleValueRule);
+        assertEquals(Calendar.DECEMBER, ((SingleValueRule) rule).getValue());
+
+        rule = months.adapt(new RepeatRule(1, 12, 3));
+        assertTrue(rule instanceof RepeatRule);
+        assertEquals(Calendar.JANUARY, ((RepeatRule) rule).getMin());
+        assertEquals(Calendar.DECEMBER, rule.getMax());
+        assertTrue(rule.allows(Calendar.OCTOBER));
+        assertFalse(rule.allows(Calendar.DECEMBER));
+    }
 }
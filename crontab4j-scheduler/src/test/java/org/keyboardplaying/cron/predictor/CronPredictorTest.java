@@ -12,6 +12,7 @@ import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
 import org.keyboardplaying.cron.expression.CronExpression.Field;
 import org.keyboardplaying.cron.expression.rule.AnyValueRule;
 import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.MultipleRule;
 import org.keyboardplaying.cron.expression.rule.RangeRule;
 import org.keyboardplaying.cron.expression.rule.RepeatRule;
 import org.keyboardplaying.cron.expression.rule.SingleValueRule;
@@ -22,7 +23,6 @@ import org.keyboardplaying.cron.utils.CalendarUtils;
  *
  * @author Cyrille Chopelet
  */
-// TODO test predictor with MultipleRule
 public class CronPredictorTest {
 
     private CronPredictor cpu = new CronPredictor();
@@ -172,6 +172,33 @@ public class CronPredictorTest {
         assertCalEquals(null, cron, "2015-12-31T00:00:00");
     }
 
+    /**
+     * Tests the jumping over sparse and multiple rules with a Quartz-like expression such as
+     * {@code 0 0,15,59 9-10,14 ? * SAT,MON 1970-2015}.
+     */
+    @Test
+    public void testMultipleRules() throws ParseException {
+        CronRule any = new AnyValueRule();
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new MultipleRule(new SingleValueRule(0), new SingleValueRule(15),
+                        new SingleValueRule(59)))
+                .set(Field.HOUR, new MultipleRule(new RangeRule(9, 10), new SingleValueRule(14)))
+                .set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK,
+                        new MultipleRule(new SingleValueRule(Calendar.SATURDAY), new SingleValueRule(Calendar.MONDAY)))
+                .set(Field.YEAR, new RangeRule(1970, 2015)).set(DayConstraint.WEEK).build();
+
+        // 2015-02-07 is a Saturday
+        assertCalEquals("2015-02-07T09:00:00", cron, "2015-02-07T08:42:00");
+        assertCalEquals("2015-02-07T09:15:00", cron, "2015-02-07T09:00:00");
+        assertCalEquals("2015-02-07T09:59:00", cron, "2015-02-07T09:15:00");
+        assertCalEquals("2015-02-07T10:00:00", cron, "2015-02-07T09:59:00");
+        assertCalEquals("2015-02-07T14:00:00", cron, "2015-02-07T10:59:00");
+        assertCalEquals("2015-02-09T09:00:00", cron, "2015-02-07T14:59:00");
+        assertCalEquals("2015-02-14T09:00:00", cron, "2015-02-09T14:59:30");
+        assertCalEquals(null, cron, "2015-12-28T14:59:00");
+    }
+
     /**
      * Tests the finding or leaping over February 29th, ensuring it is not equivalent with March 1st.
      */
@@ -0,0 +1,47 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.junit.Test;
+
+/**
+ * Tests the date arithmetic of {@link DateTimeFields}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class DateTimeFieldsTest {
+
+    /**
+     * Ensures the computed epoch day, day of week and month length match those of {@link LocalDate}.
+     */
+    @Test
+    public void testDateArithmetic() {
+        for (LocalDate date = LocalDate.of(1970, 1, 1); date.getYear() < 2110; date = date.plusDays(1)) {
+            int y = date.getYear();
+            int m = date.getMonthValue();
+            int d = date.getDayOfMonth();
+            assertEquals(date.toString(), date.toEpochDay(), DateTimeFields.epochDay(y, m, d));
+            assertEquals(date.toString(), date.getDayOfWeek().getValue() % 7 + 1, DateTimeFields.dayOfWeek(y, m, d));
+            assertEquals(date.toString(), date.lengthOfMonth(), DateTimeFields.lengthOfMonth(y, m));
+        }
+    }
+
+    /**
+     * Ensures the carry from one field to the upper one is correctly performed.
+     */
+    @Test
+    public void testCarry() {
+        DateTimeFields fields = new DateTimeFields().set(LocalDateTime.parse("2015-12-31T23:59:59"));
+        fields.nextSecond();
+        assertEquals(LocalDateTime.parse("2016-01-01T00:00:00"), fields.toLocalDateTime());
+
+        fields.set(LocalDateTime.parse("2016-02-28T13:37:42"));
+        fields.nextDay();
+        assertEquals(LocalDateTime.parse("2016-02-29T00:00:00"), fields.toLocalDateTime());
+        fields.nextDay();
+        assertEquals(LocalDateTime.parse("2016-03-01T00:00:00"), fields.toLocalDateTime());
+    }
+}
@@ -0,0 +1,162 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Calendar;
+import java.util.Random;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.MultipleRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests {@link OccurrenceCounter}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class OccurrenceCounterTest {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+    private static final long HOUR = 3600000L;
+    private static final long DAY = 24 * HOUR;
+
+    /**
+     * Tests the count on simple expressions.
+     */
+    @Test
+    public void testCount() {
+        OccurrenceCounter counter = new OccurrenceCounter(ZoneOffset.UTC);
+        long from = ZonedDateTime.of(2015, 2, 1, 0, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+        // 0 */5 9-17 * * MON-FRI
+        CronExpression cron = createCron(new SingleValueRule(0), new RepeatRule(0, 59, 5), new RangeRule(9, 17),
+                new AnyValueRule(), new RangeRule(Calendar.MONDAY, Calendar.FRIDAY), DayConstraint.WEEK);
+
+        // 20 working days in February 2015, 9 hours a day, 12 times an hour
+        assertEquals(20 * 9 * 12, counter.count(cron, from, from + 28 * DAY));
+        // the start is exclusive, the end inclusive
+        long nine = from + DAY + 9 * HOUR;
+        assertEquals(12, counter.count(cron, nine, nine + HOUR));
+        assertEquals(12, counter.count(cron, nine - 1, nine + HOUR - 1));
+        assertEquals(0, counter.count(cron, nine, nine));
+    }
+
+    /**
+     * Ensures the counts are the same as the number of occurrences enumerated by a cursor, on random expressions and
+     * windows, across daylight saving transitions.
+     */
+    @Test
+    public void testSameAsCursor() {
+        Random random = new Random(42);
+        for (ZoneId zone : new ZoneId[] { ZoneOffset.UTC, ZoneOffset.ofHoursMinutes(5, 30), PARIS }) {
+            OccurrenceCounter counter = new OccurrenceCounter(zone);
+            for (int i = 0; i < 300; i++) {
+                CronExpression cron = randomCron(random);
+                long from = ZonedDateTime.of(2015, 1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24),
+                        random.nextInt(60), random.nextInt(60), random.nextInt(1000) * 1000000, zone).toInstant()
+                        .toEpochMilli();
+                long to = from + (long) (random.nextDouble() * 60 * DAY);
+
+                assertEquals(cron + " in " + zone + " from " + from + " to " + to, enumerate(cron, zone, from, to),
+                        counter.count(cron, from, to));
+            }
+        }
+    }
+
+    /**
+     * Ensures the counts honour the policies applied to the daylight saving transitions.
+     */
+    @Test
+    public void testSameAsCursorWithPolicies() {
+        Random random = new Random(42);
+        for (GapPolicy gap : GapPolicy.values()) {
+            for (OverlapPolicy overlap : OverlapPolicy.values()) {
+                ZonePolicy policy = ZonePolicy.of(PARIS, gap, overlap);
+                OccurrenceCounter counter = new OccurrenceCounter(policy);
+                for (int i = 0; i < 50; i++) {
+                    CronExpression cron = randomCron(random);
+                    // around the transitions of March 29th and October 25th 2015
+                    long from = ZonedDateTime.of(2015, 3 + 7 * random.nextInt(2), 20 + random.nextInt(8),
+                            random.nextInt(24), 0, 0, 0, PARIS).toInstant().toEpochMilli();
+                    long to = from + (long) (random.nextDouble() * 10 * DAY);
+
+                    assertEquals(cron + " with " + policy, new OccurrenceIterator(cron, from, to, policy).stream()
+                            .count(), counter.count(cron, from, to));
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensures the hourly histogram matches the counts of each hour.
+     */
+    @Test
+    public void testCountPerHour() {
+        OccurrenceCounter counter = new OccurrenceCounter(PARIS);
+        // 0 0,30 * * * ?
+        CronExpression cron = createCron(new SingleValueRule(0), new MultipleRule(new SingleValueRule(0),
+                new SingleValueRule(30)), new AnyValueRule(), new AnyValueRule(), new AnyValueRule(),
+                DayConstraint.NONE);
+        long from = ZonedDateTime.of(2015, 3, 28, 12, 15, 0, 0, PARIS).toInstant().toEpochMilli();
+        long to = from + 2 * DAY + HOUR / 2;
+
+        long[] histogram = counter.countPerHour(cron, from, to);
+        assertEquals(49, histogram.length);
+        long total = 0;
+        for (int i = 0; i < histogram.length; i++) {
+            long start = from + i * HOUR;
+            assertEquals(enumerate(cron, PARIS, start, Math.min(start + HOUR, to)), histogram[i]);
+            total += histogram[i];
+        }
+        assertEquals(counter.count(cron, from, to), total);
+        assertEquals(0, counter.countPerHour(cron, from, from).length);
+    }
+
+    /* Testing utility */
+    private static long enumerate(CronExpression cron, ZoneId zone, long from, long to) {
+        return new OccurrenceIterator(cron, from, to, zone).stream().count();
+    }
+
+    private static CronExpression createCron(CronRule second, CronRule minute, CronRule hour, CronRule dayOfMonth,
+            CronRule dayOfWeek, DayConstraint constraint) {
+        return CronExpression.Builder.create().set(Field.SECOND, second).set(Field.MINUTE, minute)
+                .set(Field.HOUR, hour).set(Field.DAY_OF_MONTH, dayOfMonth).set(Field.MONTH, new AnyValueRule())
+                .set(Field.DAY_OF_WEEK, dayOfWeek).set(Field.YEAR, new AnyValueRule()).set(constraint).build();
+    }
+
+    private static CronExpression randomCron(Random random) {
+        DayConstraint[] constraints = DayConstraint.values();
+        return CronExpression.Builder.create().set(Field.SECOND, randomRule(random, 0, 59, 50))
+                .set(Field.MINUTE, randomRule(random, 0, 59, 50)).set(Field.HOUR, randomRule(random, 0, 23, 20))
+                .set(Field.DAY_OF_MONTH, randomRule(random, 1, 31, 20))
+                .set(Field.MONTH, randomRule(random, Calendar.JANUARY, Calendar.DECEMBER, 40))
+                .set(Field.DAY_OF_WEEK, randomRule(random, Calendar.SUNDAY, Calendar.SATURDAY, 40))
+                .set(Field.YEAR, random.nextInt(10) == 0 ? new SingleValueRule(2015) : new AnyValueRule())
+                .set(constraints[random.nextInt(constraints.length)]).build();
+    }
+
+    private static CronRule randomRule(Random random, int min, int max, int anyPercent) {
+        if (random.nextInt(100) < anyPercent) {
+            return new AnyValueRule();
+        }
+        int a = min + random.nextInt(max - min + 1);
+        int b = a + random.nextInt(max - a + 1);
+        switch (random.nextInt(3)) {
+            case 0:
+                return new SingleValueRule(a);
+            case 1:
+                return new RangeRule(a, b);
+            default:
+                return new RepeatRule(a, b, 1 + random.nextInt(5));
+        }
+    }
+}
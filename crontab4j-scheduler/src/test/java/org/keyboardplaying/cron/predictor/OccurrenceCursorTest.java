@@ -0,0 +1,381 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Test;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests {@link OccurrenceCursor} and {@link ZonedCronPredictor#nextEpochMillis(CronExpression, long, ZoneId)}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class OccurrenceCursorTest {
+
+    private static final ZoneId PARIS = ZoneId.of("Europe/Paris");
+
+    // 0 */15 * * * ? *
+    private final CronExpression everyQuarter = createCron(new RepeatRule(0, 59, 15), new AnyValueRule());
+
+    /**
+     * Ensures {@link ZonedCronPredictor#nextEpochMillis(CronExpression, long, ZoneId)} returns the same result as
+     * {@link ZonedCronPredictor#predictNext(CronExpression, ZonedDateTime)}.
+     */
+    @Test
+    public void testNextEpochMillis() {
+        ZonedCronPredictor cpu = new ZonedCronPredictor();
+        ZonedDateTime from = ZonedDateTime.of(2015, 2, 5, 13, 37, 42, 123000000, PARIS);
+
+        assertEquals(ZonedDateTime.of(2015, 2, 5, 13, 45, 0, 0, PARIS).toInstant().toEpochMilli(),
+                cpu.nextEpochMillis(everyQuarter, from.toInstant().toEpochMilli(), PARIS));
+
+        CronExpression past = createCron(new SingleValueRule(0), new RangeRule(1970, 2014));
+        assertEquals(ZonedCronPredictor.NO_OCCURRENCE,
+                cpu.nextEpochMillis(past, from.toInstant().toEpochMilli(), PARIS));
+    }
+
+    /**
+     * Ensures moving a cursor across daylight saving transitions gives the same results as chaining calls to
+     * {@link ZonedCronPredictor#predictNext(CronExpression, ZonedDateTime)}.
+     */
+    @Test
+    public void testDaylightSaving() {
+        ZonedCronPredictor cpu = new ZonedCronPredictor();
+        ZonedDateTime expected = ZonedDateTime.of(2015, 3, 28, 0, 0, 0, 0, PARIS);
+        OccurrenceCursor cursor = new OccurrenceCursor(PARIS).moveTo(expected.toInstant().toEpochMilli());
+
+        // crosses both transitions of 2015 (March 29th and October 25th)
+        while (expected.getYear() == 2015) {
+            expected = cpu.predictNext(everyQuarter, expected);
+            assertTrue(cursor.next(everyQuarter));
+            assertEquals(expected.toString(), expected.toInstant().toEpochMilli(), cursor.getEpochMillis());
+        }
+    }
+
+    /**
+     * Ensures a local time in a daylight saving gap is shifted forward.
+     */
+    @Test
+    public void testGap() {
+        // 0 30 2 * * ? *, 2:30 does not exist in Paris on March 29th 2015
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(30)).set(Field.HOUR, new SingleValueRule(2))
+                .set(Field.DAY_OF_MONTH, new AnyValueRule()).set(Field.MONTH, new AnyValueRule())
+                .set(Field.DAY_OF_WEEK, new AnyValueRule()).set(Field.YEAR, new AnyValueRule())
+                .set(DayConstraint.NONE).build();
+        OccurrenceCursor cursor = new OccurrenceCursor(PARIS)
+                .moveTo(ZonedDateTime.of(2015, 3, 28, 12, 0, 0, 0, PARIS).toInstant().toEpochMilli());
+
+        assertTrue(cursor.next(cron));
+        assertEquals(ZonedDateTime.of(2015, 3, 29, 3, 30, 0, 0, PARIS).toInstant().toEpochMilli(),
+                cursor.getEpochMillis());
+        assertTrue(cursor.next(cron));
+        assertEquals(ZonedDateTime.of(2015, 3, 30, 2, 30, 0, 0, PARIS).toInstant().toEpochMilli(),
+                cursor.getEpochMillis());
+    }
+
+    /**
+     * Ensures the cursor returns {@code false} when there is no next occurrence.
+     */
+    @Test
+    public void testNoOccurrence() {
+        CronExpression cron = createCron(new SingleValueRule(0), new RangeRule(1970, 2015));
+        OccurrenceCursor cursor = new OccurrenceCursor(ZoneOffset.UTC)
+                .moveTo(LocalDateTime.parse("2015-12-31T23:59:00").toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertFalse(cursor.next(cron));
+    }
+
+    /**
+     * Ensures moving a cursor backwards gives the same occurrences as moving it forwards, including across daylight
+     * saving transitions.
+     */
+    @Test
+    public void testPrevious() {
+        // 0 30 2 * * ? *, in the gap in March and in the overlap in October
+        CronExpression night = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(30)).set(Field.HOUR, new SingleValueRule(2))
+                .set(Field.DAY_OF_MONTH, new AnyValueRule()).set(Field.MONTH, new AnyValueRule())
+                .set(Field.DAY_OF_WEEK, new AnyValueRule()).set(Field.YEAR, new AnyValueRule())
+                .set(DayConstraint.NONE).build();
+        long start = ZonedDateTime.of(2015, 1, 1, 0, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+        long end = ZonedDateTime.of(2016, 1, 1, 0, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+
+        for (CronExpression cron : new CronExpression[] { everyQuarter, night }) {
+            List<Long> forwards = new ArrayList<>();
+            OccurrenceCursor cursor = new OccurrenceCursor(PARIS).moveTo(start);
+            while (cursor.next(cron) && cursor.getEpochMillis() < end) {
+                forwards.add(cursor.getEpochMillis());
+            }
+
+            List<Long> backwards = new ArrayList<>();
+            cursor.moveTo(end);
+            while (cursor.previous(cron) && cursor.getEpochMillis() > start) {
+                backwards.add(cursor.getEpochMillis());
+            }
+            Collections.reverse(backwards);
+            assertEquals(forwards, backwards);
+        }
+    }
+
+    /**
+     * Ensures each gap policy is applied to the local times skipped by a transition.
+     */
+    @Test
+    public void testGapPolicies() {
+        // 2:30 does not exist in Paris on March 29th 2015
+        long from = ZonedDateTime.of(2015, 3, 28, 12, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+
+        assertEquals(Arrays.asList(ZonedDateTime.of(2015, 3, 29, 3, 30, 0, 0, PARIS),
+                ZonedDateTime.of(2015, 3, 30, 2, 30, 0, 0, PARIS)), nextTwo(GapPolicy.SHIFT, OverlapPolicy.EARLIER,
+                        from));
+        assertEquals(Arrays.asList(ZonedDateTime.of(2015, 3, 29, 3, 0, 0, 0, PARIS),
+                ZonedDateTime.of(2015, 3, 30, 2, 30, 0, 0, PARIS)), nextTwo(GapPolicy.NEXT_VALID,
+                        OverlapPolicy.EARLIER, from));
+        assertEquals(Arrays.asList(ZonedDateTime.of(2015, 3, 30, 2, 30, 0, 0, PARIS),
+                ZonedDateTime.of(2015, 3, 31, 2, 30, 0, 0, PARIS)), nextTwo(GapPolicy.SKIP, OverlapPolicy.EARLIER,
+                        from));
+    }
+
+    /**
+     * Ensures each overlap policy is applied to the local times repeated by a transition.
+     */
+    @Test
+    public void testOverlapPolicies() {
+        // 2:30 happens twice in Paris on October 25th 2015, at 0:30 and 1:30 UTC
+        long from = ZonedDateTime.of(2015, 10, 24, 12, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+        ZonedDateTime earlier = ZonedDateTime.of(2015, 10, 25, 0, 30, 0, 0, ZoneOffset.UTC)
+                .withZoneSameInstant(PARIS);
+        ZonedDateTime later = ZonedDateTime.of(2015, 10, 25, 1, 30, 0, 0, ZoneOffset.UTC).withZoneSameInstant(PARIS);
+        ZonedDateTime nextDay = ZonedDateTime.of(2015, 10, 26, 2, 30, 0, 0, PARIS);
+
+        assertEquals(Arrays.asList(earlier, nextDay), nextTwo(GapPolicy.SHIFT, OverlapPolicy.EARLIER, from));
+        assertEquals(Arrays.asList(later, nextDay), nextTwo(GapPolicy.SHIFT, OverlapPolicy.LATER, from));
+        assertEquals(Arrays.asList(earlier, later), nextTwo(GapPolicy.SHIFT, OverlapPolicy.BOTH, from));
+    }
+
+    /**
+     * Ensures moving a cursor backwards gives the same occurrences as moving it forwards, whatever the policies.
+     */
+    @Test
+    public void testPreviousWithPolicies() {
+        long start = ZonedDateTime.of(2015, 1, 1, 0, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+        long end = ZonedDateTime.of(2016, 1, 1, 0, 0, 0, 0, PARIS).toInstant().toEpochMilli();
+        // every 15 minutes is 96 times a day, fired 4 more times on the day the clocks go back with BOTH; both ends of
+        // the window are excluded
+        int quarters = 365 * 96 - 1;
+
+        for (GapPolicy gap : GapPolicy.values()) {
+            for (OverlapPolicy overlap : OverlapPolicy.values()) {
+                ZonePolicy policy = ZonePolicy.of(PARIS, gap, overlap);
+                for (CronExpression cron : new CronExpression[] { everyQuarter, createNightCron() }) {
+                    List<Long> forwards = new ArrayList<>();
+                    OccurrenceCursor cursor = new OccurrenceCursor(policy).moveTo(start);
+                    while (cursor.next(cron) && cursor.getEpochMillis() < end) {
+                        forwards.add(cursor.getEpochMillis());
+                    }
+
+                    List<Long> backwards = new ArrayList<>();
+                    cursor.moveTo(end);
+                    while (cursor.previous(cron) && cursor.getEpochMillis() > start) {
+                        backwards.add(cursor.getEpochMillis());
+                    }
+                    Collections.reverse(backwards);
+                    assertEquals(policy.toString(), forwards, backwards);
+                    if (cron == everyQuarter) {
+                        // the gap swallows one hour of local times
+                        assertEquals(policy.toString(), quarters - 4 + (overlap == OverlapPolicy.BOTH ? 4 : 0),
+                                forwards.size());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Ensures moving a cursor backwards across a gap gives the same occurrences as moving it forwards when the
+     * expression matches several local times of the gap, whatever the gap policy.
+     */
+    @Test
+    public void testPreviousAcrossGap() {
+        // 2:00 to 2:59 do not exist in Paris on March 29th 2026
+        ZonedDateTime paris = ZonedDateTime.of(2026, 3, 29, 0, 0, 0, 0, PARIS);
+        // 2:00 to 2:29 do not exist in Lord Howe on October 5th 2025
+        ZonedDateTime lordHowe = ZonedDateTime.of(2025, 10, 5, 0, 0, 0, 0, ZoneId.of("Australia/Lord_Howe"));
+        // * 2 * * *
+        assertSameBothWays(paris, createDailyCron(new AnyValueRule(), new SingleValueRule(2)));
+        // 15,30 2,3 * * *
+        assertSameBothWays(paris, createDailyCron(new RepeatRule(15, 30, 15), new RangeRule(2, 3)));
+        // 10,35 2 * * *, 2:35 being jumped over when 2:10 is shifted to 2:40
+        assertSameBothWays(lordHowe, createDailyCron(new RepeatRule(10, 35, 25), new SingleValueRule(2)));
+        // 45 3 * * * and 45 2 * * *, matching nothing in the gap but right after it
+        assertSameBothWays(paris, createDailyCron(new SingleValueRule(45), new SingleValueRule(3)));
+        assertSameBothWays(lordHowe, createDailyCron(new SingleValueRule(45), new SingleValueRule(2)));
+
+        // from 3:45, the only occurrence of * 2 * * * on that day is the first minute of the gap, shifted to 3:00
+        CronExpression cron = createDailyCron(new AnyValueRule(), new SingleValueRule(2));
+        OccurrenceCursor cursor = new OccurrenceCursor(PARIS)
+                .moveTo(paris.withHour(3).withMinute(45).toInstant().toEpochMilli());
+        assertTrue(cursor.previous(cron));
+        assertEquals(paris.withHour(3).toInstant().toEpochMilli(), cursor.getEpochMillis());
+        assertTrue(cursor.previous(cron));
+        assertEquals(paris.minusDays(1).withHour(2).withMinute(59).toInstant().toEpochMilli(),
+                cursor.getEpochMillis());
+
+        // from 4:00, 3:45 is valid and not jumped over, as nothing in the gap matches 45 3 * * *
+        cron = createDailyCron(new SingleValueRule(45), new SingleValueRule(3));
+        assertEquals(paris.withHour(3).withMinute(45).toInstant().toEpochMilli(), new ZonedCronPredictor()
+                .predictPrevious(cron, paris.withHour(4)).toInstant().toEpochMilli());
+    }
+
+    private static void assertSameBothWays(ZonedDateTime day, CronExpression cron) {
+        long start = day.minusHours(12).toInstant().toEpochMilli();
+        long end = day.plusHours(36).toInstant().toEpochMilli();
+        for (GapPolicy gap : GapPolicy.values()) {
+            ZonePolicy policy = ZonePolicy.of(day.getZone(), gap, OverlapPolicy.EARLIER);
+            List<Long> forwards = new ArrayList<>();
+            OccurrenceCursor cursor = new OccurrenceCursor(policy).moveTo(start);
+            while (cursor.next(cron) && cursor.getEpochMillis() < end) {
+                forwards.add(cursor.getEpochMillis());
+            }
+
+            List<Long> backwards = new ArrayList<>();
+            cursor.moveTo(end);
+            while (cursor.previous(cron) && cursor.getEpochMillis() > start) {
+                backwards.add(cursor.getEpochMillis());
+            }
+            Collections.reverse(backwards);
+            assertEquals(policy.toString(), forwards, backwards);
+        }
+    }
+
+    private static CronExpression createDailyCron(CronRule minute, CronRule hour) {
+        CronRule any = new AnyValueRule();
+        return CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0)).set(Field.MINUTE, minute)
+                .set(Field.HOUR, hour).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any)
+                .set(Field.YEAR, any).set(DayConstraint.NONE).build();
+    }
+
+    /**
+     * Ensures a local time in an overlap is resolved by the overlap policy only, whatever the offset in use where the
+     * search started.
+     */
+    @Test
+    public void testOverlapFarFromStart() {
+        // 0 20 1 1 11 ? *, 1:20 happens twice in New York on November 1st 2020
+        ZoneId newYork = ZoneId.of("America/New_York");
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(20)).set(Field.HOUR, new SingleValueRule(1))
+                .set(Field.DAY_OF_MONTH, new SingleValueRule(1))
+                .set(Field.MONTH, new SingleValueRule(Calendar.NOVEMBER))
+                .set(Field.DAY_OF_WEEK, new AnyValueRule()).set(Field.YEAR, new AnyValueRule())
+                .set(DayConstraint.MONTH).build();
+        long earlier = ZonedDateTime.of(2020, 11, 1, 1, 20, 0, 0, newYork).toInstant().toEpochMilli();
+        long later = earlier + 3600000L;
+
+        // in winter time, then in summer time, before the overlap
+        for (int month : new int[] { 1, 6 }) {
+            long start = ZonedDateTime.of(2020, month, 15, 0, 0, 0, 0, newYork).toInstant().toEpochMilli();
+            OccurrenceCursor cursor = new OccurrenceCursor(newYork).moveTo(start);
+            assertTrue(cursor.next(cron));
+            assertEquals(earlier, cursor.getEpochMillis());
+
+            cursor = new OccurrenceCursor(ZonePolicy.of(newYork, GapPolicy.SHIFT, OverlapPolicy.LATER)).moveTo(start);
+            assertTrue(cursor.next(cron));
+            assertEquals(later, cursor.getEpochMillis());
+
+            cursor = new OccurrenceCursor(ZonePolicy.of(newYork, GapPolicy.SHIFT, OverlapPolicy.BOTH)).moveTo(start);
+            assertTrue(cursor.next(cron));
+            assertEquals(earlier, cursor.getEpochMillis());
+            assertTrue(cursor.next(cron));
+            assertEquals(later, cursor.getEpochMillis());
+
+            assertEquals(earlier, new ZonedCronPredictor().nextEpochMillis(cron, start, newYork));
+        }
+    }
+
+    /**
+     * Ensures the cursor returns {@code false} when there is no previous occurrence.
+     */
+    @Test
+    public void testNoPreviousOccurrence() {
+        CronExpression cron = createCron(new SingleValueRule(0), new RangeRule(2016, 2020));
+        OccurrenceCursor cursor = new OccurrenceCursor(ZoneOffset.UTC)
+                .moveTo(LocalDateTime.parse("2016-01-01T00:00:00").toInstant(ZoneOffset.UTC).toEpochMilli());
+        assertFalse(cursor.previous(cron));
+    }
+
+    /**
+     * Ensures moving the cursor produces no garbage once created.
+     */
+    @Test
+    public void testNoAllocation() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean mxBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue(mxBean.isThreadAllocatedMemorySupported() && mxBean.isThreadAllocatedMemoryEnabled());
+
+        CronExpression cron = createCron(new RepeatRule(0, 59, 5), new AnyValueRule());
+        OccurrenceCursor cursor = new OccurrenceCursor(ZoneOffset.UTC).moveTo(0L);
+        // warm up
+        for (int i = 0; i < 10000; i++) {
+            cursor.next(cron);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long before = mxBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100000; i++) {
+            cursor.next(cron);
+        }
+        long allocated = mxBean.getThreadAllocatedBytes(threadId) - before;
+        // allow for the measurement itself
+        assertTrue(allocated + " bytes allocated", allocated < 1024);
+    }
+
+    private static CronExpression createCron(CronRule minute, CronRule year) {
+        CronRule any = new AnyValueRule();
+        return CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0)).set(Field.MINUTE, minute)
+                .set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any)
+                .set(Field.YEAR, year).set(DayConstraint.NONE).build();
+    }
+
+    private static CronExpression createNightCron() {
+        // 0 30 2 * * ? *
+        CronRule any = new AnyValueRule();
+        return CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(30)).set(Field.HOUR, new SingleValueRule(2))
+                .set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any)
+                .set(DayConstraint.NONE).build();
+    }
+
+    private static List<ZonedDateTime> nextTwo(GapPolicy gap, OverlapPolicy overlap, long from) {
+        OccurrenceCursor cursor = new OccurrenceCursor(ZonePolicy.of(PARIS, gap, overlap)).moveTo(from);
+        List<ZonedDateTime> next = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            assertTrue(cursor.next(createNightCron()));
+            next.add(Instant.ofEpochMilli(cursor.getEpochMillis()).atZone(PARIS));
+        }
+        return next;
+    }
+}
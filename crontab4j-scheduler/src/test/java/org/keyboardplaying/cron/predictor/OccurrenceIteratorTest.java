@@ -0,0 +1,78 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests {@link OccurrenceIterator}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class OccurrenceIteratorTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+
+    // 0 0 9 * * ? 2015-2016
+    private final CronExpression daily = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+            .set(Field.MINUTE, new SingleValueRule(0)).set(Field.HOUR, new SingleValueRule(9))
+            .set(Field.DAY_OF_MONTH, new AnyValueRule()).set(Field.MONTH, new AnyValueRule())
+            .set(Field.DAY_OF_WEEK, new AnyValueRule()).set(Field.YEAR, new RangeRule(2015, 2016))
+            .set(DayConstraint.NONE).build();
+
+    /**
+     * Ensures the start of the range is exclusive and its end inclusive.
+     */
+    @Test
+    public void testBounds() {
+        long from = epochMillis(2015, 2, 5, 9);
+        long to = epochMillis(2015, 2, 8, 9);
+
+        assertArrayEquals(new long[] { epochMillis(2015, 2, 6, 9), epochMillis(2015, 2, 7, 9), to },
+                new OccurrenceIterator(daily, from, to, UTC).stream().toArray());
+        assertEquals(0, new OccurrenceIterator(daily, from, from + 1000, UTC).stream().count());
+    }
+
+    /**
+     * Ensures the iteration stops when the expression has no more occurrence.
+     */
+    @Test
+    public void testUnbounded() {
+        OccurrenceIterator iterator = new OccurrenceIterator(daily, epochMillis(2016, 12, 29, 12), Long.MAX_VALUE, UTC);
+
+        assertTrue(iterator.hasNext());
+        // hasNext() does not move the iterator
+        assertTrue(iterator.hasNext());
+        assertEquals(epochMillis(2016, 12, 30, 9), iterator.nextLong());
+        assertEquals(epochMillis(2016, 12, 31, 9), iterator.nextLong());
+        assertFalse(iterator.hasNext());
+    }
+
+    /**
+     * Ensures an exhausted iterator throws a {@link NoSuchElementException}.
+     */
+    @Test(expected = NoSuchElementException.class)
+    public void testExhausted() {
+        OccurrenceIterator iterator = new OccurrenceIterator(daily, epochMillis(2016, 12, 31, 12), Long.MAX_VALUE, UTC);
+        iterator.nextLong();
+    }
+
+    /* Testing utility */
+    private static long epochMillis(int year, int month, int day, int hour) {
+        return ZonedDateTime.of(year, month, day, hour, 0, 0, 0, UTC).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,110 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests {@link OccurrenceTimeline}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class OccurrenceTimelineTest {
+
+    private static final long MINUTE = 60000L;
+
+    // 0 * * * * ?
+    private final CronExpression everyMinute = createCron(new SingleValueRule(0), new AnyValueRule());
+    // 0 */15 * * * ?
+    private final CronExpression everyQuarter = createCron(new SingleValueRule(0), new RepeatRule(0, 59, 15));
+    // 30 */15 * * * ?
+    private final CronExpression everyQuarterAndAHalf = createCron(new SingleValueRule(30), new RepeatRule(0, 59, 15));
+
+    private final long from = ZonedDateTime.of(2015, 2, 5, 13, 0, 0, 0, ZoneOffset.UTC).toInstant().toEpochMilli();
+
+    /**
+     * Ensures the occurrences are merged in chronological order, with the weights of the expressions summed.
+     */
+    @Test
+    public void testMerge() {
+        Map<CronExpression, Integer> weights = new HashMap<>();
+        weights.put(everyMinute, 1);
+        weights.put(everyQuarter, 10);
+        weights.put(everyQuarterAndAHalf, 100);
+        OccurrenceTimeline timeline = new OccurrenceTimeline(weights, from, from + 16 * MINUTE, ZoneOffset.UTC);
+
+        assertTrue(timeline.next());
+        assertEquals(from + 30000, timeline.getEpochMillis());
+        assertEquals(100, timeline.getFirings());
+        for (int minute = 1; minute <= 16; minute++) {
+            assertTrue(timeline.next());
+            assertEquals(from + minute * MINUTE, timeline.getEpochMillis());
+            assertEquals(minute == 15 ? 11 : 1, timeline.getFirings());
+            if (minute == 15) {
+                assertTrue(timeline.next());
+                assertEquals(from + minute * MINUTE + 30000, timeline.getEpochMillis());
+                assertEquals(100, timeline.getFirings());
+            }
+        }
+        assertFalse(timeline.next());
+    }
+
+    /**
+     * Tests the sums per bucket.
+     */
+    @Test
+    public void testCountPerBucket() {
+        Map<CronExpression, Integer> weights = new HashMap<>();
+        weights.put(everyMinute, 2);
+        weights.put(everyQuarter, 5);
+
+        // the last bucket is truncated
+        assertArrayEquals(new long[] { 30 + 5, 30 + 5, 30 + 5, 30 + 5, 12 },
+                new OccurrenceTimeline(weights, from, from + 66 * MINUTE, ZoneOffset.UTC).countPerBucket(15 * MINUTE));
+        // the start is exclusive
+        assertArrayEquals(new long[] { 2 + 5 }, new OccurrenceTimeline(weights, from + 14 * MINUTE, from + 15 * MINUTE,
+                ZoneOffset.UTC).countPerBucket(MINUTE));
+    }
+
+    /**
+     * Ensures an empty timeline can be created.
+     */
+    @Test
+    public void testEmpty() {
+        OccurrenceTimeline timeline = new OccurrenceTimeline(Collections.<CronExpression, Integer> emptyMap(), from,
+                from + MINUTE, ZoneOffset.UTC);
+        assertFalse(timeline.next());
+        assertArrayEquals(new long[1], timeline.countPerBucket(MINUTE));
+    }
+
+    /**
+     * Ensures a window cannot end before it starts.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidWindow() {
+        new OccurrenceTimeline(Collections.<CronExpression, Integer> emptyMap(), from, from - 1, ZoneOffset.UTC);
+    }
+
+    private static CronExpression createCron(CronRule second, CronRule minute) {
+        CronRule any = new AnyValueRule();
+        return CronExpression.Builder.create().set(Field.SECOND, second).set(Field.MINUTE, minute)
+                .set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any)
+                .set(Field.YEAR, any).set(DayConstraint.NONE).build();
+    }
+}
@@ -0,0 +1,361 @@
+package org.keyboardplaying.cron.predictor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.expression.CronExpression;
+import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
+import org.keyboardplaying.cron.expression.CronExpression.Field;
+import org.keyboardplaying.cron.expression.rule.AnyValueRule;
+import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.MultipleRule;
+import org.keyboardplaying.cron.expression.rule.RangeRule;
+import org.keyboardplaying.cron.expression.rule.RepeatRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
+
+/**
+ * Tests the {@link ZonedCronPredictor}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ZonedCronPredictorTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+
+    private OccurrencePredictor cpu = new ZonedCronPredictor();
+
+    /**
+     * Ensures the predictor throws an exception if the supplied {@link CronExpression} is null.
+     */
+    @Test(expected = NullPointerException.class)
+    public void testNullExpr() {
+        cpu.predictNext(null, null);
+    }
+
+    /**
+     * Tests the incrementing of several fields with a Quartz-like expression such as {@code 0 * * * ? 1970-2016}.
+     */
+    @Test
+    public void testBasicCaseAndIncrements() {
+        CronRule any = new AnyValueRule();
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, any).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, any).set(Field.YEAR, new RangeRule(1970, 2016)).set(DayConstraint.NONE).build();
+
+        assertNext("2015-02-05T13:38:00", cron, "2015-02-05T13:37:00");
+        assertNext("2015-02-05T13:37:00", cron, "2015-02-05T13:36:30");
+        assertNext("2015-02-05T17:00:00", cron, "2015-02-05T16:59:01");
+        assertNext("2015-02-06T00:00:00", cron, "2015-02-05T23:59:02");
+        assertNext("2015-03-01T00:00:00", cron, "2015-02-28T23:59:03");
+        assertNext("2015-04-01T00:00:00", cron, "2015-03-31T23:59:05");
+        assertNext("2016-01-01T00:00:00", cron, "2015-12-31T23:59:07");
+        assertNext(null, cron, "2016-12-31T23:59:08");
+    }
+
+    /**
+     * Tests the incrementing of some fields with a Unix-like expression such as {@code 0 0 1-31/10 * mon-fri}. Year is
+     * ranged from 1970 to 2015.
+     */
+    @Test
+    public void testBothOrDayConstraints() {
+        CronRule any = new AnyValueRule();
+        CronRule zero = new SingleValueRule(0);
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, zero).set(Field.MINUTE, zero)
+                .set(Field.HOUR, zero).set(Field.DAY_OF_MONTH, new RepeatRule(1, 31, 10)).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, new RangeRule(Calendar.MONDAY, Calendar.FRIDAY))
+                .set(Field.YEAR, new RangeRule(1970, 2015)).set(DayConstraint.BOTH_OR).build();
+
+        assertNext("2015-02-01T00:00:00", cron, "2015-01-31T16:42:30");
+        assertNext("2015-02-02T00:00:00", cron, "2015-02-01T00:00:00");
+        assertNext("2015-02-21T00:00:00", cron, "2015-02-20T13:37:00");
+        assertNext("2015-02-23T00:00:00", cron, "2015-02-21T00:00:00");
+        assertNext(null, cron, "2015-12-31T00:00:00");
+    }
+
+    /**
+     * Tests the incrementing of some fields with a Quartz-like expression such as {@code 0 0 0 1-31/10#W * ? 1970-2015}
+     * .
+     */
+    @Test
+    public void testBothAndDayConstraints() {
+        CronRule any = new AnyValueRule();
+        CronRule zero = new SingleValueRule(0);
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, zero).set(Field.MINUTE, zero)
+                .set(Field.HOUR, zero).set(Field.DAY_OF_MONTH, new RepeatRule(1, 31, 10)).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, new RangeRule(Calendar.MONDAY, Calendar.FRIDAY))
+                .set(Field.YEAR, new RangeRule(1970, 2015)).set(DayConstraint.BOTH_AND).build();
+
+        assertNext("2015-02-11T00:00:00", cron, "2015-01-31T16:42:30");
+        assertNext("2015-03-11T00:00:00", cron, "2015-02-20T13:37:00");
+        assertNext("2015-03-31T00:00:00", cron, "2015-03-11T00:00:00");
+        assertNext(null, cron, "2015-12-31T00:00:00");
+    }
+
+    /**
+     * Tests the finding or leaping over February 29th, ensuring it is not equivalent with March 1st.
+     */
+    @Test
+    public void testLeapYears() {
+        CronRule any = new AnyValueRule();
+        CronRule zero = new SingleValueRule(0);
+        CronExpression cron;
+
+        cron = CronExpression.Builder.create().set(Field.SECOND, zero).set(Field.MINUTE, zero)
+                .set(Field.HOUR, zero).set(Field.DAY_OF_MONTH, new SingleValueRule(29))
+                .set(Field.MONTH, new SingleValueRule(Calendar.FEBRUARY)).set(Field.DAY_OF_WEEK, any)
+                .set(Field.YEAR, new RangeRule(2012, 2050)).set(DayConstraint.MONTH).build();
+
+        assertNext("2016-02-29T00:00:00", cron, "2012-03-01T00:00:00");
+        // 2100 is not a leap year
+        cron = CronExpression.Builder.create().set(Field.SECOND, zero).set(Field.MINUTE, zero).set(Field.HOUR, zero)
+                .set(Field.DAY_OF_MONTH, new SingleValueRule(29))
+                .set(Field.MONTH, new SingleValueRule(Calendar.FEBRUARY)).set(Field.DAY_OF_WEEK, any)
+                .set(Field.YEAR, any).set(DayConstraint.MONTH).build();
+        assertNext("2104-02-29T00:00:00", cron, "2096-03-01T00:00:00");
+    }
+
+    /**
+     * Ensures the result is expressed in the time-zone of the time base.
+     */
+    @Test
+    public void testTimeZone() {
+        CronRule any = new AnyValueRule();
+        CronRule zero = new SingleValueRule(0);
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, zero).set(Field.MINUTE, zero)
+                .set(Field.HOUR, new SingleValueRule(9)).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any).set(DayConstraint.NONE).build();
+
+        ZoneId paris = ZoneId.of("Europe/Paris");
+        ZonedDateTime next = cpu.predictNext(cron, ZonedDateTime.of(2015, 2, 5, 13, 37, 0, 0, paris));
+        assertEquals(ZonedDateTime.of(2015, 2, 6, 9, 0, 0, 0, paris), next);
+    }
+
+    /**
+     * Ensures the policies of the predictor are applied to the daylight saving transitions.
+     */
+    @Test
+    public void testPolicies() {
+        CronRule any = new AnyValueRule();
+        // 0 30 2 * * ? *
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(30)).set(Field.HOUR, new SingleValueRule(2))
+                .set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any)
+                .set(DayConstraint.NONE).build();
+        ZoneId paris = ZoneId.of("Europe/Paris");
+        ZonedDateTime beforeGap = ZonedDateTime.of(2015, 3, 28, 12, 0, 0, 0, paris);
+        ZonedDateTime beforeOverlap = ZonedDateTime.of(2015, 10, 24, 12, 0, 0, 0, paris);
+
+        assertEquals(ZonedDateTime.of(2015, 3, 29, 3, 30, 0, 0, paris), cpu.predictNext(cron, beforeGap));
+        assertEquals(ZonedDateTime.of(2015, 3, 29, 3, 0, 0, 0, paris),
+                new ZonedCronPredictor(GapPolicy.NEXT_VALID, OverlapPolicy.EARLIER).predictNext(cron, beforeGap));
+        assertEquals(ZonedDateTime.of(2015, 3, 30, 2, 30, 0, 0, paris),
+                new ZonedCronPredictor(GapPolicy.SKIP, OverlapPolicy.EARLIER).predictNext(cron, beforeGap));
+
+        ZonedDateTime earlier = cpu.predictNext(cron, beforeOverlap);
+        assertEquals(ZoneOffset.ofHours(2), earlier.getOffset());
+        ZonedCronPredictor later = new ZonedCronPredictor(GapPolicy.SHIFT, OverlapPolicy.LATER);
+        assertEquals(earlier.withLaterOffsetAtOverlap(), later.predictNext(cron, beforeOverlap));
+        assertEquals(ZoneOffset.ofHours(1), later.predictNext(cron, beforeOverlap).getOffset());
+        ZonedCronPredictor both = new ZonedCronPredictor(GapPolicy.SHIFT, OverlapPolicy.BOTH);
+        assertEquals(earlier.withLaterOffsetAtOverlap(), both.predictNext(cron, both.predictNext(cron,
+                beforeOverlap)));
+    }
+
+    /**
+     * Ensures a local time in an overlap is resolved with the earlier offset whatever the offset of the time base,
+     * unless the time base is already past the transition.
+     */
+    @Test
+    public void testOverlapWhateverTheBase() {
+        CronRule any = new AnyValueRule();
+        // 0 20 1 1 11 ? *, 1:20 happens twice in New York on November 1st 2020
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(20)).set(Field.HOUR, new SingleValueRule(1))
+                .set(Field.DAY_OF_MONTH, new SingleValueRule(1))
+                .set(Field.MONTH, new SingleValueRule(Calendar.NOVEMBER)).set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any).set(DayConstraint.MONTH).build();
+        ZoneId newYork = ZoneId.of("America/New_York");
+        ZonedDateTime earlier = ZonedDateTime.of(2020, 11, 1, 1, 20, 0, 0, newYork);
+
+        // from winter time and from summer time
+        assertEquals(earlier, cpu.predictNext(cron, ZonedDateTime.of(2020, 1, 15, 0, 0, 0, 0, newYork)));
+        assertEquals(earlier, cpu.predictNext(cron, ZonedDateTime.of(2020, 6, 15, 0, 0, 0, 0, newYork)));
+        // from the second 1:10 of the night
+        ZonedDateTime afterTransition = ZonedDateTime.of(2020, 11, 1, 1, 10, 0, 0, newYork).withLaterOffsetAtOverlap();
+        assertEquals(earlier.withLaterOffsetAtOverlap(), cpu.predictNext(cron, afterTransition));
+    }
+
+    /**
+     * Ensures the predictor gives the same results as the {@link CronPredictor} on random expressions and dates.
+     */
+    @Test
+    public void testSameAsCalendarPredictor() {
+        OccurrencePredictor reference = new CronPredictor();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            CronExpression cron = randomCron(random);
+            ZonedDateTime from = ZonedDateTime.of(2015 + random.nextInt(10), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), 0, UTC);
+            assertEquals(describe(cron) + " from " + from, toInstant(reference.predictNext(cron, from)),
+                    toInstant(cpu.predictNext(cron, from)));
+        }
+    }
+
+    /**
+     * Tests the search of the previous occurrence.
+     */
+    @Test
+    public void testPredictPrevious() {
+        ZonedCronPredictor zoned = new ZonedCronPredictor();
+        CronRule any = new AnyValueRule();
+        // 0 0 9 1/10 * MON-FRI 2015, either constraint may match
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new SingleValueRule(0)).set(Field.HOUR, new SingleValueRule(9))
+                .set(Field.DAY_OF_MONTH, new RepeatRule(1, 31, 10)).set(Field.MONTH, any)
+                .set(Field.DAY_OF_WEEK, new RangeRule(Calendar.MONDAY, Calendar.FRIDAY))
+                .set(Field.YEAR, new SingleValueRule(2015)).set(DayConstraint.BOTH_OR).build();
+
+        // Saturday 2015-02-07 -> Friday
+        assertEquals(LocalDateTime.parse("2015-02-06T09:00:00").atZone(UTC),
+                zoned.predictPrevious(cron, LocalDateTime.parse("2015-02-07T12:00:00").atZone(UTC)));
+        // exclusive, but not for a fraction of second
+        assertEquals(LocalDateTime.parse("2015-02-05T09:00:00").atZone(UTC),
+                zoned.predictPrevious(cron, LocalDateTime.parse("2015-02-06T09:00:00").atZone(UTC)));
+        assertEquals(LocalDateTime.parse("2015-02-06T09:00:00").atZone(UTC),
+                zoned.predictPrevious(cron, LocalDateTime.parse("2015-02-06T09:00:00.000001").atZone(UTC)));
+        // Sunday 2015-03-01 -> matched by day of month
+        assertEquals(LocalDateTime.parse("2015-03-01T09:00:00").atZone(UTC),
+                zoned.predictPrevious(cron, LocalDateTime.parse("2015-03-01T09:30:00").atZone(UTC)));
+        // across years
+        assertEquals(LocalDateTime.parse("2015-12-31T09:00:00").atZone(UTC),
+                zoned.predictPrevious(cron, LocalDateTime.parse("2017-06-01T00:00:00").atZone(UTC)));
+        assertNull(zoned.predictPrevious(cron, LocalDateTime.parse("2015-01-01T09:00:00").atZone(UTC)));
+    }
+
+    /**
+     * Ensures the previous occurrence is consistent with the next one on random expressions and dates: it is an
+     * occurrence, and the next occurrence after it is not before the time base.
+     */
+    @Test
+    public void testPredictPreviousConsistency() {
+        ZonedCronPredictor zoned = new ZonedCronPredictor();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            CronExpression cron = randomCron(random);
+            ZonedDateTime from = ZonedDateTime.of(2015 + random.nextInt(10), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60), random.nextInt(60), 0, UTC);
+            ZonedDateTime previous = zoned.predictPrevious(cron, from);
+            if (previous != null) {
+                String message = describe(cron) + " from " + from;
+                assertTrue(message, previous.isBefore(from));
+                assertEquals(message, previous, zoned.predictNext(cron, previous.minusSeconds(1)));
+                assertFalse(message, zoned.predictNext(cron, previous).isBefore(from));
+            }
+        }
+    }
+
+    /**
+     * Ensures the lazy occurrences are the same as the ones computed by the default implementation, which chains
+     * calls to {@link CronPredictor#predictNext(CronExpression, ZonedDateTime)}.
+     */
+    @Test
+    public void testOccurrences() {
+        OccurrencePredictor reference = new CronPredictor();
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            CronExpression cron = randomCron(random);
+            Instant from = ZonedDateTime.of(2015 + random.nextInt(10), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), 0, UTC).toInstant();
+            Instant to = from.plus(Duration.ofDays(random.nextInt(400)));
+            assertEquals(describe(cron) + " from " + from,
+                    reference.occurrences(cron, from, to, UTC).limit(50).collect(Collectors.toList()),
+                    cpu.occurrences(cron, from, to, UTC).limit(50).collect(Collectors.toList()));
+        }
+
+        // unbounded
+        CronExpression cron = CronExpression.Builder.create().set(Field.SECOND, new SingleValueRule(0))
+                .set(Field.MINUTE, new RepeatRule(0, 59, 5)).set(Field.HOUR, new AnyValueRule())
+                .set(Field.DAY_OF_MONTH, new AnyValueRule()).set(Field.MONTH, new AnyValueRule())
+                .set(Field.DAY_OF_WEEK, new AnyValueRule()).set(Field.YEAR, new AnyValueRule())
+                .set(DayConstraint.NONE).build();
+        Instant from = Instant.parse("2015-02-05T13:37:00Z");
+        assertEquals(Instant.parse("2015-02-12T13:35:00Z"), cpu.occurrences(cron, from, null, UTC)
+                .skip(7 * 24 * 12 - 1).findFirst().get());
+    }
+
+    /* Testing utility */
+    private void assertNext(String expected, CronExpression cron, String argument) {
+        ZonedDateTime actual = cpu.predictNext(cron, LocalDateTime.parse(argument).atZone(UTC));
+        if (expected == null) {
+            assertNull(actual);
+        } else {
+            assertEquals(LocalDateTime.parse(expected).atZone(UTC), actual);
+        }
+    }
+
+    private static Instant toInstant(ZonedDateTime zdt) {
+        return zdt == null ? null : zdt.toInstant();
+    }
+
+    private static CronExpression randomCron(Random random) {
+        CronExpression.Builder builder = CronExpression.Builder.create();
+        for (Field field : Field.values()) {
+            if (field == Field.YEAR) {
+                // keep the years bounded, the Calendar predictor recursing deeply on impossible expressions
+                builder.set(field, new RangeRule(2015, 2030));
+            } else {
+                builder.set(field, randomRule(random, field.getMin(), field.getMax(), 2));
+            }
+        }
+        DayConstraint[] constraints = DayConstraint.values();
+        return builder.set(constraints[random.nextInt(constraints.length)]).build();
+    }
+
+    private static CronRule randomRule(Random random, int min, int max, int depth) {
+        int a = min + random.nextInt(max - min + 1);
+        int b = min + random.nextInt(max - min + 1);
+        switch (random.nextInt(depth > 0 ? 5 : 4)) {
+            case 0:
+                return new AnyValueRule();
+            case 1:
+                return new SingleValueRule(a);
+            case 2:
+                return new RangeRule(Math.min(a, b), Math.max(a, b));
+            case 3:
+                return new RepeatRule(Math.min(a, b), Math.max(a, b), 1 + random.nextInt(Math.max(1, (max - min) / 2)));
+            default:
+                List<CronRule> rules = new ArrayList<>();
+                for (int i = 1 + random.nextInt(4); i > 0; i--) {
+                    rules.add(randomRule(random, min, max, depth - 1));
+                }
+                return new MultipleRule(rules);
+        }
+    }
+
+    private static String describe(CronExpression cron) {
+        StringBuilder sb = new StringBuilder(cron.getDayConstraint().name());
+        for (Field field : Field.values()) {
+            sb.append(' ').append(field).append('=');
+            for (int i = field.getMin(); i <= Math.min(field.getMax(), 2030); i++) {
+                if (cron.get(field).allows(i)) {
+                    sb.append(i).append(',');
+                }
+            }
+        }
+        return sb.toString();
+    }
+}
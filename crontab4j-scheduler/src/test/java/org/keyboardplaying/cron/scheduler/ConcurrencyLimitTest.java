@@ -0,0 +1,212 @@
+package org.keyboardplaying.cron.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.keyboardplaying.cron.scheduler.execution.BoundedJobExecutor;
+import org.keyboardplaying.cron.scheduler.execution.OverflowPolicy;
+
+/**
+ * Tests {@link ConcurrencyLimit}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class ConcurrencyLimitTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+    // the instances handed over to the executor, run only when the test decides so
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    private ConcurrencyLimit createLimit(int maxConcurrent, OverrunPolicy policy) {
+        return new ConcurrencyLimit(runs::incrementAndGet, submitted::add, maxConcurrent, policy);
+    }
+
+    /**
+     * Ensures the limit must be strictly positive.
+     */
+    @SuppressWarnings("unused")
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimit() {
+        createLimit(0, OverrunPolicy.SKIP);
+    }
+
+    /**
+     * Ensures the firings beyond the limit are dropped with {@link OverrunPolicy#SKIP}.
+     */
+    @Test
+    public void testSkip() {
+        ConcurrencyLimit limit = createLimit(2, OverrunPolicy.SKIP);
+
+        assertTrue(limit.fire());
+        assertTrue(limit.fire());
+        assertFalse(limit.fire());
+        assertEquals(2, submitted.size());
+        assertEquals(2, limit.getState());
+
+        submitted.get(0).run();
+        assertEquals(1, runs.get());
+        assertEquals(1, limit.getState());
+        assertTrue(limit.fire());
+        assertEquals(3, submitted.size());
+    }
+
+    /**
+     * Ensures a single firing beyond the limit waits for an instance to end with
+     * {@link OverrunPolicy#QUEUE_ONE_BEHIND}.
+     */
+    @Test
+    public void testQueueOneBehind() {
+        ConcurrencyLimit limit = createLimit(1, OverrunPolicy.QUEUE_ONE_BEHIND);
+
+        assertTrue(limit.fire());
+        assertTrue(limit.fire());
+        assertFalse(limit.fire());
+        assertEquals(1, submitted.size());
+        assertEquals(2, limit.getState());
+
+        // the waiting firing runs in the worker of the instance which ends
+        submitted.get(0).run();
+        assertEquals(1, submitted.size());
+        assertEquals(2, runs.get());
+        assertEquals(0, limit.getState());
+    }
+
+    /**
+     * Ensures a waiting firing is dropped if its job is no longer active when an instance ends.
+     */
+    @Test
+    public void testWaitingNoLongerActive() {
+        ConcurrencyLimit limit = createLimit(1, OverrunPolicy.QUEUE_ONE_BEHIND);
+        AtomicBoolean active = new AtomicBoolean(true);
+
+        assertTrue(limit.fire());
+        assertTrue(limit.fire(runs::incrementAndGet, active::get));
+        active.set(false);
+
+        submitted.get(0).run();
+        assertEquals(1, runs.get());
+        assertEquals(0, limit.getState());
+        assertTrue(limit.fire());
+        assertEquals(2, submitted.size());
+    }
+
+    /**
+     * Ensures a waiting firing does not block the worker of the instance which ends when the executor queue is full.
+     */
+    @Test(timeout = 2000)
+    public void testWaitingWithFullQueue() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedJobExecutor executor = new BoundedJobExecutor(1, 1, OverflowPolicy.QUEUE);
+        ConcurrencyLimit limit = new ConcurrencyLimit(() -> {
+            runs.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, executor, 1, OverrunPolicy.QUEUE_ONE_BEHIND);
+
+        assertTrue(limit.fire());
+        assertTrue(limit.fire());
+        // fill the queue while the limited job runs
+        CountDownLatch other = new CountDownLatch(1);
+        executor.execute(other::countDown);
+
+        release.countDown();
+        assertTrue(other.await(1, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(2, runs.get());
+        assertEquals(0, limit.getState());
+    }
+
+    /**
+     * Ensures a firing rejected by the executor releases its slot.
+     */
+    @Test
+    public void testRejected() {
+        ConcurrencyLimit limit = new ConcurrencyLimit(runs::incrementAndGet, command -> {
+            throw new RejectedExecutionException("Shut down");
+        }, 1, OverrunPolicy.SKIP);
+
+        try {
+            limit.fire();
+            fail();
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+        assertEquals(0, limit.getState());
+    }
+
+    /**
+     * Ensures a firing the executor drops releases its slot.
+     */
+    @Test(timeout = 2000)
+    public void testDroppedByExecutor() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedJobExecutor executor = createBusyExecutor(1, OverflowPolicy.DROP, release);
+        ConcurrencyLimit limit = new ConcurrencyLimit(runs::incrementAndGet, executor, 2, OverrunPolicy.SKIP);
+
+        assertTrue(limit.fire());
+        // the queue is full: the executor drops the firing, which gives its slot back
+        assertTrue(limit.fire());
+        assertEquals(1, executor.getDroppedCount());
+        assertEquals(1, limit.getState());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals(0, limit.getState());
+    }
+
+    /**
+     * Ensures an executor coalescing identical jobs merges the waiting instances of the same job, and that the
+     * instances it drops release their slots.
+     */
+    @Test(timeout = 2000)
+    public void testCoalescedByExecutor() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedJobExecutor executor = createBusyExecutor(2, OverflowPolicy.COALESCE, release);
+        ConcurrencyLimit limit = new ConcurrencyLimit(runs::incrementAndGet, executor, 3, OverrunPolicy.SKIP);
+
+        assertTrue(limit.fire());
+        // the first instance is still waiting in the queue
+        assertTrue(limit.fire());
+        assertEquals(1, executor.getDroppedCount());
+        assertEquals(1, limit.getState());
+
+        release.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+        assertEquals(0, limit.getState());
+    }
+
+    private static BoundedJobExecutor createBusyExecutor(int queueCapacity, OverflowPolicy policy,
+            CountDownLatch release) throws InterruptedException {
+        BoundedJobExecutor executor = new BoundedJobExecutor(1, queueCapacity, policy);
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        started.await();
+        return executor;
+    }
+}
@@ -2,7 +2,11 @@ package org.keyboardplaying.cron.scheduler;
 
 import static org.junit.Assert.assertEquals;
 
+import java.time.ZoneId;
+
 import org.junit.Test;
+import org.keyboardplaying.cron.predictor.GapPolicy;
+import org.keyboardplaying.cron.predictor.OverlapPolicy;
 
 /**
  * Tests {@link CronJob}.
@@ -53,8 +57,33 @@ public class CronJobTest {
         CronJob cj = new CronJob();
         cj.setJob(job);
         cj.setCron(CRON_EVRY_MIN);
+        Jitter jitter = Jitters.spreadOverMinute();
+        cj.setKey("job");
+        cj.setJitter(jitter);
+        cj.setZone(ZoneId.of("Europe/Paris"));
+        cj.setGapPolicy(GapPolicy.SKIP);
+        cj.setOverlapPolicy(OverlapPolicy.BOTH);
+        cj.setMisfirePolicy(MisfirePolicy.SKIP_TO_NEXT);
+        cj.setMaxConcurrent(1);
+        cj.setOverrunPolicy(OverrunPolicy.QUEUE_ONE_BEHIND);
 
         assertEquals(job, cj.getJob());
         assertEquals(CRON_EVRY_MIN, cj.getCron());
+        assertEquals("job", cj.getKey());
+        assertEquals(jitter, cj.getJitter());
+        assertEquals(ZoneId.of("Europe/Paris"), cj.getZone());
+        assertEquals(GapPolicy.SKIP, cj.getGapPolicy());
+        assertEquals(OverlapPolicy.BOTH, cj.getOverlapPolicy());
+        assertEquals(MisfirePolicy.SKIP_TO_NEXT, cj.getMisfirePolicy());
+        assertEquals(1, cj.getMaxConcurrent());
+        assertEquals(OverrunPolicy.QUEUE_ONE_BEHIND, cj.getOverrunPolicy());
+    }
+
+    /**
+     * Ensures the maximal number of concurrent instances cannot be negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMaxConcurrent() {
+        new CronJob().setMaxConcurrent(-1);
     }
 }
@@ -7,14 +7,27 @@ import org.keyboardplaying.cron.expression.CronExpression.DayConstraint;
 import org.keyboardplaying.cron.expression.CronExpression.Field;
 import org.keyboardplaying.cron.expression.rule.AnyValueRule;
 import org.keyboardplaying.cron.expression.rule.CronRule;
+import org.keyboardplaying.cron.expression.rule.SingleValueRule;
 import org.keyboardplaying.cron.parser.CronSyntacticParser;
+import org.keyboardplaying.cron.parser.UnixCronParser;
+import org.keyboardplaying.cron.predictor.OccurrenceTimeline;
+import org.keyboardplaying.cron.predictor.ZonedCronPredictor;
+import org.keyboardplaying.cron.scheduler.engine.ExecutorTriggerEngine;
+import org.keyboardplaying.cron.scheduler.engine.TriggerEngine;
 
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests {@link CronScheduler}.
@@ -34,8 +47,16 @@ public class CronSchedulerTest {
     @Before
     public void initScheduler() {
         schd = new CronScheduler();
-        // Use a mock CRON parser to trigger a CRON everyy second.
-        schd.setParser(new CronSyntacticParser() {
+        schd.setParser(createParser());
+    }
+
+    /**
+     * Creates a mock CRON parser to trigger a CRON every second.
+     *
+     * @return the mock parser
+     */
+    private static CronSyntacticParser createParser() {
+        return new CronSyntacticParser() {
 
             @Override
             public boolean isValid(String cron) {
@@ -49,7 +70,7 @@ public class CronSchedulerTest {
                         .set(Field.MINUTE, any).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
                         .set(Field.DAY_OF_WEEK, any).set(Field.YEAR, any).build();
             }
-        });
+        };
     }
 
     /**
@@ -88,4 +109,425 @@ public class CronSchedulerTest {
         schd.terminate();
         assertEquals(2, latch.getCount());
     }
+
+    /**
+     * Ensures no job can be scheduled once the scheduler has been terminated.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testScheduleAfterTerminate() {
+        schd.terminate();
+        schd.scheduleJob(job, "* * * * * *");
+    }
+
+    /**
+     * Ensures a failing job does not prevent the next occurrences nor other jobs from being triggered.
+     */
+    @Test(timeout = 3500)
+    public void testFailingJob() throws InterruptedException {
+        latch = new CountDownLatch(2);
+        schd.scheduleJob(() -> {
+            throw new IllegalStateException("Failing job");
+        }, "* * * * * *");
+        schd.scheduleJob(job, "* * * * * *");
+        latch.await(3000, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+    }
+
+    /**
+     * Ensures jobs sharing the same CRON are triggered together, with a single prediction of their next occurrence.
+     */
+    @Test(timeout = 3500)
+    public void testBatchedJobs() throws InterruptedException {
+        final int jobs = 50;
+        final AtomicInteger predictions = new AtomicInteger();
+        final ZonedCronPredictor predictor = new ZonedCronPredictor();
+        schd.setPredictor((cron, from) -> {
+            predictions.incrementAndGet();
+            return predictor.predictNext(cron, from);
+        });
+
+        latch = new CountDownLatch(jobs);
+        for (int i = 0; i < jobs; i++) {
+            schd.scheduleJob(job, "* * * * * *");
+        }
+        // the first job's occurrence is shared with the following ones
+        assertEquals(1, predictions.get());
+
+        latch.await(3000, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+        // a single prediction for the occurrence after the first one
+        assertEquals(2, predictions.get());
+    }
+
+    /**
+     * Ensures a schedule whose next occurrence cannot be predicted is forgotten without stopping the other schedules
+     * of its batch, and that a new job with the same expression is scheduled again.
+     */
+    @Test(timeout = 6500)
+    public void testFailingPrediction() throws InterruptedException {
+        final CronSyntacticParser parser = createParser();
+        schd.setParser(new CronSyntacticParser() {
+
+            @Override
+            public boolean isValid(String cron) {
+                return true;
+            }
+
+            @Override
+            public CronExpression parse(String cron) {
+                CronExpression expression = parser.parse(cron);
+                // a distinct expression matching the same instants
+                return "fail".equals(cron) ? CronExpression.Builder.create().set(DayConstraint.BOTH_OR)
+                        .set(Field.SECOND, expression.get(Field.SECOND)).set(Field.MINUTE, expression.get(Field.MINUTE))
+                        .set(Field.HOUR, expression.get(Field.HOUR))
+                        .set(Field.DAY_OF_MONTH, expression.get(Field.DAY_OF_MONTH))
+                        .set(Field.MONTH, expression.get(Field.MONTH))
+                        .set(Field.DAY_OF_WEEK, expression.get(Field.DAY_OF_WEEK))
+                        .set(Field.YEAR, expression.get(Field.YEAR)).build() : expression;
+            }
+        });
+        final ZonedCronPredictor predictor = new ZonedCronPredictor();
+        final AtomicInteger failing = new AtomicInteger();
+        schd.setPredictor((cron, from) -> {
+            if (cron.getDayConstraint() == DayConstraint.BOTH_OR && failing.get() > 0) {
+                failing.decrementAndGet();
+                throw new IllegalStateException("Broken predictor");
+            }
+            return predictor.predictNext(cron, from);
+        });
+
+        final AtomicInteger failed = new AtomicInteger();
+        schd.scheduleJob(failed::incrementAndGet, "fail");
+        failing.set(1);
+        latch = new CountDownLatch(2);
+        schd.scheduleJob(job, "* * * * * *");
+        // the other schedule of the batch is still enqueued
+        latch.await(3000, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+        assertEquals(0, failing.get());
+        // the failing schedule does not fire anymore
+        int fired = failed.get();
+        Thread.sleep(1100);
+        assertEquals(fired, failed.get());
+
+        // the failing schedule was forgotten, so a new job starts a new one
+        latch = new CountDownLatch(1);
+        schd.scheduleJob(job, "fail");
+        latch.await(1500, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+    }
+
+    /**
+     * Ensures the timeline counts the firings of all the scheduled jobs.
+     */
+    @Test
+    public void testTimeline() {
+        for (int i = 0; i < 3; i++) {
+            schd.scheduleJob(job, "* * * * * *");
+        }
+        long from = System.currentTimeMillis() + 60000;
+
+        OccurrenceTimeline timeline = schd.getTimeline(from, from + 10000);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(timeline.next());
+            assertEquals(3, timeline.getFirings());
+        }
+        assertFalse(timeline.next());
+        assertArrayEquals(new long[] { 30, 30 }, schd.getTimeline(from, from + 20000).countPerBucket(10000));
+    }
+
+    /**
+     * Ensures a jitter delays the firings of a job after the occurrences of its CRON.
+     */
+    @Test(timeout = 3500)
+    public void testJitter() throws InterruptedException {
+        final long delay = 400;
+        final long[] firings = new long[2];
+        latch = new CountDownLatch(2);
+        CronJob delayed = new CronJob(() -> {
+            firings[(int) latch.getCount() - 1] = System.currentTimeMillis();
+            latch.countDown();
+        }, "* * * * * *");
+        delayed.setJitter((key, epochMillis) -> delay);
+        schd.scheduleJob(delayed);
+
+        latch.await(3000, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+        for (long firing : firings) {
+            // the occurrences are at the start of each second
+            assertTrue(firing % 1000 >= delay);
+        }
+    }
+
+    /**
+     * Ensures the jobs are evaluated in their own time-zone, and share a schedule only within the same time-zone.
+     */
+    @Test
+    public void testZone() {
+        schd.setParser(new UnixCronParser());
+        ZoneId utc = ZoneId.of("UTC");
+        ZoneId tokyo = ZoneId.of("Asia/Tokyo");
+        for (ZoneId zone : new ZoneId[] { utc, utc, tokyo }) {
+            CronJob noon = new CronJob(job, "0 12 * * *");
+            noon.setZone(zone);
+            schd.scheduleJob(noon);
+        }
+        long from = ZonedDateTime.now(utc).plusDays(1).toLocalDate().atStartOfDay(utc).toInstant().toEpochMilli();
+
+        OccurrenceTimeline timeline = schd.getTimeline(from, from + 86400000);
+        assertTrue(timeline.next());
+        assertEquals(from + 3 * 3600000, timeline.getEpochMillis());
+        assertEquals(1, timeline.getFirings());
+        assertTrue(timeline.next());
+        assertEquals(from + 12 * 3600000, timeline.getEpochMillis());
+        assertEquals(2, timeline.getFirings());
+        assertFalse(timeline.next());
+    }
+
+    /**
+     * Ensures the misfire policy of each job is applied when the scheduler is late.
+     */
+    @Test(timeout = 8000)
+    public void testMisfire() throws InterruptedException {
+        final TriggerEngine engine = new ExecutorTriggerEngine(1, "test-late", true);
+        // triggers every batch 1.5 seconds late, missing one occurrence of the CRON every time
+        CronScheduler late = new CronScheduler(new TriggerEngine() {
+
+            @Override
+            public void schedule(Runnable trigger, long epochMillis) {
+                engine.schedule(trigger, epochMillis + 1500);
+            }
+
+            @Override
+            public void terminate() {
+                engine.terminate();
+            }
+        });
+        late.setParser(createParser());
+        late.setMisfireThreshold(500);
+        // run the jobs on the trigger thread, in the order they were scheduled
+        late.setExecutor(Runnable::run);
+
+        final AtomicInteger once = new AtomicInteger();
+        final AtomicInteger skipped = new AtomicInteger();
+        latch = new CountDownLatch(4);
+        late.scheduleJob(once::incrementAndGet, "* * * * * *");
+        CronJob all = new CronJob(job, "* * * * * *");
+        all.setMisfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+        late.scheduleJob(all);
+        CronJob skip = new CronJob(skipped::incrementAndGet, "* * * * * *");
+        skip.setMisfirePolicy(MisfirePolicy.SKIP_TO_NEXT);
+        late.scheduleJob(skip);
+
+        try {
+            // two batches
+            latch.await();
+            assertEquals(2, once.get());
+            assertEquals(0, skipped.get());
+        } finally {
+            late.terminate();
+        }
+    }
+
+    /**
+     * Ensures a batch late by less than the misfire threshold predicts the next occurrence from its due time, so that
+     * the occurrences which elapsed meanwhile are not lost.
+     */
+    @Test(timeout = 3000)
+    public void testLateCatchUp() throws InterruptedException {
+        ManualTriggerEngine engine = new ManualTriggerEngine();
+        CronScheduler late = new CronScheduler(engine);
+        late.setParser(createParser());
+        late.setExecutor(Runnable::run);
+        latch = new CountDownLatch(1);
+        late.scheduleJob(job, "* * * * * *");
+
+        long due = engine.instants.get(0);
+        sleepUntil(due + 1500);
+        engine.triggers.get(0).run();
+        assertEquals(0, latch.getCount());
+        // the occurrence following the due time, although it has already elapsed
+        assertEquals(due + 1000, (long) engine.instants.get(1));
+        late.terminate();
+    }
+
+    /**
+     * Ensures the occurrences missed by a job with {@link MisfirePolicy#FIRE_ALL_MISSED} are handed over to the
+     * executor as a single task.
+     */
+    @Test(timeout = 4000)
+    public void testFireAllMissedAsSingleTask() throws InterruptedException {
+        ManualTriggerEngine engine = new ManualTriggerEngine();
+        CronScheduler late = new CronScheduler(engine);
+        late.setParser(createParser());
+        late.setMisfireThreshold(500);
+        List<Runnable> submitted = new ArrayList<>();
+        late.setExecutor(submitted::add);
+        AtomicInteger runs = new AtomicInteger();
+        CronJob all = new CronJob(runs::incrementAndGet, "* * * * * *");
+        all.setMisfirePolicy(MisfirePolicy.FIRE_ALL_MISSED);
+        late.scheduleJob(all);
+
+        long due = engine.instants.get(0);
+        sleepUntil(due + 2500);
+        engine.triggers.get(0).run();
+        assertEquals(1, submitted.size());
+        assertEquals(0, runs.get());
+        // the misfired occurrence and at least the two missed ones
+        submitted.get(0).run();
+        assertTrue(runs.get() >= 3);
+        late.terminate();
+    }
+
+    /**
+     * Ensures the misfire threshold cannot be negative.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeMisfireThreshold() {
+        schd.setMisfireThreshold(-1);
+    }
+
+    /**
+     * Ensures the misfire threshold cannot be null, which would deem any firing late by a millisecond misfired.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullMisfireThreshold() {
+        schd.setMisfireThreshold(0);
+    }
+
+    /**
+     * Ensures a cancelled job is not fired anymore, and cannot be rescheduled.
+     */
+    @Test(timeout = 3500)
+    public void testCancel() throws InterruptedException {
+        latch = new CountDownLatch(1);
+        JobHandle handle = schd.scheduleJob(job, "* * * * * *");
+
+        assertTrue(handle.cancel());
+        assertFalse(handle.cancel());
+        assertTrue(handle.isCancelled());
+        assertFalse(handle.pause());
+        assertFalse(latch.await(1500, TimeUnit.MILLISECONDS));
+        try {
+            handle.reschedule("* * * * * *");
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    /**
+     * Ensures a paused job is not fired until it is resumed.
+     */
+    @Test(timeout = 5000)
+    public void testPauseResume() throws InterruptedException {
+        latch = new CountDownLatch(1);
+        JobHandle handle = schd.scheduleJob(job, "* * * * * *");
+
+        assertTrue(handle.pause());
+        assertFalse(handle.pause());
+        assertTrue(handle.isPaused());
+        assertFalse(latch.await(1500, TimeUnit.MILLISECONDS));
+
+        assertTrue(handle.resume());
+        assertFalse(handle.resume());
+        assertFalse(handle.isPaused());
+        latch.await(2000, TimeUnit.MILLISECONDS);
+        assertEquals(0, latch.getCount());
+    }
+
+    /**
+     * Ensures the timeline follows the jobs as they are rescheduled, paused and cancelled.
+     */
+    @Test
+    public void testReschedule() {
+        schd.setParser(new UnixCronParser());
+        ZoneId utc = ZoneId.of("UTC");
+        CronJob noon = new CronJob(job, "0 12 * * *");
+        noon.setZone(utc);
+        JobHandle handle = schd.scheduleJob(noon);
+        long from = ZonedDateTime.now(utc).plusDays(1).toLocalDate().atStartOfDay(utc).toInstant().toEpochMilli();
+
+        handle.reschedule("0 13 * * *");
+        assertEquals("0 13 * * *", handle.getCron());
+        OccurrenceTimeline timeline = schd.getTimeline(from, from + 86400000);
+        assertTrue(timeline.next());
+        assertEquals(from + 13 * 3600000, timeline.getEpochMillis());
+        assertFalse(timeline.next());
+
+        handle.pause();
+        assertFalse(schd.getTimeline(from, from + 86400000).next());
+        handle.resume();
+        handle.cancel();
+        assertFalse(schd.getTimeline(from, from + 86400000).next());
+    }
+
+    /**
+     * Ensures a job is left untouched when it is rescheduled to an expression which never occurs.
+     */
+    @Test
+    public void testRescheduleWithoutOccurrence() {
+        final CronSyntacticParser everySecond = createParser();
+        schd.setParser(new CronSyntacticParser() {
+
+            @Override
+            public boolean isValid(String cron) {
+                return true;
+            }
+
+            @Override
+            public CronExpression parse(String cron) {
+                if (!"past".equals(cron)) {
+                    return everySecond.parse(cron);
+                }
+                final CronRule any = new AnyValueRule();
+                return CronExpression.Builder.create().set(DayConstraint.NONE).set(Field.SECOND, any)
+                        .set(Field.MINUTE, any).set(Field.HOUR, any).set(Field.DAY_OF_MONTH, any).set(Field.MONTH, any)
+                        .set(Field.DAY_OF_WEEK, any).set(Field.YEAR, new SingleValueRule(2000)).build();
+            }
+        });
+        JobHandle handle = schd.scheduleJob(() -> {
+        }, "* * * * * *");
+        long now = System.currentTimeMillis();
+
+        try {
+            handle.reschedule("past");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertEquals("* * * * * *", handle.getCron());
+        assertFalse(handle.isCancelled());
+        assertFalse(handle.isPaused());
+        assertTrue(schd.getTimeline(now, now + 5000).next());
+    }
+
+    private static void sleepUntil(long epochMillis) throws InterruptedException {
+        long delay;
+        while ((delay = epochMillis - System.currentTimeMillis()) > 0) {
+            Thread.sleep(delay);
+        }
+    }
+
+    /**
+     * A trigger engine which only records the triggers, for the test to run them when it decides so.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static class ManualTriggerEngine implements TriggerEngine {
+
+        private final List<Runnable> triggers = new ArrayList<>();
+        private final List<Long> instants = new ArrayList<>();
+
+        @Override
+        public synchronized void schedule(Runnable trigger, long epochMillis) {
+            triggers.add(trigger);
+            instants.add(epochMillis);
+        }
+
+        @Override
+        public void terminate() {
+            // nothing to release
+        }
+    }
 }
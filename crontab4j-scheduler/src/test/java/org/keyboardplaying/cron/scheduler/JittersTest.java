@@ -0,0 +1,80 @@
+package org.keyboardplaying.cron.scheduler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link Jitters}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class JittersTest {
+
+    private static final long OCCURRENCE = 1423141200000L;
+
+    /**
+     * Ensures no delay is applied by default.
+     */
+    @Test
+    public void testNone() {
+        assertEquals(0, Jitters.none().getDelayMillis("job", OCCURRENCE));
+    }
+
+    /**
+     * Ensures the hashed delays are stable for a job, within bounds, and spread across the jobs.
+     */
+    @Test
+    public void testHashed() {
+        Jitter jitter = Jitters.hashed(1000);
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            long delay = jitter.getDelayMillis("job-" + i, OCCURRENCE);
+            assertTrue(delay >= 0 && delay < 1000);
+            assertEquals(delay, jitter.getDelayMillis("job-" + i, OCCURRENCE + 3600000));
+            assertEquals(delay, Jitters.hashed(1000).getDelayMillis("job-" + i, OCCURRENCE));
+            delays.add(delay);
+        }
+        // close keys must not get close delays
+        assertTrue(delays.size() > 90);
+        assertNotEquals(jitter.getDelayMillis("job-1", OCCURRENCE) + 1, jitter.getDelayMillis("job-2", OCCURRENCE));
+    }
+
+    /**
+     * Ensures the jobs are spread across the minute.
+     */
+    @Test
+    public void testSpreadOverMinute() {
+        long delay = Jitters.spreadOverMinute().getDelayMillis("job", OCCURRENCE);
+        assertEquals(Jitters.hashed(60000).getDelayMillis("job", OCCURRENCE), delay);
+        assertTrue(delay >= 0 && delay < 60000);
+    }
+
+    /**
+     * Ensures the random delays are within bounds.
+     */
+    @Test
+    public void testRandom() {
+        Jitter jitter = Jitters.random(10);
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long delay = jitter.getDelayMillis("job", OCCURRENCE);
+            assertTrue(delay >= 0 && delay < 10);
+            delays.add(delay);
+        }
+        assertEquals(10, delays.size());
+    }
+
+    /**
+     * Ensures the upper bound of the delay must be strictly positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBound() {
+        Jitters.hashed(0);
+    }
+}
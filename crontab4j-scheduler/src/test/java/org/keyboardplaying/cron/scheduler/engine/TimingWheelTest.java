@@ -0,0 +1,144 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link TimingWheel}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class TimingWheelTest {
+
+    // an arbitrary start, not aligned on any level
+    private static final long START = 1_700_000_123L;
+
+    /**
+     * Ensures triggers are fired exactly at their tick, whatever the level they were stored in.
+     */
+    @Test
+    public void testFiringTicks() {
+        long[] delays = { 5, 59, 60, 90, 3599, 3600, 2 * 3600 + 17, 86400, 3 * 86400 + 1, 366 * 86400, 400 * 86400 + 42 };
+        TimingWheel wheel = new TimingWheel(START);
+        List<Runnable> fired = new ArrayList<>();
+        for (long delay : delays) {
+            wheel.add(new Marker(delay), START + delay);
+        }
+        assertEquals(delays.length, wheel.size());
+
+        for (long delay : delays) {
+            wheel.advance(START + delay - 1, fired);
+            assertTrue("Fired too early: " + fired, fired.isEmpty());
+
+            wheel.advance(START + delay, fired);
+            assertEquals(1, fired.size());
+            assertEquals(delay, ((Marker) fired.get(0)).delay);
+            fired.clear();
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Ensures a trigger added during a large advance is fired at its tick.
+     */
+    @Test
+    public void testAdvanceInSteps() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<Runnable> fired = new ArrayList<>();
+        wheel.add(new Marker(0), START + 10 * 86400 + 5);
+
+        // jump over several levels at once
+        wheel.advance(START + 10 * 86400, fired);
+        assertTrue(fired.isEmpty());
+        wheel.add(new Marker(1), START + 10 * 86400 + 3);
+        wheel.advance(START + 10 * 86400 + 3, fired);
+        assertEquals(1, fired.size());
+        assertEquals(1, ((Marker) fired.get(0)).delay);
+        wheel.advance(START + 10 * 86400 + 100, fired);
+        assertEquals(2, fired.size());
+        assertEquals(0, ((Marker) fired.get(1)).delay);
+    }
+
+    /**
+     * Ensures triggers added for the current tick or before are due immediately.
+     */
+    @Test
+    public void testDueTriggers() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<Runnable> fired = new ArrayList<>();
+        assertFalse(wheel.hasDue());
+
+        wheel.add(new Marker(0), START);
+        wheel.add(new Marker(-10), START - 10);
+        assertTrue(wheel.hasDue());
+        assertEquals(2, wheel.size());
+
+        // advancing backwards does not move the wheel but still collects the due triggers
+        wheel.advance(START - 100, fired);
+        assertEquals(2, fired.size());
+        assertEquals(START, wheel.getCurrentTick());
+        assertFalse(wheel.hasDue());
+        assertEquals(0, wheel.size());
+    }
+
+    /**
+     * Ensures an empty wheel jumps directly to the supplied tick.
+     */
+    @Test
+    public void testEmptyWheel() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<Runnable> fired = new ArrayList<>();
+
+        wheel.advance(Long.MAX_VALUE, fired);
+        assertEquals(Long.MAX_VALUE, wheel.getCurrentTick());
+        assertTrue(fired.isEmpty());
+    }
+
+    /**
+     * Ensures clearing the wheel drops all its triggers.
+     */
+    @Test
+    public void testClear() {
+        TimingWheel wheel = new TimingWheel(START);
+        List<Runnable> fired = new ArrayList<>();
+        wheel.add(new Marker(0), START);
+        wheel.add(new Marker(1), START + 1);
+        wheel.add(new Marker(500), START + 500L * 86400);
+
+        wheel.clear();
+        assertEquals(0, wheel.size());
+        assertFalse(wheel.hasDue());
+        wheel.advance(START + 2, fired);
+        assertTrue(fired.isEmpty());
+    }
+
+    /**
+     * A trigger doing nothing, remembering its delay.
+     *
+     * @author Cyrille Chopelet (https://keyboardplaying.org)
+     */
+    private static class Marker implements Runnable {
+
+        private final long delay;
+
+        Marker(long delay) {
+            this.delay = delay;
+        }
+
+        @Override
+        public void run() {
+            // nothing to do
+        }
+
+        @Override
+        public String toString() {
+            return "Marker[" + delay + "]";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.keyboardplaying.cron.scheduler.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimingWheelTriggerEngine}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class TimingWheelTriggerEngineTest {
+
+    private TriggerEngine engine = new TimingWheelTriggerEngine("test-wheel", true);
+
+    /**
+     * Terminates the engine.
+     */
+    @After
+    public void terminate() {
+        engine.terminate();
+    }
+
+    /**
+     * Ensures triggers are called in order, not before they are due.
+     */
+    @Test(timeout = 4000)
+    public void testSchedule() throws InterruptedException {
+        final List<Integer> calls = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(3);
+        long start = System.currentTimeMillis();
+
+        engine.schedule(() -> {
+            calls.add(2);
+            latch.countDown();
+        }, start + 1500);
+        engine.schedule(() -> {
+            calls.add(1);
+            latch.countDown();
+        }, start + 200);
+        // already past
+        engine.schedule(() -> {
+            calls.add(0);
+            latch.countDown();
+        }, start - 1000);
+
+        latch.await();
+        assertTrue(System.currentTimeMillis() - start >= 1500);
+        assertEquals(0, calls.get(0).intValue());
+        assertEquals(1, calls.get(1).intValue());
+        assertEquals(2, calls.get(2).intValue());
+    }
+
+    /**
+     * Ensures a failing trigger does not prevent the other ones from being called, and is reported to the uncaught
+     * exception handler of the engine thread.
+     */
+    @Test(timeout = 3000)
+    public void testFailingTrigger() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch reported = new CountDownLatch(4);
+        Thread.UncaughtExceptionHandler handler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> {
+            if ("test-wheel".equals(thread.getName())) {
+                reported.countDown();
+            }
+        });
+        try {
+            long now = System.currentTimeMillis();
+
+            for (int i = 0; i < 4; i++) {
+                engine.schedule(() -> {
+                    throw new IllegalStateException("Failing trigger");
+                }, now);
+            }
+            engine.schedule(latch::countDown, now + 50);
+
+            latch.await();
+            reported.await();
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(handler);
+        }
+    }
+
+    /**
+     * Ensures the pending triggers are discarded on termination and no trigger can be scheduled afterwards.
+     */
+    @Test(timeout = 3000)
+    public void testTerminate() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        engine.schedule(latch::countDown, System.currentTimeMillis() + 100);
+        engine.terminate();
+        // subsequent calls have no effect
+        engine.terminate();
+
+        assertFalse(latch.await(1200, TimeUnit.MILLISECONDS));
+        try {
+            engine.schedule(latch::countDown, System.currentTimeMillis());
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BoundedJobExecutor}.
+ * <p/>
+ * Each test uses a single thread and a single-slot queue, the thread being kept busy so that the next firings overflow.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class BoundedJobExecutorTest {
+
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final Runnable blocker = () -> {
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    };
+
+    private BoundedJobExecutor createBusyExecutor(OverflowPolicy policy) throws InterruptedException {
+        BoundedJobExecutor executor = new BoundedJobExecutor(1, 1, policy);
+        executor.execute(blocker);
+        started.await();
+        return executor;
+    }
+
+    /**
+     * Ensures the triggering thread waits for room in the queue with the {@link OverflowPolicy#QUEUE} policy.
+     */
+    @Test(timeout = 2000)
+    public void testQueue() throws InterruptedException {
+        final BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.QUEUE);
+        final CountDownLatch done = new CountDownLatch(2);
+        executor.execute(done::countDown);
+
+        Thread trigger = new Thread(() -> executor.execute(done::countDown));
+        trigger.start();
+        trigger.join(200);
+        assertTrue(trigger.isAlive());
+
+        release.countDown();
+        done.await();
+        trigger.join();
+        assertEquals(0, executor.getDroppedCount());
+        executor.shutdown();
+    }
+
+    /**
+     * Ensures overflowing firings are discarded with the {@link OverflowPolicy#DROP} policy.
+     */
+    @Test(timeout = 2000)
+    public void testDrop() throws InterruptedException {
+        BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.DROP);
+        final AtomicInteger runs = new AtomicInteger();
+        executor.execute(runs::incrementAndGet);
+        executor.execute(runs::incrementAndGet);
+        assertEquals(1, executor.getDroppedCount());
+
+        release.countDown();
+        executor.shutdown();
+        awaitTermination(executor);
+        assertEquals(1, runs.get());
+    }
+
+    /**
+     * Ensures overflowing firings are run by the triggering thread with the {@link OverflowPolicy#RUN_INLINE} policy.
+     */
+    @Test(timeout = 2000)
+    public void testRunInline() throws InterruptedException {
+        BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.RUN_INLINE);
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+        executor.execute(() -> {
+        });
+        executor.execute(() -> runner.set(Thread.currentThread()));
+        assertSame(Thread.currentThread(), runner.get());
+        assertEquals(0, executor.getDroppedCount());
+
+        release.countDown();
+        executor.shutdown();
+    }
+
+    /**
+     * Ensures a job already waiting in the queue is not queued again with the {@link OverflowPolicy#COALESCE} policy.
+     */
+    @Test(timeout = 2000)
+    public void testCoalesce() throws InterruptedException {
+        BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.COALESCE);
+        final AtomicInteger runs = new AtomicInteger();
+        Runnable job = runs::incrementAndGet;
+        executor.execute(job);
+        executor.execute(job);
+        executor.execute(job);
+        assertEquals(2, executor.getDroppedCount());
+        // the queue is full
+        executor.execute(runs::incrementAndGet);
+        assertEquals(3, executor.getDroppedCount());
+
+        release.countDown();
+        while (runs.get() < 1) {
+            Thread.sleep(10);
+        }
+        // the job is no longer pending once started, so a new firing is run again
+        executor.execute(job);
+        executor.shutdown();
+        awaitTermination(executor);
+        assertEquals(2, runs.get());
+        assertEquals(3, executor.getDroppedCount());
+    }
+
+    /**
+     * Ensures the firings of wrapped jobs are coalesced by the job they wrap.
+     */
+    @Test(timeout = 2000)
+    public void testCoalesceWrappedJob() throws InterruptedException {
+        BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.COALESCE);
+        final AtomicInteger runs = new AtomicInteger();
+        Runnable job = runs::incrementAndGet;
+        executor.execute(wrap(job));
+        executor.execute(wrap(job));
+        executor.execute(job);
+        assertEquals(2, executor.getDroppedCount());
+
+        release.countDown();
+        executor.shutdown();
+        awaitTermination(executor);
+        assertEquals(1, runs.get());
+    }
+
+    private static WrappedJob wrap(Runnable job) {
+        return new WrappedJob() {
+            @Override
+            public void run() {
+                job.run();
+            }
+
+            @Override
+            public Runnable getJob() {
+                return job;
+            }
+        };
+    }
+
+    /**
+     * Ensures a {@link DroppableJob} is told when it is coalesced with its pending execution.
+     */
+    @Test(timeout = 2000)
+    public void testDroppableJob() throws InterruptedException {
+        BoundedJobExecutor executor = createBusyExecutor(OverflowPolicy.COALESCE);
+        final AtomicInteger drops = new AtomicInteger();
+        DroppableJob job = new DroppableJob() {
+            @Override
+            public void run() {
+            }
+
+            @Override
+            public void dropped() {
+                drops.incrementAndGet();
+            }
+        };
+        executor.execute(job);
+        assertEquals(0, drops.get());
+        // coalesced with the pending execution
+        executor.execute(job);
+        assertEquals(1, drops.get());
+
+        release.countDown();
+        executor.shutdown();
+        awaitTermination(executor);
+        assertEquals(1, drops.get());
+    }
+
+    /**
+     * Ensures no job is accepted once the executor has been shut down.
+     */
+    @Test(expected = RejectedExecutionException.class)
+    public void testShutdown() {
+        BoundedJobExecutor executor = new BoundedJobExecutor();
+        executor.shutdown();
+        executor.execute(() -> {
+        });
+    }
+
+    /**
+     * Ensures the queue capacity must be strictly positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQueueCapacity() {
+        new BoundedJobExecutor(1, 0, OverflowPolicy.QUEUE);
+    }
+
+    private void awaitTermination(BoundedJobExecutor executor) throws InterruptedException {
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,55 @@
+package org.keyboardplaying.cron.scheduler.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link JobExecutors}.
+ *
+ * @author Cyrille Chopelet (https://keyboardplaying.org)
+ */
+public class JobExecutorsTest {
+
+    /**
+     * Ensures virtual threads are not reported as supported by a JVM which does not have them.
+     */
+    @Test
+    public void testVirtualThreadSupport() {
+        try {
+            Thread.class.getMethod("ofVirtual");
+        } catch (NoSuchMethodException e) {
+            assertFalse(JobExecutors.isVirtualThreadSupported());
+        }
+    }
+
+    /**
+     * Ensures jobs run on virtual threads when supported, and on a {@link BoundedJobExecutor} otherwise.
+     */
+    @Test(timeout = 2000)
+    public void testNewVirtualThreadExecutor() throws Exception {
+        Executor executor = JobExecutors.newVirtualThreadExecutor();
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+        final CountDownLatch latch = new CountDownLatch(1);
+        executor.execute(() -> {
+            runner.set(Thread.currentThread());
+            latch.countDown();
+        });
+        latch.await();
+
+        if (JobExecutors.isVirtualThreadSupported()) {
+            Method isVirtual = Thread.class.getMethod("isVirtual");
+            assertEquals(Boolean.TRUE, isVirtual.invoke(runner.get()));
+        } else {
+            assertTrue(executor instanceof BoundedJobExecutor);
+            ((BoundedJobExecutor) executor).shutdown();
+        }
+    }
+}